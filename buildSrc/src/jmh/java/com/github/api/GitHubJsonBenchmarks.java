@@ -0,0 +1,129 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks JSON mapping of GitHub payloads, comparing Gson data binding (with
+ * {@link LocalDateAdapter} and {@link LocalDateTimeAdapter}) to the streaming
+ * {@link GitHubJsonDecoder}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GitHubJsonBenchmarks {
+	private static final Type MILESTONE_LIST = new TypeToken<List<Milestone>>() {}.getType();
+
+	private final Gson gson = new GsonBuilder()
+			.registerTypeAdapter(LocalDate.class, new LocalDateAdapter().nullSafe())
+			.registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter().nullSafe())
+			.create();
+
+	/**
+	 * The number of milestones in a page, 100 being the maximum page size of GitHub.
+	 */
+	@Param({ "10", "100" })
+	private int milestones;
+
+	private String milestonesJson;
+
+	private String releaseJson;
+
+	private Release release;
+
+	@Setup
+	public void setUp() {
+		StringBuilder json = new StringBuilder("[");
+		for (int i = 1; i <= this.milestones; i++) {
+			if (i > 1) {
+				json.append(',');
+			}
+			// A subset of the fields GitHub returns for a milestone
+			json.append("{\"url\":\"https://api.github.com/repos/spring-projects/spring-security/milestones/").append(i)
+					.append("\",\"id\":").append(1000 + i)
+					.append(",\"number\":").append(i)
+					.append(",\"title\":\"5.").append(i).append(".0-M1\"")
+					.append(",\"description\":\"\",\"creator\":{\"login\":\"octocat\",\"id\":1,\"site_admin\":false}")
+					.append(",\"open_issues\":4,\"closed_issues\":8,\"state\":\"open\"")
+					.append(",\"created_at\":\"2022-01-10T12:00:00Z\",\"updated_at\":\"2022-02-01T12:00:00Z\"")
+					.append(",\"due_on\":").append((i % 5 == 0) ? "null" : "\"2022-03-14T12:00:00Z\"")
+					.append(",\"closed_at\":null}");
+		}
+		this.milestonesJson = json.append(']').toString();
+		this.release = Release.tag("5.6.0")
+				.commit("main")
+				.name("5.6.0")
+				.body("## :star: New Features\n\n- Add support for Spring Authorization Server #1234\n".repeat(20))
+				.build();
+		this.releaseJson = this.gson.toJson(this.release);
+	}
+
+	@Benchmark
+	public List<Milestone> bindMilestones() {
+		return this.gson.fromJson(this.milestonesJson, MILESTONE_LIST);
+	}
+
+	@Benchmark
+	public List<Milestone> streamMilestones() throws IOException {
+		List<Milestone> milestones = new ArrayList<>();
+		try (JsonReader reader = new JsonReader(new StringReader(this.milestonesJson))) {
+			reader.beginArray();
+			while (reader.hasNext()) {
+				milestones.add(GitHubJsonDecoder.readMilestone(reader));
+			}
+			reader.endArray();
+		}
+		return milestones;
+	}
+
+	@Benchmark
+	public String writeRelease() {
+		return this.gson.toJson(this.release);
+	}
+
+	@Benchmark
+	public Release bindRelease() {
+		return this.gson.fromJson(this.releaseJson, Release.class);
+	}
+}
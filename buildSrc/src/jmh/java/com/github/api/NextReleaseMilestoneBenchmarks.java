@@ -0,0 +1,92 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the calculation of the next release version of
+ * {@link GitHubMilestoneApi#getNextReleaseMilestone(RepositoryRef, String)} over
+ * snapshots of open milestones, without any network access.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NextReleaseMilestoneBenchmarks {
+	private static final String[] QUALIFIERS = { "M1", "M2", "M3", "M4", "M5", "RC1", "RC2", "RC3" };
+
+	/**
+	 * The number of open minor versions, each with all milestones and release
+	 * candidates open.
+	 */
+	@Param({ "1", "10", "100" })
+	private int versions;
+
+	private MilestoneSnapshot snapshot;
+
+	private String currentVersion;
+
+	@Setup
+	public void setUp() {
+		List<Milestone> milestones = new ArrayList<>();
+		long number = 1;
+		for (int minor = 0; minor < this.versions; minor++) {
+			// Add in reverse order so that sorting has work to do
+			for (int i = QUALIFIERS.length - 1; i >= 0; i--) {
+				milestones.add(milestone(number++, "5." + minor + ".0-" + QUALIFIERS[i]));
+			}
+			milestones.add(milestone(number++, "5." + minor + ".0"));
+		}
+		this.snapshot = new MilestoneSnapshot(milestones);
+		this.currentVersion = "5." + (this.versions / 2) + ".0-SNAPSHOT";
+	}
+
+	@Benchmark
+	public String getNextReleaseMilestone() {
+		return GitHubMilestoneApi.getNextReleaseMilestone(this.currentVersion,
+				(currentVersionNoIdentifier) -> GitHubMilestoneApi.getNextPreRelease(this.snapshot, currentVersionNoIdentifier));
+	}
+
+	@Benchmark
+	public MilestoneSnapshot indexMilestones() {
+		return new MilestoneSnapshot(this.snapshot.getMilestones());
+	}
+
+	private static Milestone milestone(long number, String title) {
+		Milestone milestone = new Milestone();
+		milestone.setNumber(number);
+		milestone.setTitle(title);
+		return milestone;
+	}
+}
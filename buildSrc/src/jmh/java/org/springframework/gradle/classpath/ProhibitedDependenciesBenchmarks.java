@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.gradle.classpath;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the {@link DependencyPolicy#DEFAULT_RULES default rules} of
+ * {@link CheckClasspathForProhibitedDependencies} over synthetic resolved dependency
+ * graphs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProhibitedDependenciesBenchmarks {
+	/**
+	 * Modules typically found on the runtime classpath of a Spring project, including
+	 * prohibited ones.
+	 */
+	private static final String[][] MODULES = {
+			{ "org.springframework", "spring-core" },
+			{ "org.springframework.security", "spring-security-web" },
+			{ "com.fasterxml.jackson.core", "jackson-databind" },
+			{ "io.projectreactor", "reactor-core" },
+			{ "org.slf4j", "slf4j-api" },
+			{ "org.slf4j", "jcl-over-slf4j" },
+			{ "commons-logging", "commons-logging" },
+			{ "javax.cache", "cache-api" },
+			{ "javax.servlet", "javax.servlet-api" },
+			{ "org.jboss.spec.javax.transaction", "jboss-transaction-api_1.2_spec" },
+			{ "org.apache.geronimo.specs", "geronimo-jta_1.1_spec" },
+			{ "org.hibernate", "hibernate-core" },
+			{ "io.micrometer", "micrometer-core" },
+			{ "org.apache.tomcat.embed", "tomcat-embed-core" }
+	};
+
+	/**
+	 * The number of resolved modules. Generated modules are drawn from a fixed set of
+	 * groups, the way large graphs repeat groups of the same projects.
+	 */
+	@Param({ "100", "1000", "10000" })
+	private int dependencies;
+
+	private String[] groups;
+
+	private String[] names;
+
+	private final DependencyPolicy policy = DependencyPolicy.compile(DependencyPolicy.DEFAULT_RULES);
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		this.groups = new String[this.dependencies];
+		this.names = new String[this.dependencies];
+		for (int i = 0; i < this.dependencies; i++) {
+			String[] module = MODULES[random.nextInt(MODULES.length)];
+			// Copy strings so that comparisons cannot short-circuit on identity
+			this.groups[i] = new String(module[0]);
+			this.names[i] = new String(module[1]);
+		}
+	}
+
+	@Benchmark
+	public int prohibited() {
+		int prohibited = 0;
+		for (int i = 0; i < this.dependencies; i++) {
+			if (this.policy.isProhibited(this.groups[i], this.names[i], "1.0")) {
+				prohibited++;
+			}
+		}
+		return prohibited;
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.support;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks release date calculations of {@link SpringReleaseTrain}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpringReleaseTrainBenchmarks {
+	@Param({ "1", "2" })
+	private int train;
+
+	private SpringReleaseTrain releaseTrain;
+
+	private LocalDate startDate;
+
+	@Setup
+	public void setUp() {
+		SpringReleaseTrainSpec releaseTrainSpec =
+				SpringReleaseTrainSpec.builder()
+						.train(this.train)
+						.version("1.0.0")
+						.weekOfMonth(2)
+						.dayOfWeek(2)
+						.year(2022)
+						.build();
+		this.releaseTrain = new SpringReleaseTrain(releaseTrainSpec);
+		this.startDate = LocalDate.of(2022, 3, 15);
+	}
+
+	@Benchmark
+	public Map<String, LocalDate> getTrainDates() {
+		return this.releaseTrain.getTrainDates();
+	}
+
+	@Benchmark
+	public LocalDate getNextReleaseDate() {
+		return this.releaseTrain.getNextReleaseDate(this.startDate);
+	}
+
+	@Benchmark
+	public boolean isTrainDate() {
+		return this.releaseTrain.isTrainDate("1.0.0-RC1", this.startDate);
+	}
+
+	@Benchmark
+	public String getVersionDueOn() {
+		return this.releaseTrain.getVersionDueOn(this.startDate);
+	}
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Response;
+
+/**
+ * Adapts OkHttp's asynchronous {@link Call#enqueue(Callback)} to
+ * {@link CompletableFuture}.
+ */
+final class AsyncCalls {
+	private AsyncCalls() {
+	}
+
+	/**
+	 * Enqueue a call on the client's dispatcher. Cancelling the returned future
+	 * cancels the call.
+	 *
+	 * @param call The call to enqueue
+	 * @return a future completed with the response, which the caller must close
+	 */
+	static CompletableFuture<Response> enqueue(Call call) {
+		CompletableFuture<Response> future = new CompletableFuture<Response>() {
+			@Override
+			public boolean cancel(boolean mayInterruptIfRunning) {
+				call.cancel();
+				return super.cancel(mayInterruptIfRunning);
+			}
+		};
+		call.enqueue(new Callback() {
+			@Override
+			public void onFailure(Call call, IOException ex) {
+				future.completeExceptionally(ex);
+			}
+
+			@Override
+			public void onResponse(Call call, Response response) {
+				if (!future.complete(response)) {
+					response.close();
+				}
+			}
+		});
+		return future;
+	}
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.ByteString;
+
+/**
+ * An on-disk cache of GET responses that revalidates entries with
+ * {@code If-None-Match} and replays the stored body when GitHub answers
+ * {@code 304 Not Modified}. Conditional requests answered with a 304 do not count
+ * against the GitHub rate limit.
+ * <p>
+ * Entries are keyed by a hash of the URL and the authorization header, so responses
+ * are never shared between access tokens. Each entry is a single file holding the
+ * entity tag, the headers needed to replay the response (such as the pagination
+ * {@code Link}) and the body, replaced atomically so that an entity tag is never
+ * paired with another body.
+ */
+public class ConditionalRequestCache implements Interceptor {
+	private static final MediaType APPLICATION_JSON = MediaType.parse("application/json; charset=utf-8");
+
+	/**
+	 * Headers of a cached response that are restored when it is replayed, such as the
+	 * pagination links.
+	 */
+	private static final List<String> REPLAYED_HEADERS = Arrays.asList("Link");
+
+	private final Path directory;
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	public ConditionalRequestCache(Path directory) {
+		this.directory = directory;
+	}
+
+	@Override
+	public Response intercept(Chain chain) throws IOException {
+		Request request = chain.request();
+		if (!"GET".equals(request.method())) {
+			return chain.proceed(request);
+		}
+		Path entryFile = this.directory.resolve(cacheKey(request) + ".entry");
+		Entry entry = Entry.read(entryFile);
+		if (entry != null) {
+			request = request.newBuilder().header("If-None-Match", entry.etag).build();
+		}
+		Response response = chain.proceed(request);
+		if (entry != null && response.code() == 304) {
+			this.hitCount.incrementAndGet();
+			response.close();
+			Response.Builder replayed = response.newBuilder()
+					.code(200)
+					.message("OK")
+					.removeHeader("Content-Length")
+					.body(ResponseBody.create(entry.contentType, entry.body));
+			// A 304 does not necessarily repeat the headers of the cached response
+			entry.headers.forEach(replayed::header);
+			return replayed.build();
+		}
+		this.missCount.incrementAndGet();
+		String responseEtag = response.header("ETag");
+		if (!response.isSuccessful() || responseEtag == null) {
+			return response;
+		}
+		byte[] body;
+		MediaType contentType;
+		try (ResponseBody responseBody = response.body()) {
+			contentType = responseBody.contentType();
+			body = responseBody.bytes();
+		}
+		Map<String, String> headers = new LinkedHashMap<>();
+		headers.put("ETag", responseEtag);
+		for (String name : REPLAYED_HEADERS) {
+			String value = response.header(name);
+			if (value != null) {
+				headers.put(name, value);
+			}
+		}
+		store(entryFile, new Entry(headers, contentType, body).toBytes());
+		return response.newBuilder()
+				.body(ResponseBody.create(contentType, body))
+				.build();
+	}
+
+	/**
+	 * @return the number of responses replayed from the cache
+	 */
+	public long getHitCount() {
+		return this.hitCount.get();
+	}
+
+	/**
+	 * @return the number of GET requests that had to be downloaded
+	 */
+	public long getMissCount() {
+		return this.missCount.get();
+	}
+
+	private void store(Path file, byte[] content) throws IOException {
+		Files.createDirectories(this.directory);
+		Path tempFile = Files.createTempFile(this.directory, file.getFileName().toString(), ".tmp");
+		Files.write(tempFile, content);
+		Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * A cached response, stored in a single file so that its entity tag and body are
+	 * always replaced together: the headers, one per line, then an empty line and the
+	 * body.
+	 */
+	private static final class Entry {
+		private final Map<String, String> headers;
+
+		private final String etag;
+
+		private final MediaType contentType;
+
+		private final byte[] body;
+
+		private Entry(Map<String, String> headers, MediaType contentType, byte[] body) {
+			this.headers = headers;
+			this.etag = headers.get("ETag");
+			this.contentType = (contentType != null) ? contentType : APPLICATION_JSON;
+			this.body = body;
+		}
+
+		private static Entry read(Path file) throws IOException {
+			if (!Files.isRegularFile(file)) {
+				return null;
+			}
+			byte[] content = Files.readAllBytes(file);
+			int separator = indexOfEmptyLine(content);
+			if (separator == -1) {
+				return null;
+			}
+			Map<String, String> headers = new LinkedHashMap<>();
+			String headerLines = new String(content, 0, separator, StandardCharsets.UTF_8);
+			for (String line : headerLines.split("\n")) {
+				int colon = line.indexOf(':');
+				if (colon > 0) {
+					headers.put(line.substring(0, colon), line.substring(colon + 1).trim());
+				}
+			}
+			if (headers.get("ETag") == null) {
+				return null;
+			}
+			String contentType = headers.remove("Content-Type");
+			byte[] body = Arrays.copyOfRange(content, separator + 2, content.length);
+			return new Entry(headers, (contentType != null) ? MediaType.parse(contentType) : null, body);
+		}
+
+		private static int indexOfEmptyLine(byte[] content) {
+			for (int i = 0; i < content.length - 1; i++) {
+				if (content[i] == '\n' && content[i + 1] == '\n') {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		private byte[] toBytes() {
+			StringBuilder headerLines = new StringBuilder();
+			this.headers.forEach((name, value) -> headerLines.append(name).append(": ").append(value).append('\n'));
+			headerLines.append("Content-Type: ").append(this.contentType).append("\n\n");
+			byte[] header = headerLines.toString().getBytes(StandardCharsets.UTF_8);
+			byte[] bytes = Arrays.copyOf(header, header.length + this.body.length);
+			System.arraycopy(this.body, 0, bytes, header.length, this.body.length);
+			return bytes;
+		}
+	}
+
+	private static String cacheKey(Request request) {
+		String authorization = request.header("Authorization");
+		return ByteString.encodeUtf8(request.url() + "\n" + authorization).sha256().hex();
+	}
+}
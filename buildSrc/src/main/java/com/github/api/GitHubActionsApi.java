@@ -17,10 +17,11 @@
 package com.github.api;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import okhttp3.Interceptor;
+import okhttp3.Call;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -47,6 +48,10 @@ public class GitHubActionsApi {
 				.build();
 	}
 
+	public GitHubActionsApi(OkHttpClient client) {
+		this.client = client;
+	}
+
 	public void setBaseUrl(String baseUrl) {
 		this.baseUrl = baseUrl;
 	}
@@ -59,35 +64,48 @@ public class GitHubActionsApi {
 	 * @param workflowDispatch The workflow dispatch containing a ref (branch) and optional inputs
 	 */
 	public void dispatchWorkflow(RepositoryRef repository, String workflowId, WorkflowDispatch workflowDispatch) {
-		String url = this.baseUrl + "/repos/" + repository.getOwner() + "/" + repository.getName() + "/actions/workflows/" + workflowId + "/dispatches";
-		String json = this.gson.toJson(workflowDispatch);
-		RequestBody body = RequestBody.create(MediaType.parse("application/json"), json);
-		Request request = new Request.Builder().url(url).post(body).build();
-		try {
-			Response response = this.client.newCall(request).execute();
-			if (!response.isSuccessful()) {
-				throw new RuntimeException(String.format("Could not create workflow dispatch %s for repository %s/%s. Got response %s",
-						workflowId, repository.getOwner(), repository.getName(), response));
-			}
+		try (Response response = this.client.newCall(newDispatchWorkflowRequest(repository, workflowId, workflowDispatch)).execute()) {
+			checkWorkflowDispatched(repository, workflowId, response);
 		} catch (IOException ex) {
 			throw new RuntimeException(String.format("Could not create workflow dispatch %s for repository %s/%s",
 					workflowId, repository.getOwner(), repository.getName()), ex);
 		}
 	}
 
-	private static class AuthorizationInterceptor implements Interceptor {
-
-		private final String token;
+	/**
+	 * Create a workflow dispatch event without blocking the caller.
+	 *
+	 * @param repository The repository owner/name
+	 * @param workflowId The ID of the workflow or the name of the workflow file name
+	 * @param workflowDispatch The workflow dispatch containing a ref (branch) and optional inputs
+	 * @return a future completed once the event is created
+	 * @see #dispatchWorkflow(RepositoryRef, String, WorkflowDispatch)
+	 */
+	public CompletableFuture<Void> dispatchWorkflowAsync(RepositoryRef repository, String workflowId, WorkflowDispatch workflowDispatch) {
+		Call call = this.client.newCall(newDispatchWorkflowRequest(repository, workflowId, workflowDispatch));
+		return AsyncCalls.enqueue(call).handle((response, ex) -> {
+			if (ex != null) {
+				throw new RuntimeException(String.format("Could not create workflow dispatch %s for repository %s/%s",
+						workflowId, repository.getOwner(), repository.getName()), ex);
+			}
+			try (Response r = response) {
+				checkWorkflowDispatched(repository, workflowId, r);
+				return null;
+			}
+		});
+	}
 
-		public AuthorizationInterceptor(String token) {
-			this.token = token;
-		}
+	private Request newDispatchWorkflowRequest(RepositoryRef repository, String workflowId, WorkflowDispatch workflowDispatch) {
+		String url = this.baseUrl + "/repos/" + repository.getOwner() + "/" + repository.getName() + "/actions/workflows/" + workflowId + "/dispatches";
+		String json = this.gson.toJson(workflowDispatch);
+		RequestBody body = RequestBody.create(MediaType.parse("application/json"), json);
+		return new Request.Builder().url(url).post(body).build();
+	}
 
-		@Override
-		public Response intercept(Chain chain) throws IOException {
-			Request request = chain.request().newBuilder()
-					.addHeader("Authorization", "Bearer " + this.token).build();
-			return chain.proceed(request);
+	private static void checkWorkflowDispatched(RepositoryRef repository, String workflowId, Response response) {
+		if (!response.isSuccessful()) {
+			throw new RuntimeException(String.format("Could not create workflow dispatch %s for repository %s/%s. Got response %s",
+					workflowId, repository.getOwner(), repository.getName(), response));
 		}
 	}
 }
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * Registry of {@link OkHttpClient} instances used to talk to GitHub.
+ * <p>
+ * All clients share a single connection pool and dispatcher, so connections (and
+ * their TLS sessions) are reused across API classes and tasks. One client is kept
+ * per base URL and access token, each carrying its own authorization header.
+ */
+public class GitHubClientRegistry implements AutoCloseable {
+	public static final String DEFAULT_BASE_URL = "https://api.github.com";
+
+	private static final int MAX_REQUESTS = 16;
+
+	private static final int MAX_REQUESTS_PER_HOST = 8;
+
+	private static final int MAX_IDLE_CONNECTIONS = 5;
+
+	private static final long KEEP_ALIVE_MINUTES = 5;
+
+	private final ConcurrentMap<ClientKey, OkHttpClient> clients = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<ClientKey, GitHubMilestoneApi> milestoneApis = new ConcurrentHashMap<>();
+
+	private final OkHttpClient rootClient;
+
+	private final List<Interceptor> interceptors;
+
+	/**
+	 * Create a registry whose clients apply the given interceptors, in order, after
+	 * the authorization header has been added.
+	 *
+	 * @param interceptors The interceptors shared by all clients
+	 */
+	public GitHubClientRegistry(Interceptor... interceptors) {
+		this.interceptors = Arrays.asList(interceptors);
+		Dispatcher dispatcher = new Dispatcher(createExecutorService());
+		dispatcher.setMaxRequests(MAX_REQUESTS);
+		dispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
+		this.rootClient = new OkHttpClient.Builder()
+				.protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+				.connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+				.dispatcher(dispatcher)
+				.connectTimeout(10, TimeUnit.SECONDS)
+				.readTimeout(30, TimeUnit.SECONDS)
+				.build();
+	}
+
+	/**
+	 * Get the shared client for the given base URL and access token.
+	 *
+	 * @param baseUrl The GitHub API base URL
+	 * @param gitHubToken The access token, or null for anonymous access
+	 * @return the shared client
+	 */
+	public OkHttpClient getClient(String baseUrl, String gitHubToken) {
+		return this.clients.computeIfAbsent(new ClientKey(baseUrl, gitHubToken), (key) -> {
+			OkHttpClient.Builder builder = this.rootClient.newBuilder();
+			if (gitHubToken != null) {
+				builder.addInterceptor(new AuthorizationInterceptor(gitHubToken));
+			}
+			this.interceptors.forEach(builder::addInterceptor);
+			return builder.build();
+		});
+	}
+
+	public GitHubMilestoneApi getMilestoneApi(String gitHubToken) {
+		return getMilestoneApi(DEFAULT_BASE_URL, gitHubToken);
+	}
+
+	/**
+	 * Get the shared milestone API for the given base URL and access token. The
+	 * instance is shared so that its milestone snapshots are fetched only once.
+	 *
+	 * @param baseUrl The GitHub API base URL
+	 * @param gitHubToken The access token, or null for anonymous access
+	 * @return the shared milestone API
+	 */
+	public GitHubMilestoneApi getMilestoneApi(String baseUrl, String gitHubToken) {
+		return this.milestoneApis.computeIfAbsent(new ClientKey(baseUrl, gitHubToken), (key) -> {
+			GitHubMilestoneApi milestoneApi = new GitHubMilestoneApi(getClient(baseUrl, gitHubToken));
+			milestoneApi.setBaseUrl(baseUrl);
+			return milestoneApi;
+		});
+	}
+
+	public GitHubReleaseApi getReleaseApi(String gitHubToken) {
+		return getReleaseApi(DEFAULT_BASE_URL, gitHubToken);
+	}
+
+	public GitHubReleaseApi getReleaseApi(String baseUrl, String gitHubToken) {
+		GitHubReleaseApi releaseApi = new GitHubReleaseApi(getClient(baseUrl, gitHubToken));
+		releaseApi.setBaseUrl(baseUrl);
+		return releaseApi;
+	}
+
+	public GitHubActionsApi getActionsApi(String gitHubToken) {
+		return getActionsApi(DEFAULT_BASE_URL, gitHubToken);
+	}
+
+	public GitHubActionsApi getActionsApi(String baseUrl, String gitHubToken) {
+		GitHubActionsApi actionsApi = new GitHubActionsApi(getClient(baseUrl, gitHubToken));
+		actionsApi.setBaseUrl(baseUrl);
+		return actionsApi;
+	}
+
+	public GitHubGraphQlApi getGraphQlApi(String gitHubToken) {
+		return getGraphQlApi(DEFAULT_BASE_URL, gitHubToken);
+	}
+
+	public GitHubGraphQlApi getGraphQlApi(String baseUrl, String gitHubToken) {
+		GitHubGraphQlApi graphQlApi = new GitHubGraphQlApi(getClient(baseUrl, gitHubToken));
+		graphQlApi.setBaseUrl(baseUrl);
+		return graphQlApi;
+	}
+
+	@Override
+	public void close() {
+		this.milestoneApis.clear();
+		this.clients.clear();
+		this.rootClient.dispatcher().executorService().shutdown();
+		this.rootClient.connectionPool().evictAll();
+	}
+
+	private static ExecutorService createExecutorService() {
+		AtomicInteger threadCount = new AtomicInteger();
+		ThreadFactory threadFactory = (runnable) -> {
+			Thread thread = new Thread(runnable, "github-api-dispatcher-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_REQUESTS, MAX_REQUESTS, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), threadFactory);
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	private static final class ClientKey {
+		private final String baseUrl;
+
+		private final String gitHubToken;
+
+		private ClientKey(String baseUrl, String gitHubToken) {
+			this.baseUrl = baseUrl;
+			this.gitHubToken = gitHubToken;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof ClientKey)) {
+				return false;
+			}
+			ClientKey other = (ClientKey) obj;
+			return Objects.equals(this.baseUrl, other.baseUrl) && Objects.equals(this.gitHubToken, other.gitHubToken);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.baseUrl, this.gitHubToken);
+		}
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import org.springframework.support.SemanticVersion;
+
+/**
+ * Query GitHub through its GraphQL API, which can answer several questions about a
+ * repository in a single request.
+ */
+public class GitHubGraphQlApi {
+	private static final String MILESTONES_QUERY = "query($owner: String!, $name: String!, $title: String!, $cursor: String) {"
+			+ " repository(owner: $owner, name: $name) {"
+			+ " milestones(first: 100, after: $cursor, states: OPEN, query: $title) {"
+			+ " pageInfo { hasNextPage endCursor }"
+			+ " nodes { title number dueOn"
+			+ " issues(states: OPEN) { totalCount }"
+			+ " pullRequests(states: OPEN) { totalCount } } } } }";
+
+	private String baseUrl = "https://api.github.com";
+
+	private final OkHttpClient client;
+
+	private final Gson gson = new GsonBuilder()
+			.registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter().nullSafe())
+			.create();
+
+	public GitHubGraphQlApi(OkHttpClient client) {
+		this.client = client;
+	}
+
+	public void setBaseUrl(String baseUrl) {
+		this.baseUrl = baseUrl;
+	}
+
+	/**
+	 * Determine the next release version, its due date and its number of open issues
+	 * and pull requests with a single query.
+	 *
+	 * @param repositoryRef The repository owner/name
+	 * @param currentVersion The current project version (e.g. 5.6.0-SNAPSHOT)
+	 * @return the state of the next release
+	 * @see GitHubMilestoneApi#getNextReleaseMilestone(RepositoryRef, String)
+	 */
+	public ReleasePreflight getReleasePreflight(RepositoryRef repositoryRef, String currentVersion) {
+		SemanticVersion version = SemanticVersion.tryParse(currentVersion);
+		String currentVersionNoIdentifier = (version != null) ? version.toGa().toString() : currentVersion;
+		List<MilestoneNode> nodes = getMilestones(repositoryRef, currentVersionNoIdentifier);
+		List<Milestone> milestones = new ArrayList<>();
+		Map<Long, Integer> openIssues = new HashMap<>();
+		for (MilestoneNode node : nodes) {
+			Milestone milestone = new Milestone();
+			milestone.setTitle(node.title);
+			milestone.setNumber(node.number);
+			milestone.setDueOn(node.dueOn);
+			milestones.add(milestone);
+			openIssues.put(node.number, node.issues.totalCount + node.pullRequests.totalCount);
+		}
+		MilestoneSnapshot snapshot = new MilestoneSnapshot(milestones);
+		String nextVersion = GitHubMilestoneApi.getNextReleaseMilestone(currentVersion,
+				(versionNoIdentifier) -> GitHubMilestoneApi.getNextPreRelease(snapshot, versionNoIdentifier));
+		Optional<Milestone> milestone = snapshot.findByTitle(nextVersion);
+		if (milestone.isEmpty()) {
+			return new ReleasePreflight(nextVersion, null, null, false, 0);
+		}
+		Long number = milestone.get().getNumber();
+		LocalDateTime dueOn = milestone.get().getDueOn();
+		LocalDate dueDate = (dueOn != null) ? dueOn.toLocalDate() : null;
+		boolean dueToday = dueDate != null && LocalDate.now().compareTo(dueDate) >= 0;
+		return new ReleasePreflight(nextVersion, number, dueDate, dueToday, openIssues.get(number));
+	}
+
+	private List<MilestoneNode> getMilestones(RepositoryRef repositoryRef, String title) {
+		List<MilestoneNode> milestones = new ArrayList<>();
+		String cursor = null;
+		do {
+			Map<String, Object> variables = new HashMap<>();
+			variables.put("owner", repositoryRef.getOwner());
+			variables.put("name", repositoryRef.getName());
+			variables.put("title", title);
+			variables.put("cursor", cursor);
+			MilestoneConnection connection = query(variables).data.repository.milestones;
+			milestones.addAll(connection.nodes);
+			cursor = (connection.pageInfo.hasNextPage) ? connection.pageInfo.endCursor : null;
+		} while (cursor != null);
+		return milestones;
+	}
+
+	private GraphQlResponse query(Map<String, Object> variables) {
+		Map<String, Object> query = new HashMap<>();
+		query.put("query", MILESTONES_QUERY);
+		query.put("variables", variables);
+		RequestBody body = RequestBody.create(MediaType.parse("application/json"), this.gson.toJson(query));
+		Request request = new Request.Builder().url(this.baseUrl + "/graphql").post(body).build();
+		try (Response response = this.client.newCall(request).execute()) {
+			if (!response.isSuccessful()) {
+				throw new RuntimeException("Could not query milestones for " + variables + ". Response " + response);
+			}
+			GraphQlResponse result = this.gson.fromJson(response.body().charStream(), GraphQlResponse.class);
+			if (result.errors != null && !result.errors.isEmpty()) {
+				throw new RuntimeException("Could not query milestones for " + variables + ". Got errors " + result.errors);
+			}
+			if (result.data == null || result.data.repository == null) {
+				throw new RuntimeException("Could not find repository " + variables.get("owner") + "/" + variables.get("name"));
+			}
+			return result;
+		}
+		catch (IOException ex) {
+			throw new RuntimeException("Could not query milestones for " + variables, ex);
+		}
+	}
+
+	private static class GraphQlResponse {
+		private Data data;
+
+		private List<Map<String, Object>> errors;
+	}
+
+	private static class Data {
+		private Repository repository;
+	}
+
+	private static class Repository {
+		private MilestoneConnection milestones;
+	}
+
+	private static class MilestoneConnection {
+		private PageInfo pageInfo;
+
+		private List<MilestoneNode> nodes;
+	}
+
+	private static class PageInfo {
+		private boolean hasNextPage;
+
+		private String endCursor;
+	}
+
+	private static class MilestoneNode {
+		private String title;
+
+		private Long number;
+
+		private LocalDateTime dueOn;
+
+		private Count issues;
+
+		private Count pullRequests;
+	}
+
+	private static class Count {
+		private int totalCount;
+	}
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import okhttp3.ResponseBody;
+
+/**
+ * Streaming decoders for GitHub API payloads.
+ * <p>
+ * Only the fields bound by the model classes are read; everything else is skipped
+ * without being materialized, and arrays are read one element at a time so callers
+ * can stop as soon as they have what they need.
+ */
+final class GitHubJsonDecoder {
+	private static final TypeAdapter<LocalDateTime> LOCAL_DATE_TIME_ADAPTER = new LocalDateTimeAdapter().nullSafe();
+
+	private GitHubJsonDecoder() {
+	}
+
+	/**
+	 * Check whether a JSON array contains at least one element. Only the opening of
+	 * the array is read before the body is closed.
+	 *
+	 * @param body The response body containing a JSON array
+	 * @return true if the array is not empty, false otherwise
+	 */
+	static boolean hasElements(ResponseBody body) throws IOException {
+		try (JsonReader reader = new JsonReader(body.charStream())) {
+			reader.beginArray();
+			return reader.hasNext();
+		}
+	}
+
+	static Milestone readMilestone(JsonReader reader) throws IOException {
+		Milestone milestone = new Milestone();
+		reader.beginObject();
+		while (reader.hasNext()) {
+			switch (reader.nextName()) {
+				case "title":
+					milestone.setTitle(nextString(reader));
+					break;
+				case "number":
+					milestone.setNumber(nextLong(reader));
+					break;
+				case "due_on":
+					milestone.setDueOn(LOCAL_DATE_TIME_ADAPTER.read(reader));
+					break;
+				default:
+					reader.skipValue();
+			}
+		}
+		reader.endObject();
+		return milestone;
+	}
+
+	static Issue readIssue(JsonReader reader) throws IOException {
+		Issue issue = new Issue();
+		reader.beginObject();
+		while (reader.hasNext()) {
+			switch (reader.nextName()) {
+				case "number":
+					issue.setNumber(nextLong(reader));
+					break;
+				case "title":
+					issue.setTitle(nextString(reader));
+					break;
+				case "state":
+					issue.setState(nextString(reader));
+					break;
+				case "html_url":
+					issue.setHtmlUrl(nextString(reader));
+					break;
+				case "labels":
+					issue.setLabels(readLabels(reader));
+					break;
+				case "user":
+					issue.setUser(readUser(reader));
+					break;
+				case "pull_request":
+					issue.setPullRequest(readPullRequest(reader));
+					break;
+				default:
+					reader.skipValue();
+			}
+		}
+		reader.endObject();
+		return issue;
+	}
+
+	private static Issue.User readUser(JsonReader reader) throws IOException {
+		if (reader.peek() == JsonToken.NULL) {
+			reader.nextNull();
+			return null;
+		}
+		Issue.User user = new Issue.User();
+		reader.beginObject();
+		while (reader.hasNext()) {
+			switch (reader.nextName()) {
+				case "login":
+					user.setLogin(nextString(reader));
+					break;
+				case "html_url":
+					user.setHtmlUrl(nextString(reader));
+					break;
+				default:
+					reader.skipValue();
+			}
+		}
+		reader.endObject();
+		return user;
+	}
+
+	private static Issue.PullRequest readPullRequest(JsonReader reader) throws IOException {
+		if (reader.peek() == JsonToken.NULL) {
+			reader.nextNull();
+			return null;
+		}
+		Issue.PullRequest pullRequest = new Issue.PullRequest();
+		reader.beginObject();
+		while (reader.hasNext()) {
+			if ("html_url".equals(reader.nextName())) {
+				pullRequest.setHtmlUrl(nextString(reader));
+			}
+			else {
+				reader.skipValue();
+			}
+		}
+		reader.endObject();
+		return pullRequest;
+	}
+
+	private static List<Issue.Label> readLabels(JsonReader reader) throws IOException {
+		if (reader.peek() == JsonToken.NULL) {
+			reader.nextNull();
+			return null;
+		}
+		List<Issue.Label> labels = new ArrayList<>();
+		reader.beginArray();
+		while (reader.hasNext()) {
+			Issue.Label label = new Issue.Label();
+			reader.beginObject();
+			while (reader.hasNext()) {
+				if ("name".equals(reader.nextName())) {
+					label.setName(nextString(reader));
+				}
+				else {
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+			labels.add(label);
+		}
+		reader.endArray();
+		return labels;
+	}
+
+	private static String nextString(JsonReader reader) throws IOException {
+		if (reader.peek() == JsonToken.NULL) {
+			reader.nextNull();
+			return null;
+		}
+		return reader.nextString();
+	}
+
+	private static Long nextLong(JsonReader reader) throws IOException {
+		if (reader.peek() == JsonToken.NULL) {
+			reader.nextNull();
+			return null;
+		}
+		return reader.nextLong();
+	}
+}
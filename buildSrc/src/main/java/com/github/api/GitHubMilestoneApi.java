@@ -19,26 +19,37 @@ package com.github.api;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import com.google.common.reflect.TypeToken;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import okhttp3.Interceptor;
+import com.google.gson.JsonParseException;
+import okhttp3.Call;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okio.ByteString;
+
+import org.springframework.support.SemanticVersion;
 
 public class GitHubMilestoneApi {
 	private String baseUrl = "https://api.github.com";
 
 	private final OkHttpClient client;
 
+	private final ConcurrentMap<String, MilestoneSnapshot> milestoneSnapshots = new ConcurrentHashMap<>();
+
 	private final Gson gson = new GsonBuilder()
 			.registerTypeAdapter(LocalDate.class, new LocalDateAdapter().nullSafe())
 			.registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter().nullSafe())
@@ -54,51 +65,216 @@ public class GitHubMilestoneApi {
 				.build();
 	}
 
+	public GitHubMilestoneApi(OkHttpClient client) {
+		this.client = client;
+	}
+
 	public void setBaseUrl(String baseUrl) {
 		this.baseUrl = baseUrl;
 	}
 
+	/**
+	 * Find the number of an open milestone. If no snapshot of the repository has been
+	 * taken yet, milestones are streamed and the search stops at the first match.
+	 *
+	 * @param repositoryRef The repository owner/name
+	 * @param milestoneTitle The title of the milestone
+	 * @return the number of the milestone
+	 */
 	public long findMilestoneNumberByTitle(RepositoryRef repositoryRef, String milestoneTitle) {
-		List<Milestone> milestones = this.getMilestones(repositoryRef);
-		for (Milestone milestone : milestones) {
-			if (milestoneTitle.equals(milestone.getTitle())) {
-				return milestone.getNumber();
-			}
+		return findMilestoneNumberByTitle(repositoryRef, milestoneTitle, "open");
+	}
+
+	/**
+	 * Find the number of a milestone in the given state, e.g. {@code all} to find a
+	 * milestone that may already be closed. A snapshot of the open milestones is used
+	 * when it contains the milestone, otherwise milestones are streamed and the search
+	 * stops at the first match.
+	 *
+	 * @param repositoryRef The repository owner/name
+	 * @param milestoneTitle The title of the milestone
+	 * @param state The state of the milestone (open, closed or all)
+	 * @return the number of the milestone
+	 */
+	public long findMilestoneNumberByTitle(RepositoryRef repositoryRef, String milestoneTitle, String state) {
+		MilestoneSnapshot snapshot = this.milestoneSnapshots.get(snapshotKey(repositoryRef));
+		Optional<Milestone> milestone = Optional.empty();
+		if (snapshot != null && !"closed".equals(state)) {
+			milestone = snapshot.findByTitle(milestoneTitle);
 		}
-		if (milestones.size() <= 100) {
-			throw new RuntimeException("Could not find open milestone with title " + milestoneTitle + " for repository " + repositoryRef + " Got " + milestones);
+		if (milestone.isEmpty() && (snapshot == null || !"open".equals(state))) {
+			try (Stream<Milestone> milestones = streamMilestones(repositoryRef, state)) {
+				milestone = milestones.filter((m) -> milestoneTitle.equals(m.getTitle())).findFirst();
+			}
 		}
-		throw new RuntimeException("It is possible there are too many open milestones (only 100 are supported). Could not find open milestone with title " + milestoneTitle + " for repository " + repositoryRef + " Got " + milestones);
+		return milestone.map(Milestone::getNumber).orElseThrow(() -> new RuntimeException("Could not find "
+				+ ("all".equals(state) ? "" : state + " ") + "milestone with title " + milestoneTitle
+				+ " for repository " + repositoryRef));
 	}
 
 	public List<Milestone> getMilestones(RepositoryRef repositoryRef) {
+		return getMilestoneSnapshot(repositoryRef).getMilestones();
+	}
+
+	/**
+	 * Get a snapshot of the open milestones of a repository. The milestones are
+	 * fetched once and shared by all subsequent lookups on this instance until a
+	 * milestone is created in the repository.
+	 *
+	 * @param repositoryRef The repository owner/name
+	 * @return the indexed milestones of the repository
+	 */
+	public MilestoneSnapshot getMilestoneSnapshot(RepositoryRef repositoryRef) {
+		return this.milestoneSnapshots.computeIfAbsent(snapshotKey(repositoryRef),
+				(key) -> new MilestoneSnapshot(fetchMilestones(repositoryRef)));
+	}
+
+	/**
+	 * Get a snapshot of the open milestones of a repository without blocking the
+	 * caller. The snapshot is shared with {@link #getMilestoneSnapshot(RepositoryRef)}.
+	 *
+	 * @param repositoryRef The repository owner/name
+	 * @return a future completed with the indexed milestones of the repository
+	 */
+	public CompletableFuture<MilestoneSnapshot> getMilestoneSnapshotAsync(RepositoryRef repositoryRef) {
+		MilestoneSnapshot snapshot = this.milestoneSnapshots.get(snapshotKey(repositoryRef));
+		if (snapshot != null) {
+			return CompletableFuture.completedFuture(snapshot);
+		}
 		String url = this.baseUrl + "/repos/" + repositoryRef.getOwner() + "/" + repositoryRef.getName() + "/milestones?per_page=100";
-		Request request = new Request.Builder().get().url(url)
-				.build();
-		try {
-			Response response = this.client.newCall(request).execute();
-			if (!response.isSuccessful()) {
-				throw new RuntimeException("Could not retrieve milestones for repository " + repositoryRef + ". Response " + response);
-			}
-			return this.gson.fromJson(response.body().charStream(), new TypeToken<List<Milestone>>(){}.getType());
-		} catch (IOException e) {
-			throw new RuntimeException("Could not retrieve milestones for repository " + repositoryRef, e);
+		return new GitHubPaginator<>(this.client, GitHubJsonDecoder::readMilestone).collectAsync(url)
+				.thenApply((milestones) -> this.milestoneSnapshots.computeIfAbsent(snapshotKey(repositoryRef),
+						(key) -> new MilestoneSnapshot(milestones)));
+	}
+
+	public CompletableFuture<List<Milestone>> getMilestonesAsync(RepositoryRef repositoryRef) {
+		return getMilestoneSnapshotAsync(repositoryRef).thenApply(MilestoneSnapshot::getMilestones);
+	}
+
+	/**
+	 * Stream the open milestones of a repository, following pagination lazily. The
+	 * stream should be closed if it is not fully consumed.
+	 *
+	 * @param repositoryRef The repository owner/name
+	 * @return a lazy stream of the open milestones
+	 */
+	public Stream<Milestone> streamMilestones(RepositoryRef repositoryRef) {
+		return streamMilestones(repositoryRef, "open");
+	}
+
+	private Stream<Milestone> streamMilestones(RepositoryRef repositoryRef, String state) {
+		String url = this.baseUrl + "/repos/" + repositoryRef.getOwner() + "/" + repositoryRef.getName() + "/milestones?per_page=100";
+		if (!"open".equals(state)) {
+			url += "&state=" + state;
+		}
+		return new GitHubPaginator<>(this.client, GitHubJsonDecoder::readMilestone).stream(url);
+	}
+
+	/**
+	 * Stream the issues of a milestone, following pagination lazily. The stream should
+	 * be closed if it is not fully consumed.
+	 *
+	 * @param repositoryRef The repository owner/name
+	 * @param milestoneNumber The number of the milestone
+	 * @param state The state of the issues (open, closed or all)
+	 * @return a lazy stream of the issues
+	 */
+	public Stream<Issue> streamIssues(RepositoryRef repositoryRef, long milestoneNumber, String state) {
+		String url = this.baseUrl + "/repos/" + repositoryRef.getOwner() + "/" + repositoryRef.getName() + "/issues?per_page=100&milestone=" + milestoneNumber + "&state=" + state;
+		return new GitHubPaginator<>(this.client, GitHubJsonDecoder::readIssue).stream(url);
+	}
+
+	/**
+	 * Get the issues of a milestone without blocking the caller. Pages after the first
+	 * are fetched concurrently.
+	 *
+	 * @param repositoryRef The repository owner/name
+	 * @param milestoneNumber The number of the milestone
+	 * @param state The state of the issues (open, closed or all)
+	 * @return a future completed with the issues
+	 */
+	public CompletableFuture<List<Issue>> getIssuesAsync(RepositoryRef repositoryRef, long milestoneNumber, String state) {
+		String url = this.baseUrl + "/repos/" + repositoryRef.getOwner() + "/" + repositoryRef.getName() + "/issues?per_page=100&milestone=" + milestoneNumber + "&state=" + state;
+		return new GitHubPaginator<>(this.client, GitHubJsonDecoder::readIssue).collectAsync(url);
+	}
+
+	private List<Milestone> fetchMilestones(RepositoryRef repositoryRef) {
+		try (Stream<Milestone> milestones = streamMilestones(repositoryRef)) {
+			return milestones.collect(Collectors.toList());
 		}
 	}
 
 	public boolean isOpenIssuesForMilestoneNumber(RepositoryRef repositoryRef, long milestoneNumber) {
+		try (Response response = this.client.newCall(newOpenIssuesRequest(repositoryRef, milestoneNumber)).execute()) {
+			return hasOpenIssues(repositoryRef, milestoneNumber, response);
+		} catch (IOException e) {
+			throw new RuntimeException("Could not find issues for milestone number " + milestoneNumber + " for repository " + repositoryRef, e);
+		}
+	}
+
+	public CompletableFuture<Boolean> isOpenIssuesForMilestoneNumberAsync(RepositoryRef repositoryRef, long milestoneNumber) {
+		Call call = this.client.newCall(newOpenIssuesRequest(repositoryRef, milestoneNumber));
+		return AsyncCalls.enqueue(call).handle((response, ex) -> {
+			if (ex != null) {
+				throw new RuntimeException("Could not find issues for milestone number " + milestoneNumber + " for repository " + repositoryRef, ex);
+			}
+			try (Response r = response) {
+				return hasOpenIssues(repositoryRef, milestoneNumber, r);
+			}
+			catch (IOException ioex) {
+				throw new RuntimeException("Could not find issues for milestone number " + milestoneNumber + " for repository " + repositoryRef, ioex);
+			}
+		});
+	}
+
+	private Request newOpenIssuesRequest(RepositoryRef repositoryRef, long milestoneNumber) {
 		String url = this.baseUrl + "/repos/" + repositoryRef.getOwner() + "/" + repositoryRef.getName() + "/issues?per_page=1&milestone=" + milestoneNumber;
-		Request request = new Request.Builder().get().url(url)
+		return new Request.Builder().get().url(url)
 				.build();
-		try {
-			Response response = this.client.newCall(request).execute();
+	}
+
+	private boolean hasOpenIssues(RepositoryRef repositoryRef, long milestoneNumber, Response response) throws IOException {
+		if (!response.isSuccessful()) {
+			throw new RuntimeException("Could not find issues for milestone number " + milestoneNumber + " for repository " + repositoryRef + ". Response " + response);
+		}
+		return GitHubJsonDecoder.hasElements(response.body());
+	}
+
+	/**
+	 * Fingerprint the closed issues of a milestone without fetching all of them. The
+	 * fingerprint combines the entity tags of the milestone, which change with its
+	 * issue counts, and of the most recently updated closed issues, which change with
+	 * any edit of an issue. With a {@link ConditionalRequestCache}, unchanged entities
+	 * are revalidated without counting against the rate limit.
+	 *
+	 * @param repositoryRef The repository owner/name
+	 * @param milestoneTitle The title of the milestone, which may already be closed
+	 * @return a fingerprint that changes whenever the closed issues of the milestone do
+	 */
+	public String getIssuesFingerprint(RepositoryRef repositoryRef, String milestoneTitle) {
+		long milestoneNumber = findMilestoneNumberByTitle(repositoryRef, milestoneTitle, "all");
+		String repositoryUrl = this.baseUrl + "/repos/" + repositoryRef.getOwner() + "/" + repositoryRef.getName();
+		String milestoneTag = fetchEntityTag(repositoryUrl + "/milestones/" + milestoneNumber);
+		String issuesTag = fetchEntityTag(repositoryUrl + "/issues?per_page=100&milestone=" + milestoneNumber
+				+ "&state=closed&sort=updated&direction=desc");
+		return ByteString.encodeUtf8(milestoneNumber + "\n" + milestoneTag + "\n" + issuesTag).sha256().hex();
+	}
+
+	private String fetchEntityTag(String url) {
+		Request request = new Request.Builder().get().url(url).build();
+		try (Response response = this.client.newCall(request).execute()) {
 			if (!response.isSuccessful()) {
-				throw new RuntimeException("Could not find issues for milestone number " + milestoneNumber + " for repository " + repositoryRef + ". Response " + response);
+				throw new RuntimeException("Could not fetch " + url + ". Response " + response);
 			}
-			List<Object> issues = this.gson.fromJson(response.body().charStream(), new TypeToken<List<Object>>(){}.getType());
-			return !issues.isEmpty();
-		} catch (IOException e) {
-			throw new RuntimeException("Could not find issues for milestone number " + milestoneNumber + " for repository " + repositoryRef, e);
+			String etag = response.header("ETag");
+			if (etag == null) {
+				// Without an entity tag, the content itself identifies the entity
+				return response.body().source().readByteString().sha256().hex();
+			}
+			return etag.startsWith("W/") ? etag.substring(2) : etag;
+		}
+		catch (IOException ex) {
+			throw new RuntimeException("Could not fetch " + url, ex);
 		}
 	}
 
@@ -110,37 +286,15 @@ public class GitHubMilestoneApi {
 	 * @return true if the given milestone is due today or past due, false otherwise
 	 */
 	public boolean isMilestoneDueToday(RepositoryRef repositoryRef, String milestoneTitle) {
-		String url = this.baseUrl + "/repos/" + repositoryRef.getOwner() + "/" + repositoryRef.getName()
-				+ "/milestones?per_page=100";
-		Request request = new Request.Builder().get().url(url).build();
-		try {
-			Response response = this.client.newCall(request).execute();
-			if (!response.isSuccessful()) {
-				throw new RuntimeException("Could not find milestone with title " + milestoneTitle + " for repository "
-						+ repositoryRef + ". Response " + response);
-			}
-			List<Milestone> milestones = this.gson.fromJson(response.body().charStream(),
-					new TypeToken<List<Milestone>>() {
-					}.getType());
-			for (Milestone milestone : milestones) {
-				if (milestoneTitle.equals(milestone.getTitle())) {
-					LocalDate today = LocalDate.now();
-					return milestone.getDueOn() != null && today.compareTo(milestone.getDueOn().toLocalDate()) >= 0;
-				}
-			}
-			if (milestones.size() <= 100) {
-				throw new RuntimeException("Could not find open milestone with title " + milestoneTitle
-						+ " for repository " + repositoryRef + " Got " + milestones);
-			}
-			throw new RuntimeException(
-					"It is possible there are too many open milestones open (only 100 are supported). Could not find open milestone with title "
-							+ milestoneTitle + " for repository " + repositoryRef + " Got " + milestones);
-		}
-		catch (IOException e) {
-			throw new RuntimeException(
-					"Could not find open milestone with title " + milestoneTitle + " for repository " + repositoryRef,
-					e);
+		MilestoneSnapshot milestones = getMilestoneSnapshot(repositoryRef);
+		Optional<Milestone> milestone = milestones.findByTitle(milestoneTitle);
+		if (milestone.isPresent()) {
+			LocalDate today = LocalDate.now();
+			LocalDateTime dueOn = milestone.get().getDueOn();
+			return dueOn != null && today.compareTo(dueOn.toLocalDate()) >= 0;
 		}
+		throw new RuntimeException("Could not find open milestone with title " + milestoneTitle
+				+ " for repository " + repositoryRef + " Got " + milestones);
 	}
 
 	/**
@@ -158,24 +312,37 @@ public class GitHubMilestoneApi {
 	 * @return the next matching milestone/release candidate or null if none exist
 	 */
 	public String getNextReleaseMilestone(RepositoryRef repositoryRef, String currentVersion) {
-		Pattern snapshotPattern = Pattern.compile("^([0-9]+)\\.([0-9]+)\\.([0-9]+)-SNAPSHOT$");
-		Matcher snapshotVersion = snapshotPattern.matcher(currentVersion);
-
-		if (snapshotVersion.find()) {
-			String patchSegment = snapshotVersion.group(3);
-			String currentVersionNoIdentifier = currentVersion.replace("-SNAPSHOT", "");
-			if (patchSegment.equals("0")) {
-				String nextPreRelease = getNextPreRelease(repositoryRef, currentVersionNoIdentifier);
-				return nextPreRelease != null ? nextPreRelease : currentVersionNoIdentifier;
-			}
-			else {
-				return currentVersionNoIdentifier;
-			}
-		}
-		else {
+		return getNextReleaseMilestone(currentVersion,
+				(currentVersionNoIdentifier) -> getNextPreRelease(repositoryRef, currentVersionNoIdentifier));
+	}
+
+	/**
+	 * Calculate the next release version without blocking the caller.
+	 *
+	 * @param repositoryRef The repository owner/name
+	 * @param currentVersion The current project version
+	 * @return a future completed with the next release version
+	 * @see #getNextReleaseMilestone(RepositoryRef, String)
+	 */
+	public CompletableFuture<String> getNextReleaseMilestoneAsync(RepositoryRef repositoryRef, String currentVersion) {
+		return getMilestoneSnapshotAsync(repositoryRef).thenApply((snapshot) -> getNextReleaseMilestone(currentVersion,
+				(currentVersionNoIdentifier) -> getNextPreRelease(snapshot, currentVersionNoIdentifier)));
+	}
+
+	static String getNextReleaseMilestone(String currentVersion, UnaryOperator<String> nextPreReleaseResolver) {
+		SemanticVersion version = SemanticVersion.tryParse(currentVersion);
+		if (version == null || !version.isSnapshot()) {
 			throw new IllegalStateException(
 					"Cannot calculate next release version because the current project version does not conform to the expected format");
 		}
+		String currentVersionNoIdentifier = version.toGa().toString();
+		if (version.isMinorRelease()) {
+			String nextPreRelease = nextPreReleaseResolver.apply(currentVersionNoIdentifier);
+			return nextPreRelease != null ? nextPreRelease : currentVersionNoIdentifier;
+		}
+		else {
+			return currentVersionNoIdentifier;
+		}
 	}
 
 	/**
@@ -190,74 +357,149 @@ public class GitHubMilestoneApi {
 	 * @return the next matching milestone/release candidate or null if none exist
 	 */
 	private String getNextPreRelease(RepositoryRef repositoryRef, String currentVersionNoIdentifier) {
-		String url = this.baseUrl + "/repos/" + repositoryRef.getOwner() + "/" + repositoryRef.getName()
-				+ "/milestones?per_page=100";
-		Request request = new Request.Builder().get().url(url).build();
-		try {
-			Response response = this.client.newCall(request).execute();
-			if (!response.isSuccessful()) {
-				throw new RuntimeException(
-						"Could not get milestones for repository " + repositoryRef + ". Response " + response);
-			}
-			List<Milestone> milestones = this.gson.fromJson(response.body().charStream(),
-					new TypeToken<List<Milestone>>() {
-					}.getType());
-			Optional<String> nextPreRelease = milestones.stream().map(Milestone::getTitle)
-					.filter(m -> m.startsWith(currentVersionNoIdentifier + "-"))
-					.min((m1, m2) -> {
-						Pattern preReleasePattern = Pattern.compile("^.*-([A-Z]+)([0-9]+)$");
-						Matcher matcher1 = preReleasePattern.matcher(m1);
-						Matcher matcher2 = preReleasePattern.matcher(m2);
-						if (!matcher1.find() || !matcher2.find() || !matcher1.group(1).equals(matcher2.group(1))) {
-							return m1.compareTo(m2);
-						}
-						else {
-							return Integer.valueOf(matcher1.group(2)).compareTo(Integer.valueOf(matcher2.group(2)));
-						}
-					});
-			return nextPreRelease.orElse(null);
+		return getNextPreRelease(getMilestoneSnapshot(repositoryRef), currentVersionNoIdentifier);
+	}
+
+	static String getNextPreRelease(MilestoneSnapshot milestones, String currentVersionNoIdentifier) {
+		SemanticVersion currentVersion = SemanticVersion.tryParse(currentVersionNoIdentifier);
+		if (currentVersion == null) {
+			return null;
 		}
-		catch (IOException e) {
-			throw new RuntimeException("Could not find open milestones with for repository " + repositoryRef, e);
+		SemanticVersion nextPreRelease = null;
+		for (Milestone milestone : milestones.findByVersion(currentVersionNoIdentifier)) {
+			SemanticVersion version = SemanticVersion.tryParse(milestone.getTitle());
+			if (version != null && version.isPreRelease() && version.isSameRelease(currentVersion)
+					&& (nextPreRelease == null || version.compareTo(nextPreRelease) < 0)) {
+				nextPreRelease = version;
+			}
 		}
+		return (nextPreRelease != null) ? nextPreRelease.toString() : null;
 	}
 
 	/**
-	 * Create a milestone.
+	 * Create a milestone. A milestone with the same title that already exists is
+	 * accepted, so creating a milestone can safely be repeated.
 	 *
 	 * @param repository The repository owner/name
 	 * @param milestone The milestone containing a title and due date
 	 */
 	public void createMilestone(RepositoryRef repository, Milestone milestone) {
-		String url = this.baseUrl + "/repos/" + repository.getOwner() + "/" + repository.getName() + "/milestones";
-		String json = this.gson.toJson(milestone);
-		RequestBody body = RequestBody.create(MediaType.parse("application/json"), json);
-		Request request = new Request.Builder().url(url).post(body).build();
-		try {
-			Response response = this.client.newCall(request).execute();
-			if (!response.isSuccessful()) {
-				throw new RuntimeException(String.format("Could not create milestone %s for repository %s/%s. Got response %s",
-						milestone.getTitle(), repository.getOwner(), repository.getName(), response));
-			}
+		try (Response response = this.client.newCall(newCreateMilestoneRequest(repository, milestone)).execute()) {
+			checkMilestoneCreated(repository, milestone, response);
 		} catch (IOException ex) {
-			throw new RuntimeException(String.format("Could not create release %s for repository %s/%s",
+			throw new RuntimeException(String.format("Could not create milestone %s for repository %s/%s",
 					milestone.getTitle(), repository.getOwner(), repository.getName()), ex);
+		} finally {
+			this.milestoneSnapshots.remove(snapshotKey(repository));
+		}
+	}
+
+	/**
+	 * Create several milestones concurrently, e.g. all milestones of a release train. A
+	 * milestone with the same title that already exists is accepted, so creating a
+	 * release train can safely be repeated after a partial failure.
+	 *
+	 * @param repository The repository owner/name
+	 * @param milestones The milestones containing a title and due date
+	 */
+	public void createMilestones(RepositoryRef repository, Collection<Milestone> milestones) {
+		List<CompletableFuture<Void>> futures = milestones.stream()
+				.map((milestone) -> createMilestoneAsync(repository, milestone))
+				.collect(Collectors.toList());
+		try {
+			CompletableFuture.allOf(futures.toArray(CompletableFuture<?>[]::new))
+					.handle((result, ex) -> null)
+					.join();
+		}
+		finally {
+			this.milestoneSnapshots.remove(snapshotKey(repository));
+		}
+		RuntimeException failure = null;
+		for (CompletableFuture<Void> future : futures) {
+			try {
+				future.join();
+			}
+			catch (CompletionException ex) {
+				RuntimeException cause = (ex.getCause() instanceof RuntimeException)
+						? (RuntimeException) ex.getCause() : new RuntimeException(ex.getCause());
+				if (failure == null) {
+					failure = cause;
+				}
+				else {
+					failure.addSuppressed(cause);
+				}
+			}
+		}
+		if (failure != null) {
+			throw failure;
 		}
 	}
 
-	private static class AuthorizationInterceptor implements Interceptor {
+	/**
+	 * Create a milestone without blocking the caller.
+	 *
+	 * @param repository The repository owner/name
+	 * @param milestone The milestone containing a title and due date
+	 * @return a future completed once the milestone exists
+	 * @see #createMilestone(RepositoryRef, Milestone)
+	 */
+	public CompletableFuture<Void> createMilestoneAsync(RepositoryRef repository, Milestone milestone) {
+		Call call = this.client.newCall(newCreateMilestoneRequest(repository, milestone));
+		return AsyncCalls.enqueue(call).<Void>handle((response, ex) -> {
+			if (ex != null) {
+				throw new RuntimeException(String.format("Could not create milestone %s for repository %s/%s",
+						milestone.getTitle(), repository.getOwner(), repository.getName()), ex);
+			}
+			try (Response r = response) {
+				checkMilestoneCreated(repository, milestone, r);
+				return null;
+			}
+			catch (IOException ioex) {
+				throw new RuntimeException(String.format("Could not create milestone %s for repository %s/%s",
+						milestone.getTitle(), repository.getOwner(), repository.getName()), ioex);
+			}
+		}).whenComplete((result, ex) -> this.milestoneSnapshots.remove(snapshotKey(repository)));
+	}
 
-		private final String token;
+	private Request newCreateMilestoneRequest(RepositoryRef repository, Milestone milestone) {
+		String url = this.baseUrl + "/repos/" + repository.getOwner() + "/" + repository.getName() + "/milestones";
+		String json = this.gson.toJson(milestone);
+		RequestBody body = RequestBody.create(MediaType.parse("application/json"), json);
+		return new Request.Builder().url(url).post(body).build();
+	}
 
-		public AuthorizationInterceptor(String token) {
-			this.token = token;
+	private void checkMilestoneCreated(RepositoryRef repository, Milestone milestone, Response response) throws IOException {
+		if (response.isSuccessful() || (response.code() == 422 && isAlreadyExists(response.body().string()))) {
+			return;
 		}
+		throw new RuntimeException(String.format("Could not create milestone %s for repository %s/%s. Got response %s",
+				milestone.getTitle(), repository.getOwner(), repository.getName(), response));
+	}
 
-		@Override
-		public Response intercept(Chain chain) throws IOException {
-			Request request = chain.request().newBuilder()
-					.addHeader("Authorization", "Bearer " + this.token).build();
-			return chain.proceed(request);
+	/**
+	 * Determine whether a validation failure reports that the resource already exists,
+	 * e.g. {@code {"message":"Validation Failed","errors":[{"resource":"Milestone","code":"already_exists","field":"title"}]}}.
+	 */
+	private boolean isAlreadyExists(String validationFailure) {
+		try {
+			ValidationFailure failure = this.gson.fromJson(validationFailure, ValidationFailure.class);
+			return failure != null && failure.errors != null
+					&& failure.errors.stream().anyMatch((error) -> "already_exists".equals(error.code));
 		}
+		catch (JsonParseException ex) {
+			return false;
+		}
+	}
+
+	private static String snapshotKey(RepositoryRef repositoryRef) {
+		return repositoryRef.getOwner() + "/" + repositoryRef.getName();
+	}
+
+	private static class ValidationFailure {
+		private List<ValidationError> errors;
+	}
+
+	private static class ValidationError {
+		private String code;
 	}
 }
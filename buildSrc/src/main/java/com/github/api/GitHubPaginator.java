@@ -0,0 +1,326 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.google.gson.stream.JsonReader;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Lazily iterates over all pages of a GitHub listing by following the
+ * {@code Link} response header.
+ * <p>
+ * Pages are only requested when the consumer reaches them and each page is decoded
+ * one element at a time, so callers that stop at the first match never read more
+ * than they need. Once the number of the last page is known and the second page is
+ * needed, all remaining pages are requested concurrently and yielded in order.
+ * <p>
+ * Alternatively, all elements can be collected without blocking the caller, in which
+ * case pages are requested and decoded on the client's dispatcher.
+ *
+ * @param <T> the type of the listed elements
+ */
+final class GitHubPaginator<T> {
+	private static final Pattern LINK_PATTERN = Pattern.compile("<([^>]+)>;\\s*rel=\"([a-z]+)\"");
+
+	private final OkHttpClient client;
+
+	private final ElementReader<T> elementReader;
+
+	GitHubPaginator(OkHttpClient client, ElementReader<T> elementReader) {
+		this.client = client;
+		this.elementReader = elementReader;
+	}
+
+	/**
+	 * Stream the elements of all pages starting with the given URL. The stream should
+	 * be closed when it is not fully consumed, so that outstanding requests are
+	 * cancelled.
+	 *
+	 * @param url The URL of the first page
+	 * @return a lazy stream of the listed elements
+	 */
+	Stream<T> stream(String url) {
+		PageIterator iterator = new PageIterator(url);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+				.onClose(iterator::close);
+	}
+
+	/**
+	 * Collect the elements of all pages starting with the given URL without blocking
+	 * the caller.
+	 *
+	 * @param url The URL of the first page
+	 * @return a future completed with the listed elements in order
+	 */
+	CompletableFuture<List<T>> collectAsync(String url) {
+		Request request = new Request.Builder().get().url(url).build();
+		return AsyncCalls.enqueue(this.client.newCall(request)).thenCompose((response) -> {
+			List<T> elements = readPage(response);
+			Map<String, String> links = parseLinks(response.header("Link"));
+			HttpUrl next = (links.containsKey("next")) ? HttpUrl.parse(links.get("next")) : null;
+			HttpUrl last = (links.containsKey("last")) ? HttpUrl.parse(links.get("last")) : null;
+			if (next == null) {
+				return CompletableFuture.completedFuture(elements);
+			}
+			Integer nextPage = pageOf(next);
+			Integer lastPage = (last != null) ? pageOf(last) : null;
+			if (nextPage == null || lastPage == null) {
+				return collectAsync(next.toString()).thenApply((remaining) -> concat(elements, List.of(remaining)));
+			}
+			List<CompletableFuture<List<T>>> remainingPages = new ArrayList<>();
+			for (int page = nextPage; page <= lastPage; page++) {
+				HttpUrl pageUrl = last.newBuilder().setQueryParameter("page", String.valueOf(page)).build();
+				remainingPages.add(AsyncCalls.enqueue(this.client.newCall(newGetRequest(pageUrl))).thenApply(this::readPage));
+			}
+			return CompletableFuture.allOf(remainingPages.toArray(CompletableFuture<?>[]::new))
+					.thenApply((done) -> concat(elements, remainingPages.stream()
+							.map(CompletableFuture::join).collect(Collectors.toList())));
+		});
+	}
+
+	private List<T> readPage(Response response) {
+		try (Response page = response) {
+			if (!page.isSuccessful()) {
+				throw new RuntimeException("Could not retrieve " + page.request().url() + ". Response " + page);
+			}
+			List<T> elements = new ArrayList<>();
+			JsonReader reader = new JsonReader(page.body().charStream());
+			reader.beginArray();
+			while (reader.hasNext()) {
+				elements.add(this.elementReader.read(reader));
+			}
+			reader.endArray();
+			return elements;
+		}
+		catch (IOException ex) {
+			throw new RuntimeException("Could not read " + response.request().url(), ex);
+		}
+	}
+
+	private static <T> List<T> concat(List<T> first, List<List<T>> remaining) {
+		List<T> elements = new ArrayList<>(first);
+		remaining.forEach(elements::addAll);
+		return elements;
+	}
+
+	private static Request newGetRequest(HttpUrl url) {
+		return new Request.Builder().get().url(url).build();
+	}
+
+	private static Integer pageOf(HttpUrl url) {
+		String page = url.queryParameter("page");
+		try {
+			return (page != null) ? Integer.valueOf(page) : null;
+		}
+		catch (NumberFormatException ex) {
+			return null;
+		}
+	}
+
+	static Map<String, String> parseLinks(String linkHeader) {
+		Map<String, String> links = new HashMap<>();
+		if (linkHeader != null) {
+			Matcher matcher = LINK_PATTERN.matcher(linkHeader);
+			while (matcher.find()) {
+				links.put(matcher.group(2), matcher.group(1));
+			}
+		}
+		return links;
+	}
+
+	/**
+	 * Reads a single element of a page.
+	 *
+	 * @param <T> the type of the listed elements
+	 */
+	interface ElementReader<T> {
+		T read(JsonReader reader) throws IOException;
+	}
+
+	private final class PageIterator implements Iterator<T> {
+		private final Deque<CompletableFuture<Response>> pendingPages = new ArrayDeque<>();
+
+		private Response page;
+
+		private JsonReader reader;
+
+		private String nextUrl;
+
+		private HttpUrl lastUrl;
+
+		private int nextPage;
+
+		private PageIterator(String url) {
+			this.nextUrl = url;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (this.reader == null || !readerHasNext()) {
+				closePage();
+				if (!openNextPage()) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			try {
+				return elementReader.read(this.reader);
+			}
+			catch (IOException ex) {
+				close();
+				throw new RuntimeException("Could not read " + this.page.request().url(), ex);
+			}
+		}
+
+		private boolean openNextPage() {
+			if (this.lastUrl != null) {
+				requestRemainingPages();
+			}
+			Response response;
+			boolean followLinks;
+			if (!this.pendingPages.isEmpty()) {
+				followLinks = false;
+				response = join(this.pendingPages.poll());
+			}
+			else if (this.nextUrl != null) {
+				followLinks = true;
+				response = execute(this.nextUrl);
+				this.nextUrl = null;
+			}
+			else {
+				return false;
+			}
+			this.page = response;
+			if (!response.isSuccessful()) {
+				close();
+				throw new RuntimeException("Could not retrieve " + response.request().url() + ". Response " + response);
+			}
+			if (followLinks) {
+				readLinks(response);
+			}
+			try {
+				this.reader = new JsonReader(response.body().charStream());
+				this.reader.beginArray();
+			}
+			catch (IOException ex) {
+				close();
+				throw new RuntimeException("Could not read " + response.request().url(), ex);
+			}
+			return true;
+		}
+
+		private boolean readerHasNext() {
+			try {
+				return this.reader.hasNext();
+			}
+			catch (IOException ex) {
+				close();
+				throw new RuntimeException("Could not read " + this.page.request().url(), ex);
+			}
+		}
+
+		private void closePage() {
+			this.reader = null;
+			if (this.page != null) {
+				this.page.close();
+				this.page = null;
+			}
+		}
+
+		private void readLinks(Response response) {
+			Map<String, String> links = parseLinks(response.header("Link"));
+			HttpUrl next = (links.containsKey("next")) ? HttpUrl.parse(links.get("next")) : null;
+			HttpUrl last = (links.containsKey("last")) ? HttpUrl.parse(links.get("last")) : null;
+			Integer nextPage = (next != null) ? pageOf(next) : null;
+			if (nextPage != null && last != null && pageOf(last) != null) {
+				this.lastUrl = last;
+				this.nextPage = nextPage;
+			}
+			else if (next != null) {
+				this.nextUrl = next.toString();
+			}
+		}
+
+		private void requestRemainingPages() {
+			int lastPage = pageOf(this.lastUrl);
+			for (int page = this.nextPage; page <= lastPage; page++) {
+				HttpUrl pageUrl = this.lastUrl.newBuilder().setQueryParameter("page", String.valueOf(page)).build();
+				this.pendingPages.add(AsyncCalls.enqueue(client.newCall(newGetRequest(pageUrl))));
+			}
+			this.lastUrl = null;
+		}
+
+		private Response execute(String url) {
+			Request request = new Request.Builder().get().url(url).build();
+			try {
+				return client.newCall(request).execute();
+			}
+			catch (IOException ex) {
+				throw new RuntimeException("Could not retrieve " + url, ex);
+			}
+		}
+
+		private Response join(CompletableFuture<Response> page) {
+			try {
+				return page.join();
+			}
+			catch (CompletionException ex) {
+				close();
+				throw new RuntimeException("Could not retrieve page", ex.getCause());
+			}
+		}
+
+		private void close() {
+			closePage();
+			CompletableFuture<Response> page;
+			while ((page = this.pendingPages.poll()) != null) {
+				if (!page.cancel(true)) {
+					page.thenAccept(Response::close);
+				}
+			}
+		}
+	}
+}
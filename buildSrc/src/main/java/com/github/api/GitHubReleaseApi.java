@@ -17,9 +17,10 @@
 package com.github.api;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 import com.google.gson.Gson;
-import okhttp3.Interceptor;
+import okhttp3.Call;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -44,6 +45,10 @@ public class GitHubReleaseApi {
 				.build();
 	}
 
+	public GitHubReleaseApi(OkHttpClient httpClient) {
+		this.httpClient = httpClient;
+	}
+
 	public void setBaseUrl(String baseUrl) {
 		this.baseUrl = baseUrl;
 	}
@@ -55,36 +60,47 @@ public class GitHubReleaseApi {
 	 * @param release The contents of the release
 	 */
 	public void publishRelease(RepositoryRef repository, Release release) {
-		String url = this.baseUrl + "/repos/" + repository.getOwner() + "/" + repository.getName() + "/releases";
-		String json = this.gson.toJson(release);
-		RequestBody body = RequestBody.create(MediaType.parse("application/json"), json);
-		Request request = new Request.Builder().url(url).post(body).build();
-		try {
-			Response response = this.httpClient.newCall(request).execute();
-			if (!response.isSuccessful()) {
-				throw new RuntimeException(String.format("Could not create release %s for repository %s/%s. Got response %s",
-						release.getName(), repository.getOwner(), repository.getName(), response));
-			}
+		try (Response response = this.httpClient.newCall(newPublishReleaseRequest(repository, release)).execute()) {
+			checkReleasePublished(repository, release, response);
 		} catch (IOException ex) {
 			throw new RuntimeException(String.format("Could not create release %s for repository %s/%s",
 					release.getName(), repository.getOwner(), repository.getName()), ex);
 		}
 	}
 
-	private static class AuthorizationInterceptor implements Interceptor {
-		private final String token;
-
-		public AuthorizationInterceptor(String token) {
-			this.token = token;
-		}
+	/**
+	 * Publish a release with no binary attachments without blocking the caller.
+	 *
+	 * @param repository The repository owner/name
+	 * @param release The contents of the release
+	 * @return a future completed once the release is published
+	 * @see #publishRelease(RepositoryRef, Release)
+	 */
+	public CompletableFuture<Void> publishReleaseAsync(RepositoryRef repository, Release release) {
+		Call call = this.httpClient.newCall(newPublishReleaseRequest(repository, release));
+		return AsyncCalls.enqueue(call).handle((response, ex) -> {
+			if (ex != null) {
+				throw new RuntimeException(String.format("Could not create release %s for repository %s/%s",
+						release.getName(), repository.getOwner(), repository.getName()), ex);
+			}
+			try (Response r = response) {
+				checkReleasePublished(repository, release, r);
+				return null;
+			}
+		});
+	}
 
-		@Override
-		public Response intercept(Chain chain) throws IOException {
-			Request request = chain.request().newBuilder()
-					.addHeader("Authorization", "Bearer " + this.token)
-					.build();
+	private Request newPublishReleaseRequest(RepositoryRef repository, Release release) {
+		String url = this.baseUrl + "/repos/" + repository.getOwner() + "/" + repository.getName() + "/releases";
+		String json = this.gson.toJson(release);
+		RequestBody body = RequestBody.create(MediaType.parse("application/json"), json);
+		return new Request.Builder().url(url).post(body).build();
+	}
 
-			return chain.proceed(request);
+	private static void checkReleasePublished(RepositoryRef repository, Release release, Response response) {
+		if (!response.isSuccessful()) {
+			throw new RuntimeException(String.format("Could not create release %s for repository %s/%s. Got response %s",
+					release.getName(), repository.getOwner(), repository.getName(), response));
 		}
 	}
 }
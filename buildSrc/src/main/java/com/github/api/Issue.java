@@ -0,0 +1,152 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.util.List;
+
+import com.google.gson.annotations.SerializedName;
+
+public class Issue {
+	private Long number;
+
+	private String title;
+
+	private String state;
+
+	@SerializedName("html_url")
+	private String htmlUrl;
+
+	private List<Label> labels;
+
+	private User user;
+
+	@SerializedName("pull_request")
+	private PullRequest pullRequest;
+
+	public Long getNumber() {
+		return number;
+	}
+
+	public void setNumber(Long number) {
+		this.number = number;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public void setTitle(String title) {
+		this.title = title;
+	}
+
+	public String getState() {
+		return state;
+	}
+
+	public void setState(String state) {
+		this.state = state;
+	}
+
+	public String getHtmlUrl() {
+		return htmlUrl;
+	}
+
+	public void setHtmlUrl(String htmlUrl) {
+		this.htmlUrl = htmlUrl;
+	}
+
+	public List<Label> getLabels() {
+		return labels;
+	}
+
+	public void setLabels(List<Label> labels) {
+		this.labels = labels;
+	}
+
+	public User getUser() {
+		return user;
+	}
+
+	public void setUser(User user) {
+		this.user = user;
+	}
+
+	public PullRequest getPullRequest() {
+		return pullRequest;
+	}
+
+	public void setPullRequest(PullRequest pullRequest) {
+		this.pullRequest = pullRequest;
+	}
+
+	@Override
+	public String toString() {
+		return "Issue{" +
+				"number='" + number + '\'' +
+				", title='" + title + '\'' +
+				", state='" + state + '\'' +
+				'}';
+	}
+
+	public static class Label {
+		private String name;
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+
+	public static class User {
+		private String login;
+
+		@SerializedName("html_url")
+		private String htmlUrl;
+
+		public String getLogin() {
+			return login;
+		}
+
+		public void setLogin(String login) {
+			this.login = login;
+		}
+
+		public String getHtmlUrl() {
+			return htmlUrl;
+		}
+
+		public void setHtmlUrl(String htmlUrl) {
+			this.htmlUrl = htmlUrl;
+		}
+	}
+
+	public static class PullRequest {
+		@SerializedName("html_url")
+		private String htmlUrl;
+
+		public String getHtmlUrl() {
+			return htmlUrl;
+		}
+
+		public void setHtmlUrl(String htmlUrl) {
+			this.htmlUrl = htmlUrl;
+		}
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * An immutable view of the open milestones of a repository, indexed by title, by
+ * number and by version.
+ * <p>
+ * The version index groups a release with its pre-releases, so {@code 5.6.0},
+ * {@code 5.6.0-M1} and {@code 5.6.0-RC1} are all found under {@code 5.6.0}.
+ */
+public final class MilestoneSnapshot {
+	private final List<Milestone> milestones;
+
+	private final Map<String, Milestone> milestonesByTitle;
+
+	private final Map<Long, Milestone> milestonesByNumber;
+
+	private final Map<String, List<Milestone>> milestonesByVersion;
+
+	public MilestoneSnapshot(List<Milestone> milestones) {
+		Map<String, Milestone> milestonesByTitle = new HashMap<>();
+		Map<Long, Milestone> milestonesByNumber = new HashMap<>();
+		Map<String, List<Milestone>> milestonesByVersion = new HashMap<>();
+		for (Milestone milestone : milestones) {
+			String title = milestone.getTitle();
+			if (title != null) {
+				milestonesByTitle.putIfAbsent(title, milestone);
+				milestonesByVersion.computeIfAbsent(versionOf(title), (version) -> new ArrayList<>()).add(milestone);
+			}
+			if (milestone.getNumber() != null) {
+				milestonesByNumber.putIfAbsent(milestone.getNumber(), milestone);
+			}
+		}
+		milestonesByVersion.replaceAll((version, versionMilestones) -> Collections.unmodifiableList(versionMilestones));
+		this.milestones = Collections.unmodifiableList(new ArrayList<>(milestones));
+		this.milestonesByTitle = Collections.unmodifiableMap(milestonesByTitle);
+		this.milestonesByNumber = Collections.unmodifiableMap(milestonesByNumber);
+		this.milestonesByVersion = Collections.unmodifiableMap(milestonesByVersion);
+	}
+
+	public List<Milestone> getMilestones() {
+		return this.milestones;
+	}
+
+	public int size() {
+		return this.milestones.size();
+	}
+
+	public Optional<Milestone> findByTitle(String title) {
+		return Optional.ofNullable(this.milestonesByTitle.get(title));
+	}
+
+	public Optional<Milestone> findByNumber(long number) {
+		return Optional.ofNullable(this.milestonesByNumber.get(number));
+	}
+
+	/**
+	 * Find the release and pre-release milestones of a version.
+	 *
+	 * @param version The version without any identifier (e.g. 5.6.0)
+	 * @return the milestones titled with the version, with or without an identifier
+	 */
+	public List<Milestone> findByVersion(String version) {
+		return this.milestonesByVersion.getOrDefault(version, Collections.emptyList());
+	}
+
+	@Override
+	public String toString() {
+		return this.milestones.toString();
+	}
+
+	private static String versionOf(String title) {
+		int identifierIndex = title.indexOf('-');
+		return (identifierIndex != -1) ? title.substring(0, identifierIndex) : title;
+	}
+}
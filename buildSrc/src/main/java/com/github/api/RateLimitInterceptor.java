@@ -0,0 +1,254 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Paces requests to the rate limit budget reported by GitHub and retries idempotent
+ * requests that were rejected by a (primary or secondary) rate limit or failed with a
+ * transient server error.
+ * <p>
+ * Every access token gets a token bucket whose refill rate is derived from the
+ * {@code X-RateLimit-Remaining} and {@code X-RateLimit-Reset} headers. As long as the
+ * remaining budget is comfortable, requests are not delayed at all; when it runs low,
+ * requests are spread evenly until the budget resets. Retries honour
+ * {@code Retry-After} and otherwise back off exponentially with equal jitter, i.e.
+ * a random delay between half and all of the exponential backoff.
+ */
+public class RateLimitInterceptor implements Interceptor {
+	private static final int MAX_RETRIES = 5;
+
+	private static final long INITIAL_BACKOFF_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+	private static final long MAX_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+	private static final long MAX_WAIT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+	private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+	private final AtomicLong retryCount = new AtomicLong();
+
+	private final AtomicLong throttledMillis = new AtomicLong();
+
+	private volatile long limit = -1;
+
+	private volatile long remaining = -1;
+
+	private volatile long resetEpochSeconds = -1;
+
+	@Override
+	public Response intercept(Chain chain) throws IOException {
+		Request request = chain.request();
+		TokenBucket bucket = this.buckets.computeIfAbsent(Objects.toString(request.header("Authorization"), ""),
+				(key) -> new TokenBucket());
+		boolean idempotent = "GET".equals(request.method()) || "HEAD".equals(request.method());
+		for (int attempt = 0; ; attempt++) {
+			sleep(bucket.acquire(System.currentTimeMillis()));
+			Response response;
+			try {
+				response = chain.proceed(request);
+			}
+			catch (IOException ex) {
+				if (!idempotent || attempt >= MAX_RETRIES || chain.call().isCanceled()) {
+					throw ex;
+				}
+				this.retryCount.incrementAndGet();
+				sleep(backoff(attempt));
+				continue;
+			}
+			updateBudget(bucket, response);
+			long retryDelay = retryDelay(response, attempt);
+			if (!idempotent || attempt >= MAX_RETRIES || retryDelay < 0 || retryDelay > MAX_WAIT_MILLIS) {
+				return response;
+			}
+			response.close();
+			this.retryCount.incrementAndGet();
+			sleep(retryDelay);
+		}
+	}
+
+	/**
+	 * @return the request limit reported by the last response, or -1 if unknown
+	 */
+	public long getLimit() {
+		return this.limit;
+	}
+
+	/**
+	 * @return the remaining requests reported by the last response, or -1 if unknown
+	 */
+	public long getRemaining() {
+		return this.remaining;
+	}
+
+	/**
+	 * @return the time the budget resets in epoch seconds, or -1 if unknown
+	 */
+	public long getResetEpochSeconds() {
+		return this.resetEpochSeconds;
+	}
+
+	/**
+	 * @return the number of requests that were retried
+	 */
+	public long getRetryCount() {
+		return this.retryCount.get();
+	}
+
+	/**
+	 * @return the total time requests were delayed by pacing and retries
+	 */
+	public long getThrottledMillis() {
+		return this.throttledMillis.get();
+	}
+
+	private void updateBudget(TokenBucket bucket, Response response) {
+		Long remaining = headerAsLong(response, "X-RateLimit-Remaining");
+		Long reset = headerAsLong(response, "X-RateLimit-Reset");
+		Long limit = headerAsLong(response, "X-RateLimit-Limit");
+		if (remaining == null || reset == null) {
+			return;
+		}
+		this.remaining = remaining;
+		this.resetEpochSeconds = reset;
+		if (limit != null) {
+			this.limit = limit;
+		}
+		bucket.update(remaining, TimeUnit.SECONDS.toMillis(reset), System.currentTimeMillis());
+	}
+
+	/**
+	 * Determine how long to wait before retrying a response.
+	 *
+	 * @return the delay in milliseconds, or -1 if the response should not be retried
+	 */
+	private long retryDelay(Response response, int attempt) {
+		int code = response.code();
+		boolean rateLimited = code == 429 || (code == 403
+				&& (response.header("Retry-After") != null || "0".equals(response.header("X-RateLimit-Remaining"))));
+		boolean serverError = code == 502 || code == 503 || code == 504;
+		if (!rateLimited && !serverError) {
+			return -1;
+		}
+		Long retryAfter = headerAsLong(response, "Retry-After");
+		if (retryAfter != null) {
+			return TimeUnit.SECONDS.toMillis(retryAfter);
+		}
+		Long reset = headerAsLong(response, "X-RateLimit-Reset");
+		if (rateLimited && "0".equals(response.header("X-RateLimit-Remaining")) && reset != null) {
+			return Math.max(0, TimeUnit.SECONDS.toMillis(reset) - System.currentTimeMillis());
+		}
+		return backoff(attempt);
+	}
+
+	private void sleep(long millis) throws IOException {
+		if (millis <= 0) {
+			return;
+		}
+		this.throttledMillis.addAndGet(millis);
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the GitHub rate limit");
+		}
+	}
+
+	private static long backoff(int attempt) {
+		long ceiling = Math.min(MAX_BACKOFF_MILLIS, INITIAL_BACKOFF_MILLIS << attempt);
+		return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+	}
+
+	private static Long headerAsLong(Response response, String name) {
+		String value = response.header(name);
+		if (value == null) {
+			return null;
+		}
+		try {
+			return Long.valueOf(value.trim());
+		}
+		catch (NumberFormatException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * A token bucket refilled at the rate the remaining budget allows until it resets.
+	 */
+	static final class TokenBucket {
+		/**
+		 * Pacing only starts when fewer requests than this remain.
+		 */
+		static final long LOW_WATERMARK = 100;
+
+		static final double CAPACITY = 5;
+
+		private double tokens = CAPACITY;
+
+		private double tokensPerMilli = Double.POSITIVE_INFINITY;
+
+		private long lastRefillMillis;
+
+		private long resetMillis;
+
+		/**
+		 * Reserve a token.
+		 *
+		 * @param nowMillis The current time
+		 * @return how long the caller must wait before using the token
+		 */
+		synchronized long acquire(long nowMillis) {
+			if (Double.isInfinite(this.tokensPerMilli)) {
+				return 0;
+			}
+			if (this.tokensPerMilli == 0) {
+				return Math.min(MAX_WAIT_MILLIS, Math.max(0, this.resetMillis - nowMillis));
+			}
+			this.tokens = Math.min(CAPACITY, this.tokens + (nowMillis - this.lastRefillMillis) * this.tokensPerMilli);
+			this.lastRefillMillis = nowMillis;
+			this.tokens -= 1;
+			return (this.tokens >= 0) ? 0 : (long) Math.ceil(-this.tokens / this.tokensPerMilli);
+		}
+
+		synchronized void update(long remaining, long resetMillis, long nowMillis) {
+			this.resetMillis = resetMillis;
+			if (remaining > LOW_WATERMARK || resetMillis <= nowMillis) {
+				this.tokensPerMilli = Double.POSITIVE_INFINITY;
+				this.tokens = CAPACITY;
+				return;
+			}
+			if (Double.isInfinite(this.tokensPerMilli)) {
+				this.tokens = Math.min(CAPACITY, remaining);
+				this.lastRefillMillis = nowMillis;
+			}
+			this.tokensPerMilli = (double) remaining / (resetMillis - nowMillis);
+		}
+	}
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ByteString;
+
+/**
+ * Records GitHub API responses to fixtures on disk, or replays them without touching
+ * the network, so that release tasks can be dry-run and tested hermetically.
+ * <p>
+ * Every exchange is stored as a HAR-like JSON entry named after the request method,
+ * path and a hash of the URL and request body. Repeated identical requests are
+ * numbered, so a listing can be replayed before and after a milestone was created.
+ * When a request is replayed more often than it was recorded, the last recording is
+ * reused. Request headers are never recorded, so fixtures contain no access tokens.
+ */
+public class RecordReplayInterceptor implements Interceptor {
+	private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+	private final Mode mode;
+
+	private final Path directory;
+
+	private final ConcurrentMap<String, AtomicInteger> occurrences = new ConcurrentHashMap<>();
+
+	public RecordReplayInterceptor(Mode mode, Path directory) {
+		this.mode = mode;
+		this.directory = directory;
+	}
+
+	@Override
+	public Response intercept(Chain chain) throws IOException {
+		Request request = chain.request();
+		String requestBody = readBody(request);
+		String key = fixtureKey(request, requestBody);
+		int occurrence = this.occurrences.computeIfAbsent(key, (k) -> new AtomicInteger()).incrementAndGet();
+		if (this.mode == Mode.REPLAY) {
+			return replay(request, key, occurrence);
+		}
+		return record(chain.proceed(request), requestBody, key, occurrence);
+	}
+
+	public Mode getMode() {
+		return this.mode;
+	}
+
+	public Path getDirectory() {
+		return this.directory;
+	}
+
+	private Response replay(Request request, String key, int occurrence) throws IOException {
+		for (int n = occurrence; n > 0; n--) {
+			Path fixture = this.directory.resolve(key + "-" + n + ".json");
+			if (Files.isRegularFile(fixture)) {
+				Entry entry;
+				try (Reader reader = Files.newBufferedReader(fixture, StandardCharsets.UTF_8)) {
+					entry = GSON.fromJson(reader, Entry.class);
+				}
+				Headers.Builder headers = new Headers.Builder();
+				entry.response.headers.forEach((header) -> headers.add(header.name, header.value));
+				MediaType contentType = (entry.response.content.mimeType != null)
+						? MediaType.parse(entry.response.content.mimeType) : null;
+				String text = (entry.response.content.text != null) ? entry.response.content.text : "";
+				return new Response.Builder()
+						.request(request)
+						.protocol(Protocol.HTTP_1_1)
+						.code(entry.response.status)
+						.message(Objects.toString(entry.response.statusText, ""))
+						.headers(headers.build())
+						.body(ResponseBody.create(contentType, text))
+						.build();
+			}
+		}
+		throw new IOException("No recorded response for " + request.method() + " " + request.url() + " in "
+				+ this.directory + ". Record it with -PgitHubApiMode=record");
+	}
+
+	private Response record(Response response, String requestBody, String key, int occurrence) throws IOException {
+		byte[] body;
+		MediaType contentType;
+		try (ResponseBody responseBody = response.body()) {
+			contentType = responseBody.contentType();
+			body = responseBody.bytes();
+		}
+		Entry entry = new Entry();
+		entry.request.method = response.request().method();
+		entry.request.url = response.request().url().toString();
+		entry.request.body = requestBody;
+		entry.response.status = response.code();
+		entry.response.statusText = response.message();
+		for (int i = 0; i < response.headers().size(); i++) {
+			entry.response.headers.add(new Header(response.headers().name(i), response.headers().value(i)));
+		}
+		entry.response.content.mimeType = (contentType != null) ? contentType.toString() : null;
+		entry.response.content.text = new String(body, StandardCharsets.UTF_8);
+		store(this.directory.resolve(key + "-" + occurrence + ".json"), entry);
+		return response.newBuilder()
+				.body(ResponseBody.create(contentType, body))
+				.build();
+	}
+
+	private void store(Path file, Entry entry) throws IOException {
+		Files.createDirectories(this.directory);
+		Path tempFile = Files.createTempFile(this.directory, file.getFileName().toString(), ".tmp");
+		try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+			GSON.toJson(entry, writer);
+		}
+		Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static String readBody(Request request) throws IOException {
+		if (request.body() == null) {
+			return null;
+		}
+		Buffer buffer = new Buffer();
+		request.body().writeTo(buffer);
+		return buffer.readUtf8();
+	}
+
+	private static String fixtureKey(Request request, String requestBody) {
+		String path = request.url().encodedPath().replaceAll("[^A-Za-z0-9]+", "_");
+		String hash = ByteString.encodeUtf8(request.method() + " " + request.url() + "\n" + requestBody).sha256().hex();
+		return request.method().toLowerCase(Locale.ROOT) + path + "-" + hash.substring(0, 12);
+	}
+
+	public enum Mode {
+		RECORD, REPLAY
+	}
+
+	private static class Entry {
+		private RecordedRequest request = new RecordedRequest();
+
+		private RecordedResponse response = new RecordedResponse();
+	}
+
+	private static class RecordedRequest {
+		private String method;
+
+		private String url;
+
+		private String body;
+	}
+
+	private static class RecordedResponse {
+		private int status;
+
+		private String statusText;
+
+		private List<Header> headers = new ArrayList<>();
+
+		private Content content = new Content();
+	}
+
+	private static class Header {
+		private String name;
+
+		private String value;
+
+		private Header(String name, String value) {
+			this.name = name;
+			this.value = value;
+		}
+	}
+
+	private static class Content {
+		private String mimeType;
+
+		private String text;
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.time.LocalDate;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * The state of the next release of a repository, as needed to decide whether the
+ * release can be performed today.
+ */
+public class ReleasePreflight {
+	private static final Gson GSON = new GsonBuilder()
+			.registerTypeAdapter(LocalDate.class, new LocalDateAdapter().nullSafe())
+			.serializeNulls()
+			.create();
+
+	@SerializedName("next_version")
+	private final String nextVersion;
+
+	@SerializedName("milestone_number")
+	private final Long milestoneNumber;
+
+	@SerializedName("due_on")
+	private final LocalDate dueOn;
+
+	@SerializedName("due_today")
+	private final boolean dueToday;
+
+	@SerializedName("open_issues")
+	private final int openIssues;
+
+	public ReleasePreflight(String nextVersion, Long milestoneNumber, LocalDate dueOn, boolean dueToday, int openIssues) {
+		this.nextVersion = nextVersion;
+		this.milestoneNumber = milestoneNumber;
+		this.dueOn = dueOn;
+		this.dueToday = dueToday;
+		this.openIssues = openIssues;
+	}
+
+	public String getNextVersion() {
+		return this.nextVersion;
+	}
+
+	public Long getMilestoneNumber() {
+		return this.milestoneNumber;
+	}
+
+	public LocalDate getDueOn() {
+		return this.dueOn;
+	}
+
+	public boolean isDueToday() {
+		return this.dueToday;
+	}
+
+	public int getOpenIssues() {
+		return this.openIssues;
+	}
+
+	/**
+	 * @return a machine-readable representation of this result
+	 */
+	public String toJson() {
+		return GSON.toJson(this);
+	}
+
+	@Override
+	public String toString() {
+		return "ReleasePreflight{" +
+				"nextVersion='" + this.nextVersion + '\'' +
+				", milestoneNumber=" + this.milestoneNumber +
+				", dueOn=" + this.dueOn +
+				", dueToday=" + this.dueToday +
+				", openIssues=" + this.openIssues +
+				'}';
+	}
+}
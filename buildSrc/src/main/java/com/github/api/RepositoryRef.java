@@ -1,6 +1,11 @@
 package com.github.api;
 
-public class RepositoryRef {
+import java.io.Serializable;
+import java.util.Objects;
+
+public class RepositoryRef implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	private String owner;
 	private String name;
 
@@ -28,6 +33,23 @@ public class RepositoryRef {
 		this.name = name;
 	}
 
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		RepositoryRef other = (RepositoryRef) obj;
+		return Objects.equals(this.owner, other.owner) && Objects.equals(this.name, other.name);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.owner, this.name);
+	}
+
 	@Override
 	public String toString() {
 		return "RepositoryRef{" +
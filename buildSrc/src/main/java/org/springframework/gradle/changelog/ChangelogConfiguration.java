@@ -0,0 +1,272 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.gradle.changelog;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.api.RepositoryRef;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import org.springframework.util.Assert;
+
+/**
+ * The release notes configuration, read from a YAML file in the format of the
+ * github-changelog-generator, e.g. {@code scripts/release/release-notes-sections.yml}:
+ * <pre>
+ * changelog:
+ *   repository: spring-projects/spring-security
+ *   sections:
+ *     - title: ":star: New Features"
+ *       labels: ["type: enhancement"]
+ *       sort: "title"
+ *   issues:
+ *     exclude:
+ *       labels: ["status: duplicate"]
+ *   contributors:
+ *     exclude:
+ *       names: ["rwinch"]
+ * </pre>
+ * Without sections, the default sections of the github-changelog-generator are used.
+ */
+public final class ChangelogConfiguration {
+	private final RepositoryRef repository;
+
+	private final List<Section> sections;
+
+	private final Set<String> excludedLabels;
+
+	private final Set<String> excludedContributors;
+
+	public ChangelogConfiguration(RepositoryRef repository, List<Section> sections, Set<String> excludedLabels,
+			Set<String> excludedContributors) {
+		this.repository = repository;
+		this.sections = Collections.unmodifiableList(new ArrayList<>(sections.isEmpty() ? defaultSections() : sections));
+		this.excludedLabels = Collections.unmodifiableSet(new LinkedHashSet<>(excludedLabels));
+		this.excludedContributors = Collections.unmodifiableSet(new LinkedHashSet<>(excludedContributors));
+	}
+
+	/**
+	 * @return the repository, or null if the configuration does not name one
+	 */
+	public RepositoryRef getRepository() {
+		return this.repository;
+	}
+
+	public List<Section> getSections() {
+		return this.sections;
+	}
+
+	public Set<String> getExcludedLabels() {
+		return this.excludedLabels;
+	}
+
+	public Set<String> getExcludedContributors() {
+		return this.excludedContributors;
+	}
+
+	/**
+	 * Read the configuration from a YAML file.
+	 *
+	 * @param file The YAML file
+	 * @return the configuration
+	 */
+	public static ChangelogConfiguration load(Path file) {
+		try {
+			return parse(Files.readString(file, StandardCharsets.UTF_8));
+		}
+		catch (IOException ex) {
+			throw new RuntimeException("Unable to read release notes configuration from " + file, ex);
+		}
+		catch (IllegalArgumentException ex) {
+			throw new IllegalArgumentException("Invalid release notes configuration " + file + ": " + ex.getMessage(), ex);
+		}
+	}
+
+	/**
+	 * Parse the configuration from YAML.
+	 *
+	 * @param yaml The YAML document
+	 * @return the configuration
+	 */
+	public static ChangelogConfiguration parse(String yaml) {
+		Map<String, Object> changelog = getMap(load(yaml), "changelog");
+		RepositoryRef repository = null;
+		String ownerAndName = getString(changelog, "repository");
+		if (ownerAndName != null) {
+			String[] parts = ownerAndName.split("/");
+			Assert.isTrue(parts.length == 2 && !parts[0].isEmpty() && !parts[1].isEmpty(),
+					() -> "Expected repository in owner/name format but got " + ownerAndName);
+			repository = new RepositoryRef(parts[0], parts[1]);
+		}
+		List<Section> sections = new ArrayList<>();
+		Object sectionsValue = changelog.get("sections");
+		if (sectionsValue != null) {
+			Assert.isInstanceOf(List.class, sectionsValue, "changelog.sections must be a list");
+			for (Object sectionValue : (List<?>) sectionsValue) {
+				Assert.isInstanceOf(Map.class, sectionValue, "changelog.sections must contain mappings");
+				@SuppressWarnings("unchecked")
+				Map<String, Object> section = (Map<String, Object>) sectionValue;
+				String title = getString(section, "title");
+				Assert.hasText(title, "Each of changelog.sections must have a title");
+				sections.add(new Section(title, getStrings(section, "labels"), Sort.of(getString(section, "sort"))));
+			}
+		}
+		Set<String> excludedLabels = getStrings(getMap(getMap(changelog, "issues"), "exclude"), "labels");
+		Set<String> excludedContributors = getStrings(getMap(getMap(changelog, "contributors"), "exclude"), "names");
+		return new ChangelogConfiguration(repository, sections, excludedLabels, excludedContributors);
+	}
+
+	/**
+	 * Load a YAML document with plain Java types only, so that a configuration can
+	 * not instantiate arbitrary classes.
+	 */
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> load(String yaml) {
+		Object document;
+		try {
+			document = new Yaml(new SafeConstructor(new LoaderOptions())).load(yaml);
+		}
+		catch (YAMLException ex) {
+			throw new IllegalArgumentException("Invalid YAML: " + ex.getMessage(), ex);
+		}
+		if (document == null) {
+			return Collections.emptyMap();
+		}
+		Assert.isInstanceOf(Map.class, document, "The configuration must be a mapping");
+		return (Map<String, Object>) document;
+	}
+
+	private static List<Section> defaultSections() {
+		return Arrays.asList(
+				new Section(":star: New Features", set("enhancement"), Sort.NONE),
+				new Section(":beetle: Bug Fixes", set("bug", "regression"), Sort.NONE),
+				new Section(":notebook_with_decorative_cover: Documentation", set("documentation"), Sort.NONE),
+				new Section(":hammer: Dependency Upgrades", set("dependency-upgrade"), Sort.NONE));
+	}
+
+	private static Set<String> set(String... values) {
+		return new LinkedHashSet<>(Arrays.asList(values));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> getMap(Map<String, Object> map, String key) {
+		Object value = map.get(key);
+		if (value == null) {
+			return Collections.emptyMap();
+		}
+		Assert.isInstanceOf(Map.class, value, () -> "'" + key + "' must be a mapping");
+		return (Map<String, Object>) value;
+	}
+
+	private static String getString(Map<String, Object> map, String key) {
+		Object value = map.get(key);
+		Assert.isTrue(value == null || value instanceof String, () -> "'" + key + "' must be a string");
+		return (String) value;
+	}
+
+	private static Set<String> getStrings(Map<String, Object> map, String key) {
+		Object value = map.get(key);
+		if (value == null) {
+			return Collections.emptySet();
+		}
+		if (value instanceof String) {
+			return Collections.singleton((String) value);
+		}
+		Assert.isInstanceOf(List.class, value, () -> "'" + key + "' must be a list");
+		Set<String> strings = new LinkedHashSet<>();
+		for (Object item : (List<?>) value) {
+			Assert.isInstanceOf(String.class, item, () -> "'" + key + "' must be a list of strings");
+			strings.add((String) item);
+		}
+		return strings;
+	}
+
+	/**
+	 * A section of the release notes, listing the issues with any of its labels.
+	 */
+	public static final class Section {
+		private final String title;
+
+		private final Set<String> labels;
+
+		private final Sort sort;
+
+		public Section(String title, Set<String> labels, Sort sort) {
+			this.title = title;
+			this.labels = Collections.unmodifiableSet(new LinkedHashSet<>(labels));
+			this.sort = sort;
+		}
+
+		public String getTitle() {
+			return this.title;
+		}
+
+		public Set<String> getLabels() {
+			return this.labels;
+		}
+
+		public Sort getSort() {
+			return this.sort;
+		}
+
+		@Override
+		public String toString() {
+			return this.title;
+		}
+	}
+
+	/**
+	 * The order of the issues within a section.
+	 */
+	public enum Sort {
+		/**
+		 * The order in which GitHub returns the issues.
+		 */
+		NONE,
+
+		/**
+		 * Ordered by title.
+		 */
+		TITLE;
+
+		static Sort of(String value) {
+			if (value == null) {
+				return NONE;
+			}
+			try {
+				return valueOf(value.toUpperCase(Locale.ROOT));
+			}
+			catch (IllegalArgumentException ex) {
+				throw new IllegalArgumentException("Unsupported sort '" + value + "', expected none or title", ex);
+			}
+		}
+	}
+}
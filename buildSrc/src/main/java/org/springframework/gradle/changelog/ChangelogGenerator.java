@@ -0,0 +1,222 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.gradle.changelog;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.github.api.GitHubMilestoneApi;
+import com.github.api.Issue;
+import com.github.api.RepositoryRef;
+
+import org.springframework.gradle.changelog.ChangelogConfiguration.Section;
+import org.springframework.gradle.changelog.ChangelogConfiguration.Sort;
+
+/**
+ * Generates release notes in Markdown from the closed issues and pull requests of a
+ * milestone, in the format of the github-changelog-generator, without forking a JVM.
+ * <p>
+ * Each issue is listed in the first section sharing one of its labels, and issues with
+ * an excluded label or without a section are left out. The authors of pull requests
+ * are thanked in a contributors section.
+ * <p>
+ * The sections are indexed by label once per generator, so one generator can render
+ * the release notes of many milestones, including {@link #generate(GitHubMilestoneApi,
+ * RepositoryRef, List) concurrently}.
+ */
+public final class ChangelogGenerator {
+	private static final Pattern USER_MENTION = Pattern.compile("(^|[^\\w`])(@[\\w-]+)");
+
+	private final ChangelogConfiguration configuration;
+
+	private final Map<String, Integer> sectionIndexByLabel = new HashMap<>();
+
+	public ChangelogGenerator(ChangelogConfiguration configuration) {
+		this.configuration = configuration;
+		List<Section> sections = configuration.getSections();
+		for (int i = 0; i < sections.size(); i++) {
+			for (String label : sections.get(i).getLabels()) {
+				this.sectionIndexByLabel.putIfAbsent(label, i);
+			}
+		}
+	}
+
+	/**
+	 * Generate the release notes of a milestone. The issues are streamed page by page
+	 * from GitHub.
+	 *
+	 * @param gitHubMilestoneApi The api to query the milestone and its issues with
+	 * @param repository The repository owner/name
+	 * @param milestoneTitle The title of the milestone (e.g. 5.6.0)
+	 * @return the release notes
+	 */
+	public String generate(GitHubMilestoneApi gitHubMilestoneApi, RepositoryRef repository, String milestoneTitle) {
+		long milestoneNumber = gitHubMilestoneApi.findMilestoneNumberByTitle(repository, milestoneTitle, "all");
+		try (Stream<Issue> issues = gitHubMilestoneApi.streamIssues(repository, milestoneNumber, "closed")) {
+			return generate(issues.collect(Collectors.toList()));
+		}
+	}
+
+	/**
+	 * Generate the release notes of several milestones, e.g. of all patch lines released
+	 * on the same day. The open milestones of the repository are fetched once, and the
+	 * issues of all milestones are fetched concurrently.
+	 *
+	 * @param gitHubMilestoneApi The api to query the milestones and their issues with
+	 * @param repository The repository owner/name
+	 * @param milestoneTitles The titles of the milestones (e.g. 5.6.3, 5.7.1)
+	 * @return the release notes by milestone title, in the given order
+	 */
+	public Map<String, String> generate(GitHubMilestoneApi gitHubMilestoneApi, RepositoryRef repository,
+			List<String> milestoneTitles) {
+		// Open milestones are found in the snapshot, closed ones are looked up separately
+		gitHubMilestoneApi.getMilestoneSnapshot(repository);
+		Map<String, CompletableFuture<String>> releaseNotes = new LinkedHashMap<>();
+		for (String milestoneTitle : milestoneTitles) {
+			long milestoneNumber = gitHubMilestoneApi.findMilestoneNumberByTitle(repository, milestoneTitle, "all");
+			releaseNotes.put(milestoneTitle, gitHubMilestoneApi.getIssuesAsync(repository, milestoneNumber, "closed")
+					.thenApply(this::generate));
+		}
+		CompletableFuture.allOf(releaseNotes.values().toArray(CompletableFuture<?>[]::new))
+				.handle((result, ex) -> null)
+				.join();
+		Map<String, String> result = new LinkedHashMap<>();
+		RuntimeException failure = null;
+		for (Map.Entry<String, CompletableFuture<String>> entry : releaseNotes.entrySet()) {
+			try {
+				result.put(entry.getKey(), entry.getValue().join());
+			}
+			catch (CompletionException ex) {
+				RuntimeException cause = new RuntimeException("Could not generate the release notes of "
+						+ entry.getKey(), ex.getCause());
+				if (failure == null) {
+					failure = cause;
+				}
+				else {
+					failure.addSuppressed(cause);
+				}
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+		return result;
+	}
+
+	/**
+	 * Generate the release notes of the given issues.
+	 *
+	 * @param issues The issues and pull requests, in the order GitHub returned them
+	 * @return the release notes
+	 */
+	public String generate(List<Issue> issues) {
+		StringBuilder content = new StringBuilder();
+		collate(issues).forEach((section, sectionIssues) -> {
+			if (section.getSort() == Sort.TITLE) {
+				sectionIssues.sort(Comparator.comparing(Issue::getTitle, String.CASE_INSENSITIVE_ORDER));
+			}
+			content.append((content.length() != 0) ? "\n" : "");
+			content.append("## ").append(section.getTitle()).append("\n\n");
+			for (Issue issue : sectionIssues) {
+				content.append(formatIssue(issue));
+			}
+		});
+		Map<String, Issue.User> contributors = getContributors(issues);
+		if (!contributors.isEmpty()) {
+			content.append((content.length() != 0) ? "\n" : "");
+			content.append("## :heart: Contributors\n\n");
+			content.append("We'd like to thank all the contributors who worked on this release!\n\n");
+			contributors.values().forEach((contributor) -> content.append("- [@").append(contributor.getLogin())
+					.append("](").append(contributor.getHtmlUrl()).append(")\n"));
+		}
+		return content.toString();
+	}
+
+	private Map<Section, List<Issue>> collate(List<Issue> issues) {
+		Map<Section, List<Issue>> sectionIssues = new LinkedHashMap<>();
+		this.configuration.getSections().forEach((section) -> sectionIssues.put(section, new ArrayList<>()));
+		for (Issue issue : issues) {
+			if (hasAnyLabel(issue, this.configuration.getExcludedLabels())) {
+				continue;
+			}
+			int sectionIndex = getSectionIndex(issue);
+			if (sectionIndex != -1) {
+				sectionIssues.get(this.configuration.getSections().get(sectionIndex)).add(issue);
+			}
+		}
+		sectionIssues.values().removeIf(List::isEmpty);
+		return sectionIssues;
+	}
+
+	private Map<String, Issue.User> getContributors(List<Issue> issues) {
+		Map<String, Issue.User> contributors = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		for (Issue issue : issues) {
+			Issue.User user = issue.getUser();
+			if (issue.getPullRequest() != null && user != null && user.getLogin() != null
+					&& !hasAnyLabel(issue, this.configuration.getExcludedLabels())
+					&& !this.configuration.getExcludedContributors().contains(user.getLogin())) {
+				contributors.putIfAbsent(user.getLogin(), user);
+			}
+		}
+		return contributors;
+	}
+
+	/**
+	 * @return the index of the first section sharing a label with the issue, or -1
+	 */
+	private int getSectionIndex(Issue issue) {
+		int sectionIndex = -1;
+		if (issue.getLabels() != null) {
+			for (Issue.Label label : issue.getLabels()) {
+				Integer index = this.sectionIndexByLabel.get(label.getName());
+				if (index != null && (sectionIndex == -1 || index < sectionIndex)) {
+					sectionIndex = index;
+				}
+			}
+		}
+		return sectionIndex;
+	}
+
+	private static boolean hasAnyLabel(Issue issue, Set<String> labels) {
+		if (issue.getLabels() == null) {
+			return false;
+		}
+		for (Issue.Label label : issue.getLabels()) {
+			if (labels.contains(label.getName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String formatIssue(Issue issue) {
+		// Quote mentions, so that release notes do not notify users
+		String title = USER_MENTION.matcher(issue.getTitle()).replaceAll("$1`$2`");
+		return "- " + title + " [#" + issue.getNumber() + "](" + issue.getHtmlUrl() + ")\n";
+	}
+}
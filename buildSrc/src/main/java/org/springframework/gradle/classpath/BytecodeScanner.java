@@ -0,0 +1,374 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.gradle.classpath;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Scans jars for classes in prohibited packages, including classes that were shaded or
+ * repackaged into other artifacts, which a check of the Maven coordinates misses.
+ * <p>
+ * A class is prohibited if its entry name, or its own name in the constant pool,
+ * contains a prohibited package, either at the start or relocated below another
+ * package (e.g. {@code shaded/org/apache/commons/logging/Log}). Each jar is memory
+ * mapped, and its central directory is read directly, so classes are located without
+ * reading the jar sequentially. Jars are scanned in parallel, and the classes found
+ * in each jar are cached by the content hash of the jar, so unchanged jars are never
+ * scanned again.
+ */
+final class BytecodeScanner {
+	static final List<String> DEFAULT_PROHIBITED_PACKAGES = Collections.singletonList("org.apache.commons.logging");
+
+	static final List<String> DEFAULT_PACKAGE_PROVIDERS = Collections.singletonList("org.springframework:spring-jcl");
+
+	private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+
+	private static final int CENTRAL_DIRECTORY_ENTRY = 0x02014b50;
+
+	private static final int MAX_COMMENT_LENGTH = 0xffff;
+
+	private final Path cacheDirectory;
+
+	private final List<String> packages;
+
+	private final String packagesHash;
+
+	/**
+	 * @param cacheDirectory The directory to cache the results of each jar in
+	 * @param packages The prohibited packages, e.g. {@code org.apache.commons.logging}
+	 */
+	BytecodeScanner(Path cacheDirectory, Collection<String> packages) {
+		this.cacheDirectory = cacheDirectory;
+		this.packages = packages.stream()
+				.map((name) -> name.replace('.', '/') + "/")
+				.collect(Collectors.toList());
+		this.packagesHash = sha256(String.join(",", this.packages).getBytes(StandardCharsets.UTF_8)).substring(0, 12);
+	}
+
+	/**
+	 * Scan jars in parallel.
+	 *
+	 * @param jars The jars to scan
+	 * @return the prohibited classes by jar, for jars with at least one
+	 */
+	Map<Path, List<String>> scan(Collection<Path> jars) {
+		Map<Path, List<String>> results = jars.parallelStream()
+				.collect(Collectors.toMap((jar) -> jar, this::scan));
+		Map<Path, List<String>> findings = new LinkedHashMap<>();
+		for (Path jar : jars) {
+			List<String> classes = results.get(jar);
+			if (!classes.isEmpty()) {
+				findings.put(jar, classes);
+			}
+		}
+		return findings;
+	}
+
+	/**
+	 * Scan a jar, or get the cached result of a jar with the same content.
+	 *
+	 * @param jar The jar to scan
+	 * @return the names of the prohibited classes in the jar
+	 */
+	List<String> scan(Path jar) {
+		try (FileChannel channel = FileChannel.open(jar, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				return scanCached(sha256(jar), () -> scanZipFile(jar));
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return scanCached(sha256(buffer.duplicate()), () -> scanMapped(jar, buffer));
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Unable to scan " + jar, ex);
+		}
+	}
+
+	private List<String> scanCached(String contentHash, JarScan scan) throws IOException {
+		Path cacheFile = this.cacheDirectory.resolve(contentHash + "-" + this.packagesHash + ".txt");
+		if (Files.isRegularFile(cacheFile)) {
+			return Files.readAllLines(cacheFile, StandardCharsets.UTF_8);
+		}
+		List<String> classes = scan.scan();
+		Files.createDirectories(this.cacheDirectory);
+		Path tempFile = Files.createTempFile(this.cacheDirectory, cacheFile.getFileName().toString(), ".tmp");
+		Files.write(tempFile, classes, StandardCharsets.UTF_8);
+		Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		return classes;
+	}
+
+	private List<String> scanMapped(Path jar, ByteBuffer mapped) throws IOException {
+		ByteBuffer buffer = mapped.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+		int endOfCentralDirectory = findEndOfCentralDirectory(buffer);
+		if (endOfCentralDirectory == -1) {
+			throw new IOException("Not a jar: " + jar);
+		}
+		long centralDirectorySize = Integer.toUnsignedLong(buffer.getInt(endOfCentralDirectory + 12));
+		long centralDirectoryOffset = Integer.toUnsignedLong(buffer.getInt(endOfCentralDirectory + 16));
+		if (centralDirectoryOffset == 0xffffffffL || centralDirectorySize == 0xffffffffL) {
+			// Zip64 archive, which the JDK reads for us
+			return scanZipFile(jar);
+		}
+		List<String> classes = new ArrayList<>();
+		int position = (int) centralDirectoryOffset;
+		int end = (int) (centralDirectoryOffset + centralDirectorySize);
+		while (position < end && buffer.getInt(position) == CENTRAL_DIRECTORY_ENTRY) {
+			int method = Short.toUnsignedInt(buffer.getShort(position + 10));
+			int compressedSize = buffer.getInt(position + 20);
+			int size = buffer.getInt(position + 24);
+			int nameLength = Short.toUnsignedInt(buffer.getShort(position + 28));
+			int extraLength = Short.toUnsignedInt(buffer.getShort(position + 30));
+			int commentLength = Short.toUnsignedInt(buffer.getShort(position + 32));
+			int localHeader = buffer.getInt(position + 42);
+			String name = readName(buffer, position + 46, nameLength);
+			if (name.endsWith(".class")) {
+				String className = isProhibited(name) ? name : getClassName(readEntry(buffer, localHeader, method,
+						compressedSize, size));
+				if (className != null && isProhibited(className)) {
+					classes.add(name);
+				}
+			}
+			position += 46 + nameLength + extraLength + commentLength;
+		}
+		return classes;
+	}
+
+	private List<String> scanZipFile(Path jar) throws IOException {
+		List<String> classes = new ArrayList<>();
+		try (ZipFile zipFile = new ZipFile(jar.toFile())) {
+			Enumeration<? extends ZipEntry> entries = zipFile.entries();
+			while (entries.hasMoreElements()) {
+				ZipEntry entry = entries.nextElement();
+				String name = entry.getName();
+				if (name.endsWith(".class")) {
+					String className = name;
+					if (!isProhibited(name)) {
+						try (InputStream content = zipFile.getInputStream(entry)) {
+							className = getClassName(ByteBuffer.wrap(content.readAllBytes()));
+						}
+					}
+					if (className != null && isProhibited(className)) {
+						classes.add(name);
+					}
+				}
+			}
+		}
+		return classes;
+	}
+
+	private boolean isProhibited(String name) {
+		for (String prohibitedPackage : this.packages) {
+			if (name.startsWith(prohibitedPackage) || name.contains("/" + prohibitedPackage)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int findEndOfCentralDirectory(ByteBuffer buffer) {
+		int last = buffer.limit() - 22;
+		int first = Math.max(0, last - MAX_COMMENT_LENGTH);
+		for (int position = last; position >= first; position--) {
+			if (buffer.getInt(position) == END_OF_CENTRAL_DIRECTORY) {
+				return position;
+			}
+		}
+		return -1;
+	}
+
+	private static String readName(ByteBuffer buffer, int position, int length) {
+		byte[] name = new byte[length];
+		buffer.duplicate().position(position).get(name);
+		return new String(name, StandardCharsets.UTF_8);
+	}
+
+	private static ByteBuffer readEntry(ByteBuffer buffer, int localHeader, int method, int compressedSize, int size)
+			throws IOException {
+		int nameLength = Short.toUnsignedInt(buffer.getShort(localHeader + 26));
+		int extraLength = Short.toUnsignedInt(buffer.getShort(localHeader + 28));
+		int data = localHeader + 30 + nameLength + extraLength;
+		ByteBuffer compressed = buffer.duplicate().position(data).limit(data + compressedSize).slice();
+		if (method == ZipEntry.STORED) {
+			return compressed;
+		}
+		if (method != ZipEntry.DEFLATED) {
+			throw new IOException("Unsupported compression method " + method);
+		}
+		Inflater inflater = new Inflater(true);
+		try {
+			byte[] input = new byte[compressedSize];
+			compressed.get(input);
+			inflater.setInput(input);
+			byte[] output = new byte[size];
+			int length = 0;
+			while (length < size && !inflater.finished()) {
+				int inflated = inflater.inflate(output, length, size - length);
+				if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+				length += inflated;
+			}
+			return ByteBuffer.wrap(output, 0, length);
+		}
+		catch (DataFormatException ex) {
+			throw new IOException("Invalid compressed entry", ex);
+		}
+		finally {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * Read the name of a class from its constant pool.
+	 *
+	 * @param content The content of the class file
+	 * @return the internal name of the class, or {@code null} if the content is not a
+	 * class file
+	 */
+	static String getClassName(ByteBuffer content) {
+		try {
+			return readClassName(content.duplicate().order(ByteOrder.BIG_ENDIAN));
+		}
+		catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException ex) {
+			// A truncated or malformed class file
+			return null;
+		}
+	}
+
+	private static String readClassName(ByteBuffer buffer) {
+		if (buffer.remaining() < 10 || buffer.getInt() != 0xCAFEBABE) {
+			return null;
+		}
+		buffer.position(buffer.position() + 4);
+		int constantPoolCount = Short.toUnsignedInt(buffer.getShort());
+		int[] offsets = new int[constantPoolCount];
+		for (int i = 1; i < constantPoolCount; i++) {
+			offsets[i] = buffer.position();
+			int tag = Byte.toUnsignedInt(buffer.get());
+			switch (tag) {
+				case 1:
+					buffer.position(buffer.position() + 2 + Short.toUnsignedInt(buffer.getShort(buffer.position())));
+					break;
+				case 7:
+				case 8:
+				case 16:
+				case 19:
+				case 20:
+					buffer.position(buffer.position() + 2);
+					break;
+				case 15:
+					buffer.position(buffer.position() + 3);
+					break;
+				case 3:
+				case 4:
+				case 9:
+				case 10:
+				case 11:
+				case 12:
+				case 17:
+				case 18:
+					buffer.position(buffer.position() + 4);
+					break;
+				case 5:
+				case 6:
+					buffer.position(buffer.position() + 8);
+					i++;
+					break;
+				default:
+					return null;
+			}
+		}
+		buffer.position(buffer.position() + 2);
+		int thisClass = Short.toUnsignedInt(buffer.getShort());
+		int name = Short.toUnsignedInt(buffer.getShort(offsets[thisClass] + 1));
+		int nameOffset = offsets[name];
+		byte[] utf8 = new byte[Short.toUnsignedInt(buffer.getShort(nameOffset + 1))];
+		buffer.position(nameOffset + 3);
+		buffer.get(utf8);
+		return new String(utf8, StandardCharsets.UTF_8);
+	}
+
+	private static String sha256(Path file) throws IOException {
+		MessageDigest digest = newDigest();
+		try (InputStream content = Files.newInputStream(file)) {
+			byte[] chunk = new byte[65536];
+			int read;
+			while ((read = content.read(chunk)) != -1) {
+				digest.update(chunk, 0, read);
+			}
+		}
+		return hex(digest.digest());
+	}
+
+	private static String sha256(ByteBuffer content) {
+		MessageDigest digest = newDigest();
+		digest.update(content);
+		return hex(digest.digest());
+	}
+
+	private static String sha256(byte[] content) {
+		return hex(newDigest().digest(content));
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static String hex(byte[] bytes) {
+		StringBuilder hex = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+		}
+		return hex.toString();
+	}
+
+	@FunctionalInterface
+	private interface JarScan {
+		List<String> scan() throws IOException;
+	}
+}
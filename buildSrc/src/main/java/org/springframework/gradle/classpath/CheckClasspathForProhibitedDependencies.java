@@ -16,85 +16,68 @@
 
 package org.springframework.gradle.classpath;
 
-import org.gradle.api.DefaultTask;
 import org.gradle.api.GradleException;
 import org.gradle.api.Task;
-import org.gradle.api.artifacts.Configuration;
-import org.gradle.api.artifacts.ModuleVersionIdentifier;
-import org.gradle.api.artifacts.ResolvedConfiguration;
-import org.gradle.api.file.FileCollection;
-import org.gradle.api.tasks.Classpath;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.OutputFile;
 import org.gradle.api.tasks.TaskAction;
 
 import java.io.IOException;
-import java.util.TreeSet;
-import java.util.stream.Collectors;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * A {@link Task} for checking the classpath for prohibited dependencies.
+ * <p>
+ * A report of the checked modules is the output, which lets unchanged classpaths be
+ * served from the build cache. Prohibited dependencies are explained by their shortest
+ * inbound dependency paths, in the failure message and a JSON report.
  *
  * @author Andy Wilkinson
  */
-public class CheckClasspathForProhibitedDependencies extends DefaultTask {
+@CacheableTask
+public abstract class CheckClasspathForProhibitedDependencies extends ProhibitedDependenciesClasspathTask {
 
-	private Configuration classpath;
+	@OutputFile
+	public abstract RegularFileProperty getReportFile();
 
-	public CheckClasspathForProhibitedDependencies() {
-		getOutputs().upToDateWhen((task) -> true);
-	}
-
-	public void setClasspath(Configuration classpath) {
-		this.classpath = classpath;
-	}
-
-	@Classpath
-	public FileCollection getClasspath() {
-		return this.classpath;
-	}
+	@OutputFile
+	public abstract RegularFileProperty getJsonReportFile();
 
 	@TaskAction
 	public void checkForProhibitedDependencies() throws IOException {
-		ResolvedConfiguration resolvedConfiguration = this.classpath.getResolvedConfiguration();
-		TreeSet<String> prohibited = resolvedConfiguration.getResolvedArtifacts().stream()
-				.map((artifact) -> artifact.getModuleVersion().getId()).filter(this::prohibited)
-				.map((id) -> id.getGroup() + ":" + id.getName()).collect(Collectors.toCollection(TreeSet::new));
-		if (!prohibited.isEmpty()) {
-			StringBuilder message = new StringBuilder(String.format("Found prohibited dependencies in '%s':%n", this.classpath.getName()));
-			for (String dependency : prohibited) {
-				message.append(String.format("    %s%n", dependency));
+		DependencyGraph graph = getDependencyGraph().get();
+		List<String> resolvedModules = graph.getModules();
+		DependencyPolicy policy = DependencyPolicy.compile(getPolicyRules().get());
+		List<String> prohibited = new ArrayList<>();
+		for (String module : resolvedModules) {
+			String[] coordinates = module.split(":");
+			if (policy.isProhibited(coordinates[0], coordinates[1], coordinates[2])) {
+				prohibited.add(module);
 			}
-			throw new GradleException(message.toString());
 		}
-	}
-
-	private boolean prohibited(ModuleVersionIdentifier id) {
-		String group = id.getGroup();
-		if (group.equals("javax.batch")) {
-			return false;
-		}
-		if (group.equals("javax.cache")) {
-			return false;
-		}
-		if (group.equals("javax.money")) {
-			return false;
-		}
-		// TODO: Uncomment the following lines when upgrading to Spring Framework 6
-//		if (group.startsWith("javax")) {
-//			return true;
-//		}
-		if (group.equals("commons-logging")) {
-			return true;
-		}
-		if (group.equals("org.slf4j") && id.getName().equals("jcl-over-slf4j")) {
-			return true;
+		ProhibitedDependenciesReport report = new ProhibitedDependenciesReport(1, 1, resolvedModules.size());
+		if (!prohibited.isEmpty()) {
+			report.add(getClasspathName().get(), graph, prohibited);
 		}
-		if (group.startsWith("org.jboss.spec")) {
-			return true;
+		if (getScanBytecode().get()) {
+			scanBytecode().forEach((artifact, classes) -> report.addClasses(getClasspathName().get(), artifact, classes));
 		}
-		if (group.equals("org.apache.geronimo.specs")) {
-			return true;
+		report.writeJson(getJsonReportFile().get().getAsFile().toPath());
+		if (report.hasFindings()) {
+			throw new GradleException(report.toText());
 		}
-		return false;
+		Path reportFile = getReportFile().get().getAsFile().toPath();
+		List<String> lines = new ArrayList<>();
+		lines.add(String.format("No prohibited dependencies in '%s' (%d modules checked)", getClasspathName().get(),
+				resolvedModules.size()));
+		lines.addAll(resolvedModules);
+		Files.createDirectories(reportFile.getParent());
+		Files.write(reportFile, lines, StandardCharsets.UTF_8);
 	}
 
 }
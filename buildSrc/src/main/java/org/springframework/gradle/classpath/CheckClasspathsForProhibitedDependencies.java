@@ -0,0 +1,151 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.gradle.classpath;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+
+/**
+ * Checks the classpaths of all modules for prohibited dependencies in a single pass,
+ * instead of one {@link CheckClasspathForProhibitedDependencies} task per classpath.
+ * Each project publishes the graphs of its classpaths, written by
+ * {@link SnapshotClasspathForProhibitedDependencies} tasks, as the artifacts of a
+ * consumable configuration, so no configuration of another project is resolved and no
+ * task of another project is configured.
+ * <p>
+ * Classpaths with equal component graphs and policies, which are common across
+ * modules, are checked once. Every distinct module of all graphs sharing a policy is
+ * evaluated once, in parallel. The consolidated text and JSON reports explain each
+ * prohibited module of each classpath with its shortest inbound dependency paths, and
+ * list the prohibited classes found where the bytecode was scanned.
+ */
+@CacheableTask
+public abstract class CheckClasspathsForProhibitedDependencies extends DefaultTask {
+
+	/**
+	 * @return the {@link SnapshotClasspathForProhibitedDependencies snapshots} of the
+	 * classpaths, published by each project
+	 */
+	@InputFiles
+	@PathSensitive(PathSensitivity.NONE)
+	public abstract ConfigurableFileCollection getClasspathSnapshots();
+
+	@OutputFile
+	public abstract RegularFileProperty getReportFile();
+
+	@OutputFile
+	public abstract RegularFileProperty getJsonReportFile();
+
+	@TaskAction
+	public void checkForProhibitedDependencies() throws IOException {
+		List<ClasspathSnapshot> snapshots = new ArrayList<>();
+		for (File file : getClasspathSnapshots().getFiles()) {
+			snapshots.add(ClasspathSnapshot.read(file.toPath()));
+		}
+		ProhibitedDependenciesReport report = check(snapshots);
+		String text = report.toText();
+		Path reportFile = getReportFile().get().getAsFile().toPath();
+		Files.createDirectories(reportFile.getParent());
+		Files.write(reportFile, text.getBytes(StandardCharsets.UTF_8));
+		report.writeJson(getJsonReportFile().get().getAsFile().toPath());
+		if (report.hasFindings()) {
+			throw new GradleException(text);
+		}
+	}
+
+	/**
+	 * Check classpath snapshots, grouped by their policy and then by their graph, so
+	 * that each distinct graph is checked once and each distinct module of the graphs
+	 * sharing a policy is evaluated once.
+	 *
+	 * @param snapshots The classpath snapshots
+	 * @return the report of all classpaths, sorted by their name
+	 */
+	static ProhibitedDependenciesReport check(List<ClasspathSnapshot> snapshots) {
+		List<ClasspathSnapshot> sorted = new ArrayList<>(snapshots);
+		sorted.sort(Comparator.comparing(ClasspathSnapshot::getClasspath));
+		Map<List<String>, Map<DependencyGraph, List<String>>> checks = new LinkedHashMap<>();
+		sorted.forEach((snapshot) -> checks
+				.computeIfAbsent(snapshot.getPolicyRules(), (rules) -> new LinkedHashMap<>())
+				.computeIfAbsent(snapshot.getGraph(), (g) -> new ArrayList<>())
+				.add(snapshot.getClasspath()));
+
+		Map<String, DependencyGraph> offendingGraphs = new TreeMap<>();
+		Map<String, Set<String>> offenders = new TreeMap<>();
+		int graphCount = 0;
+		Set<String> checkedModules = new HashSet<>();
+		for (Map.Entry<List<String>, Map<DependencyGraph, List<String>>> check : checks.entrySet()) {
+			DependencyPolicy policy = DependencyPolicy.compile(check.getKey());
+			Set<String> modules = new HashSet<>();
+			check.getValue().keySet().forEach((graph) -> modules.addAll(graph.getModules()));
+			Set<String> prohibited = modules.parallelStream()
+					.filter((module) -> isProhibited(policy, module))
+					.collect(Collectors.toSet());
+			for (Map.Entry<DependencyGraph, List<String>> graphClasspaths : check.getValue().entrySet()) {
+				DependencyGraph graph = graphClasspaths.getKey();
+				Set<String> graphProhibited = graph.getModules().stream()
+						.filter(prohibited::contains)
+						.collect(Collectors.toCollection(TreeSet::new));
+				if (!graphProhibited.isEmpty()) {
+					for (String classpath : graphClasspaths.getValue()) {
+						offendingGraphs.put(classpath, graph);
+						offenders.put(classpath, graphProhibited);
+					}
+				}
+			}
+			graphCount += check.getValue().size();
+			checkedModules.addAll(modules);
+		}
+
+		ProhibitedDependenciesReport report = new ProhibitedDependenciesReport(sorted.size(), graphCount,
+				checkedModules.size());
+		offenders.forEach((classpath, modules) -> report.add(classpath, offendingGraphs.get(classpath), modules));
+		sorted.forEach((snapshot) -> snapshot.getProhibitedClasses()
+				.forEach((artifact, classes) -> report.addClasses(snapshot.getClasspath(), artifact, classes)));
+		return report;
+	}
+
+	private static boolean isProhibited(DependencyPolicy policy, String module) {
+		String[] coordinates = module.split(":");
+		return policy.isProhibited(coordinates[0], coordinates[1], coordinates[2]);
+	}
+}
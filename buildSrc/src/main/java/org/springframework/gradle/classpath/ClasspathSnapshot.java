@@ -0,0 +1,101 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.gradle.classpath;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The dependency graph of a classpath together with the policy it is checked against
+ * and the prohibited classes found by scanning its bytecode, as published by each
+ * project to the aggregated
+ * {@link CheckClasspathsForProhibitedDependencies} task.
+ */
+final class ClasspathSnapshot implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private final String classpath;
+
+	private final List<String> policyRules;
+
+	private final DependencyGraph graph;
+
+	private final Map<String, List<String>> prohibitedClasses;
+
+	ClasspathSnapshot(String classpath, List<String> policyRules, DependencyGraph graph) {
+		this(classpath, policyRules, graph, Collections.emptyMap());
+	}
+
+	ClasspathSnapshot(String classpath, List<String> policyRules, DependencyGraph graph,
+			Map<String, List<String>> prohibitedClasses) {
+		this.classpath = classpath;
+		this.policyRules = Collections.unmodifiableList(new ArrayList<>(policyRules));
+		this.graph = graph;
+		this.prohibitedClasses = Collections.unmodifiableMap(new LinkedHashMap<>(prohibitedClasses));
+	}
+
+	/**
+	 * @return the name of the classpath, e.g. {@code :core:compileClasspath}
+	 */
+	String getClasspath() {
+		return this.classpath;
+	}
+
+	List<String> getPolicyRules() {
+		return this.policyRules;
+	}
+
+	DependencyGraph getGraph() {
+		return this.graph;
+	}
+
+	/**
+	 * @return the prohibited classes by artifact, empty unless the bytecode was scanned
+	 */
+	Map<String, List<String>> getProhibitedClasses() {
+		return this.prohibitedClasses;
+	}
+
+	void write(Path file) throws IOException {
+		Files.createDirectories(file.getParent());
+		try (OutputStream output = Files.newOutputStream(file);
+				ObjectOutputStream objects = new ObjectOutputStream(output)) {
+			objects.writeObject(this);
+		}
+	}
+
+	static ClasspathSnapshot read(Path file) throws IOException {
+		try (InputStream input = Files.newInputStream(file); ObjectInputStream objects = new ObjectInputStream(input)) {
+			return (ClasspathSnapshot) objects.readObject();
+		}
+		catch (ClassNotFoundException | ClassCastException ex) {
+			throw new IOException("Unable to read classpath snapshot " + file, ex);
+		}
+	}
+}
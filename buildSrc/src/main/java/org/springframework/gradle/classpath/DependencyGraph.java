@@ -0,0 +1,290 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.gradle.classpath;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.api.artifacts.result.DependencyResult;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.artifacts.result.ResolvedDependencyResult;
+import org.gradle.api.artifacts.result.UnresolvedDependencyResult;
+
+/**
+ * A compact, serializable snapshot of a resolved component graph. Components are
+ * numbered in breadth-first order from the root, which is component 0, and
+ * dependencies are stored as arrays of component numbers.
+ * <p>
+ * External modules are named {@code group:name:version}, and other components, such
+ * as projects, by their display name. Equal graphs, e.g. the same classpath in two
+ * modules, are equal snapshots, so they can be checked once.
+ * <p>
+ * To explain findings, an index of the reverse edges and of the shortest paths from
+ * the root is built in memory on first use, so no further resolution is needed.
+ */
+public final class DependencyGraph implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private static final int[] NO_DEPENDENCIES = new int[0];
+
+	private final String[] components;
+
+	private final boolean[] modules;
+
+	private final int[][] dependencies;
+
+	private transient Index index;
+
+	private DependencyGraph(String[] components, boolean[] modules, int[][] dependencies) {
+		this.components = components;
+		this.modules = modules;
+		this.dependencies = dependencies;
+	}
+
+	/**
+	 * Take a snapshot of a resolved component graph. Dependency constraints, e.g. those
+	 * of a platform, are not edges of the snapshot.
+	 *
+	 * @param root The root component of the graph
+	 * @return the snapshot
+	 * @throws GradleException if a dependency of the graph could not be resolved
+	 */
+	public static DependencyGraph from(ResolvedComponentResult root) {
+		Map<ResolvedComponentResult, Integer> numbers = new HashMap<>();
+		List<ResolvedComponentResult> components = new ArrayList<>();
+		Deque<ResolvedComponentResult> queue = new ArrayDeque<>();
+		numbers.put(root, 0);
+		components.add(root);
+		queue.add(root);
+		List<int[]> dependencies = new ArrayList<>();
+		while (!queue.isEmpty()) {
+			ResolvedComponentResult component = queue.poll();
+			List<Integer> selected = new ArrayList<>();
+			for (DependencyResult dependency : component.getDependencies()) {
+				if (dependency.isConstraint()) {
+					// constraints, e.g. from a platform, do not put the selected module on the classpath
+					continue;
+				}
+				if (dependency instanceof UnresolvedDependencyResult) {
+					UnresolvedDependencyResult unresolved = (UnresolvedDependencyResult) dependency;
+					throw new GradleException("Could not resolve " + unresolved.getAttempted().getDisplayName(),
+							unresolved.getFailure());
+				}
+				ResolvedComponentResult dependencyComponent = ((ResolvedDependencyResult) dependency).getSelected();
+				Integer number = numbers.get(dependencyComponent);
+				if (number == null) {
+					number = components.size();
+					numbers.put(dependencyComponent, number);
+					components.add(dependencyComponent);
+					queue.add(dependencyComponent);
+				}
+				if (!selected.contains(number)) {
+					selected.add(number);
+				}
+			}
+			dependencies.add(selected.isEmpty() ? NO_DEPENDENCIES : selected.stream().mapToInt(Integer::intValue).toArray());
+		}
+		String[] names = new String[components.size()];
+		boolean[] modules = new boolean[components.size()];
+		for (int i = 0; i < names.length; i++) {
+			ResolvedComponentResult component = components.get(i);
+			ModuleVersionIdentifier id = component.getModuleVersion();
+			modules[i] = component.getId() instanceof ModuleComponentIdentifier && id != null;
+			names[i] = modules[i] ? id.getGroup() + ":" + id.getName() + ":" + id.getVersion()
+					: component.getId().getDisplayName();
+		}
+		return new DependencyGraph(names, modules, dependencies.toArray(new int[0][]));
+	}
+
+	/**
+	 * Create a snapshot from component names and their dependencies, e.g. in tests.
+	 *
+	 * @param root The name of the root component
+	 * @param dependencies The names of the dependencies by component name, where names
+	 * containing two colons are external modules
+	 * @return the snapshot
+	 */
+	static DependencyGraph of(String root, Map<String, List<String>> dependencies) {
+		Map<String, Integer> numbers = new LinkedHashMap<>();
+		numbers.put(root, 0);
+		dependencies.forEach((component, componentDependencies) -> {
+			numbers.putIfAbsent(component, numbers.size());
+			componentDependencies.forEach((dependency) -> numbers.putIfAbsent(dependency, numbers.size()));
+		});
+		String[] names = numbers.keySet().toArray(new String[0]);
+		boolean[] modules = new boolean[names.length];
+		int[][] edges = new int[names.length][];
+		for (int i = 0; i < names.length; i++) {
+			modules[i] = names[i].split(":", -1).length == 3 && !names[i].startsWith(":");
+			edges[i] = dependencies.getOrDefault(names[i], Collections.emptyList()).stream()
+					.mapToInt(numbers::get).toArray();
+		}
+		return new DependencyGraph(names, modules, edges);
+	}
+
+	/**
+	 * @return the sorted {@code group:name:version} of the external modules
+	 */
+	public List<String> getModules() {
+		Set<String> modules = new TreeSet<>();
+		for (int i = 0; i < this.components.length; i++) {
+			if (this.modules[i]) {
+				modules.add(this.components[i]);
+			}
+		}
+		return new ArrayList<>(modules);
+	}
+
+	/**
+	 * Explain why a module is in the graph with the shortest paths from the root that
+	 * end with each of its inbound edges, shortest first. Like Gradle's
+	 * {@code dependencyInsight}, but without resolving the graph again.
+	 *
+	 * @param module The {@code group:name:version} of the module
+	 * @param maxPaths The maximum number of paths
+	 * @return the paths from the root to the module, or an empty list if the module is
+	 * not in the graph
+	 */
+	public List<List<String>> getInboundPaths(String module, int maxPaths) {
+		Index index = getIndex();
+		Integer component = index.numbers.get(module);
+		if (component == null) {
+			return Collections.emptyList();
+		}
+		if (component == 0) {
+			return Collections.singletonList(Collections.singletonList(module));
+		}
+		List<List<String>> paths = new ArrayList<>();
+		Arrays.stream(index.dependents[component]).boxed()
+				.filter((dependent) -> index.distances[dependent] != -1)
+				.sorted(Comparator.comparingInt((Integer dependent) -> index.distances[dependent]))
+				.limit(maxPaths)
+				.forEach((dependent) -> {
+					List<String> path = getPath(index.parents, dependent);
+					path.add(module);
+					paths.add(path);
+				});
+		return paths;
+	}
+
+	private List<String> getPath(int[] parents, int component) {
+		List<String> path = new ArrayList<>();
+		for (int current = component; current != 0; current = parents[current]) {
+			path.add(this.components[current]);
+		}
+		path.add(this.components[0]);
+		Collections.reverse(path);
+		return path;
+	}
+
+	private synchronized Index getIndex() {
+		if (this.index == null) {
+			this.index = new Index(this);
+		}
+		return this.index;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		DependencyGraph other = (DependencyGraph) obj;
+		return Arrays.equals(this.components, other.components) && Arrays.equals(this.modules, other.modules)
+				&& Arrays.deepEquals(this.dependencies, other.dependencies);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Arrays.hashCode(this.components) + Arrays.deepHashCode(this.dependencies);
+	}
+
+	@Override
+	public String toString() {
+		return "DependencyGraph of " + this.components[0] + " with " + this.components.length + " components";
+	}
+
+	/**
+	 * The reverse edges and a breadth-first spanning tree of a graph, built once on
+	 * first use.
+	 */
+	private static final class Index {
+		private final Map<String, Integer> numbers = new HashMap<>();
+
+		private final int[][] dependents;
+
+		private final int[] parents;
+
+		private final int[] distances;
+
+		private Index(DependencyGraph graph) {
+			int size = graph.components.length;
+			for (int i = 0; i < size; i++) {
+				this.numbers.put(graph.components[i], i);
+			}
+			int[] dependentCounts = new int[size];
+			for (int[] componentDependencies : graph.dependencies) {
+				for (int dependency : componentDependencies) {
+					dependentCounts[dependency]++;
+				}
+			}
+			this.dependents = new int[size][];
+			for (int i = 0; i < size; i++) {
+				this.dependents[i] = new int[dependentCounts[i]];
+			}
+			for (int component = 0; component < size; component++) {
+				for (int dependency : graph.dependencies[component]) {
+					this.dependents[dependency][--dependentCounts[dependency]] = component;
+				}
+			}
+			this.parents = new int[size];
+			this.distances = new int[size];
+			Arrays.fill(this.distances, -1);
+			this.distances[0] = 0;
+			Deque<Integer> queue = new ArrayDeque<>();
+			queue.add(0);
+			while (!queue.isEmpty()) {
+				int component = queue.poll();
+				for (int dependency : graph.dependencies[component]) {
+					if (this.distances[dependency] == -1) {
+						this.distances[dependency] = this.distances[component] + 1;
+						this.parents[dependency] = component;
+						queue.add(dependency);
+					}
+				}
+			}
+		}
+	}
+}
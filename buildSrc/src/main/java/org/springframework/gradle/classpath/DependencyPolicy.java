@@ -0,0 +1,336 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.gradle.classpath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.support.SemanticVersion.Qualifier;
+
+/**
+ * A compiled policy of allow and deny rules for the dependencies of a classpath.
+ * <p>
+ * A rule reads {@code allow|deny <group>[:<name>] [<version range>]}, e.g.
+ * {@code deny org.jboss.spec*}, {@code deny org.slf4j:jcl-over-slf4j} or
+ * {@code deny com.example:legacy [1.0,2.0)}. In the coordinates, {@code *} matches any
+ * characters except {@code :} and a missing name matches every module of the group.
+ * The version range uses the Maven notation, or is a single version to match exactly,
+ * and pre-releases sort before their release, so {@code (,2.0)} matches {@code 2.0-M1}.
+ * A dependency is prohibited when any deny rule matches it and no allow rule does, so
+ * allow rules carve exceptions out of broad denials regardless of their order.
+ * <p>
+ * Rules are indexed in a trie by the literal prefix of their coordinates, up to the
+ * first wildcard. Evaluating a dependency walks the trie once along its
+ * {@code group:name}, so only rules sharing a prefix with it are considered, however
+ * many rules the policy has.
+ */
+public final class DependencyPolicy {
+	/**
+	 * The rules applied unless a project opts out of them.
+	 */
+	public static final List<String> DEFAULT_RULES = Collections.unmodifiableList(Arrays.asList(
+			"allow javax.batch",
+			"allow javax.cache",
+			"allow javax.money",
+			"deny commons-logging",
+			"deny org.slf4j:jcl-over-slf4j",
+			"deny org.jboss.spec*",
+			"deny org.apache.geronimo.specs"));
+
+	private final Node root = new Node();
+
+	private DependencyPolicy() {
+	}
+
+	/**
+	 * Compile a policy from its rules.
+	 *
+	 * @param rules The allow and deny rules
+	 * @return the compiled policy
+	 * @throws IllegalArgumentException if a rule is invalid
+	 */
+	public static DependencyPolicy compile(List<String> rules) {
+		DependencyPolicy policy = new DependencyPolicy();
+		for (String rule : rules) {
+			policy.add(Rule.parse(rule));
+		}
+		return policy;
+	}
+
+	/**
+	 * Validate a rule without compiling a policy.
+	 *
+	 * @param rule The rule to validate
+	 * @throws IllegalArgumentException if the rule is invalid
+	 */
+	public static void validate(String rule) {
+		Rule.parse(rule);
+	}
+
+	private void add(Rule rule) {
+		Node node = this.root;
+		for (int i = 0; i < rule.literalPrefix.length(); i++) {
+			node = node.children.computeIfAbsent(rule.literalPrefix.charAt(i), (c) -> new Node());
+		}
+		(rule.remainder == null ? node.exactRules : node.prefixRules).add(rule);
+	}
+
+	/**
+	 * Check whether a dependency is prohibited by this policy.
+	 *
+	 * @param group The group of the dependency
+	 * @param name The name of the dependency
+	 * @param version The version of the dependency, or {@code null} to match rules
+	 * without a version range only
+	 * @return {@code true} if a deny rule and no allow rule match the dependency
+	 */
+	public boolean isProhibited(String group, String name, String version) {
+		String coordinates = group + ":" + name;
+		boolean denied = false;
+		Node node = this.root;
+		for (int i = 0; node != null; i++) {
+			for (Rule rule : node.prefixRules) {
+				if (rule.matches(coordinates, i, version)) {
+					if (rule.allow) {
+						return false;
+					}
+					denied = true;
+				}
+			}
+			if (i == coordinates.length()) {
+				for (Rule rule : node.exactRules) {
+					if (rule.matches(coordinates, i, version)) {
+						if (rule.allow) {
+							return false;
+						}
+						denied = true;
+					}
+				}
+				break;
+			}
+			node = node.children.get(coordinates.charAt(i));
+		}
+		return denied;
+	}
+
+	private static final class Node {
+		private final Map<Character, Node> children = new HashMap<>();
+
+		private final List<Rule> prefixRules = new ArrayList<>(0);
+
+		private final List<Rule> exactRules = new ArrayList<>(0);
+	}
+
+	private static final class Rule {
+		private final boolean allow;
+
+		private final String literalPrefix;
+
+		private final Pattern remainder;
+
+		private final VersionRange versionRange;
+
+		private Rule(boolean allow, String literalPrefix, Pattern remainder, VersionRange versionRange) {
+			this.allow = allow;
+			this.literalPrefix = literalPrefix;
+			this.remainder = remainder;
+			this.versionRange = versionRange;
+		}
+
+		private static Rule parse(String rule) {
+			String[] parts = rule.trim().split("\\s+");
+			if (parts.length < 2 || parts.length > 3 || !(parts[0].equals("allow") || parts[0].equals("deny"))) {
+				throw new IllegalArgumentException("Expected 'allow|deny <group>[:<name>] [<version range>]' but got '" + rule + "'");
+			}
+			String coordinates = parts[1].contains(":") ? parts[1] : parts[1] + ":*";
+			if (coordinates.indexOf(':') != coordinates.lastIndexOf(':') || coordinates.startsWith(":")
+					|| coordinates.endsWith(":")) {
+				throw new IllegalArgumentException("Expected coordinates in group[:name] format but got '" + parts[1] + "'");
+			}
+			int wildcard = coordinates.indexOf('*');
+			String literalPrefix = (wildcard != -1) ? coordinates.substring(0, wildcard) : coordinates;
+			Pattern remainder = (wildcard != -1) ? compileGlob(coordinates.substring(wildcard)) : null;
+			VersionRange versionRange = (parts.length == 3) ? VersionRange.parse(parts[2]) : null;
+			return new Rule(parts[0].equals("allow"), literalPrefix, remainder, versionRange);
+		}
+
+		private static Pattern compileGlob(String glob) {
+			String[] literals = glob.split("\\*", -1);
+			StringBuilder regex = new StringBuilder();
+			for (int i = 0; i < literals.length; i++) {
+				regex.append((i > 0) ? "[^:]*" : "");
+				regex.append(literals[i].isEmpty() ? "" : Pattern.quote(literals[i]));
+			}
+			return Pattern.compile(regex.toString());
+		}
+
+		private boolean matches(String coordinates, int prefixLength, String version) {
+			if (this.remainder != null
+					&& !this.remainder.matcher(coordinates).region(prefixLength, coordinates.length()).matches()) {
+				return false;
+			}
+			return this.versionRange == null || (version != null && this.versionRange.contains(version));
+		}
+	}
+
+	/**
+	 * A version range in Maven notation, e.g. {@code [1.0,2.0)}, {@code (,1.5]},
+	 * {@code [1.2.3]} or a single version {@code 1.2.3}. Versions are compared by their
+	 * leading numeric segments and then by their qualifier, which are ordered like those
+	 * of {@link org.springframework.support.SemanticVersion}: {@code SNAPSHOT},
+	 * milestones ({@code M1}), release candidates ({@code RC1}) and GA (no qualifier,
+	 * {@code RELEASE}, {@code Final} or {@code GA}). Other qualifiers, e.g. {@code jre},
+	 * sort after GA and are compared as strings.
+	 */
+	static final class VersionRange {
+		private static final Pattern PRE_RELEASE = Pattern.compile("(M|RC)(\\d{1,9})", Pattern.CASE_INSENSITIVE);
+
+		private static final List<String> GA_QUALIFIERS = Arrays.asList("", "RELEASE", "FINAL", "GA");
+
+		private final String lower;
+
+		private final boolean lowerInclusive;
+
+		private final String upper;
+
+		private final boolean upperInclusive;
+
+		private VersionRange(String lower, boolean lowerInclusive, String upper, boolean upperInclusive) {
+			this.lower = lower;
+			this.lowerInclusive = lowerInclusive;
+			this.upper = upper;
+			this.upperInclusive = upperInclusive;
+		}
+
+		static VersionRange parse(String range) {
+			char first = range.charAt(0);
+			if (first != '[' && first != '(') {
+				return new VersionRange(range, true, range, true);
+			}
+			char last = range.charAt(range.length() - 1);
+			int comma = range.indexOf(',');
+			if (comma == -1 && first == '[' && last == ']' && range.length() > 2) {
+				String version = range.substring(1, range.length() - 1).trim();
+				return new VersionRange(version, true, version, true);
+			}
+			if ((last != ']' && last != ')') || comma == -1) {
+				throw new IllegalArgumentException("Expected a version range like [1.0,2.0) or [1.0] but got '" + range + "'");
+			}
+			String lower = range.substring(1, comma).trim();
+			String upper = range.substring(comma + 1, range.length() - 1).trim();
+			return new VersionRange(lower.isEmpty() ? null : lower, first == '[', upper.isEmpty() ? null : upper,
+					last == ']');
+		}
+
+		boolean contains(String version) {
+			if (this.lower != null) {
+				int comparison = compare(version, this.lower);
+				if (comparison < 0 || (comparison == 0 && !this.lowerInclusive)) {
+					return false;
+				}
+			}
+			if (this.upper != null) {
+				int comparison = compare(version, this.upper);
+				return comparison < 0 || (comparison == 0 && this.upperInclusive);
+			}
+			return true;
+		}
+
+		static int compare(String version1, String version2) {
+			String[] segments1 = version1.split("[.-]");
+			String[] segments2 = version2.split("[.-]");
+			int numeric1 = countNumeric(segments1);
+			int numeric2 = countNumeric(segments2);
+			for (int i = 0; i < Math.max(numeric1, numeric2); i++) {
+				long segment1 = (i < numeric1) ? Long.parseLong(segments1[i]) : 0;
+				long segment2 = (i < numeric2) ? Long.parseLong(segments2[i]) : 0;
+				if (segment1 != segment2) {
+					return Long.compare(segment1, segment2);
+				}
+			}
+			return compareQualifiers(getQualifier(segments1, numeric1), getQualifier(segments2, numeric2));
+		}
+
+		private static int compareQualifiers(String qualifier1, String qualifier2) {
+			Qualifier kind1 = getKind(qualifier1);
+			Qualifier kind2 = getKind(qualifier2);
+			if (kind1 == null || kind2 == null) {
+				if (kind1 != null || kind2 != null) {
+					return (kind1 != null) ? -1 : 1;
+				}
+				return qualifier1.compareTo(qualifier2);
+			}
+			int comparison = kind1.compareTo(kind2);
+			if (comparison == 0 && (kind1 == Qualifier.M || kind1 == Qualifier.RC)) {
+				comparison = Integer.compare(getNumber(qualifier1), getNumber(qualifier2));
+			}
+			return comparison;
+		}
+
+		private static Qualifier getKind(String qualifier) {
+			if (GA_QUALIFIERS.contains(qualifier.toUpperCase(Locale.ROOT))) {
+				return Qualifier.GA;
+			}
+			if (qualifier.equalsIgnoreCase("SNAPSHOT")) {
+				return Qualifier.SNAPSHOT;
+			}
+			Matcher matcher = PRE_RELEASE.matcher(qualifier);
+			if (matcher.matches()) {
+				return matcher.group(1).equalsIgnoreCase("M") ? Qualifier.M : Qualifier.RC;
+			}
+			return null;
+		}
+
+		private static int getNumber(String preRelease) {
+			Matcher matcher = PRE_RELEASE.matcher(preRelease);
+			matcher.matches();
+			return Integer.parseInt(matcher.group(2));
+		}
+
+		private static String getQualifier(String[] segments, int numeric) {
+			return String.join("-", Arrays.asList(segments).subList(numeric, segments.length));
+		}
+
+		private static int countNumeric(String[] segments) {
+			int count = 0;
+			while (count < segments.length && isNumeric(segments[count])) {
+				count++;
+			}
+			return count;
+		}
+
+		private static boolean isNumeric(String segment) {
+			if (segment.isEmpty() || segment.length() > 18) {
+				return false;
+			}
+			for (int i = 0; i < segment.length(); i++) {
+				if (!Character.isDigit(segment.charAt(i))) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.gradle.classpath;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.artifacts.ArtifactCollection;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.component.ComponentIdentifier;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.api.artifacts.result.ResolvedArtifactResult;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+
+/**
+ * Base class for the tasks that check a classpath for prohibited dependencies, or
+ * snapshot it for the aggregated check, with their shared inputs: the resolved
+ * component graph of the classpath, the rules of its {@link DependencyPolicy} and the
+ * settings for scanning its bytecode.
+ * <p>
+ * Only the resolved component graph of the classpath is an input, so neither the
+ * artifacts are downloaded nor their content is hashed, unless the bytecode is
+ * {@link #getScanBytecode() scanned} for classes in prohibited packages, which catches
+ * shaded or repackaged copies that the coordinates do not reveal.
+ */
+public abstract class ProhibitedDependenciesClasspathTask extends DefaultTask {
+	/**
+	 * The directory, relative to the Gradle user home, caching the classes found in
+	 * each jar by its content hash.
+	 */
+	static final String BYTECODE_CACHE_PATH = "caches/spring-prohibited-dependencies/bytecode";
+
+	protected ProhibitedDependenciesClasspathTask() {
+		getPolicyRules().convention(DependencyPolicy.DEFAULT_RULES);
+		getScanBytecode().convention(false);
+		getProhibitedPackages().convention(BytecodeScanner.DEFAULT_PROHIBITED_PACKAGES);
+		getPackageProviders().convention(BytecodeScanner.DEFAULT_PACKAGE_PROVIDERS);
+		getBytecodeCacheDirectory().convention(getProject().getLayout().dir(getProject().provider(() ->
+				new File(getProject().getGradle().getGradleUserHomeDir(), BYTECODE_CACHE_PATH))));
+	}
+
+	public void setClasspath(Configuration classpath) {
+		getClasspathName().convention(classpath.getName());
+		Provider<ResolvedComponentResult> rootComponent = getProject()
+				.provider(() -> classpath.getIncoming().getResolutionResult().getRoot());
+		getDependencyGraph().set(rootComponent.map(DependencyGraph::from));
+		// The artifacts are only downloaded and hashed when the bytecode is scanned
+		ArtifactCollection artifacts = classpath.getIncoming().getArtifacts();
+		getScannedClasspath().from(getScanBytecode()
+				.map((scan) -> scan ? artifacts.getArtifactFiles() : Collections.emptyList()));
+		getScannedModules().set(getScanBytecode()
+				.map((scan) -> scan ? getModules(artifacts) : Collections.emptyMap()));
+	}
+
+	/**
+	 * @return the name of the classpath in the reports, by default the name of the
+	 * configuration
+	 */
+	@Input
+	public abstract Property<String> getClasspathName();
+
+	/**
+	 * @return a snapshot of the resolved component graph, which explains the prohibited
+	 * dependencies without resolving the classpath again
+	 */
+	@Input
+	public abstract Property<DependencyGraph> getDependencyGraph();
+
+	/**
+	 * @return the rules of the {@link DependencyPolicy}, by default its
+	 * {@link DependencyPolicy#DEFAULT_RULES default rules}
+	 */
+	@Input
+	public abstract ListProperty<String> getPolicyRules();
+
+	/**
+	 * @return whether to scan the bytecode of the classpath for classes in
+	 * {@link #getProhibitedPackages() prohibited packages}, e.g. shaded into other
+	 * artifacts, by default {@code false}
+	 */
+	@Input
+	public abstract Property<Boolean> getScanBytecode();
+
+	/**
+	 * @return the packages whose classes are prohibited, e.g.
+	 * {@code org.apache.commons.logging}
+	 */
+	@Input
+	public abstract ListProperty<String> getProhibitedPackages();
+
+	/**
+	 * @return the {@code group:name} of modules allowed to contain classes in
+	 * prohibited packages, e.g. {@code org.springframework:spring-jcl}
+	 */
+	@Input
+	public abstract ListProperty<String> getPackageProviders();
+
+	/**
+	 * @return the artifacts to scan, empty unless the bytecode is scanned
+	 */
+	@Classpath
+	public abstract ConfigurableFileCollection getScannedClasspath();
+
+	/**
+	 * @return the {@code group:name:version} of the scanned artifacts by the absolute
+	 * path of their file, as jars of different modules may have the same file name
+	 */
+	@Internal
+	public abstract MapProperty<String, String> getScannedModules();
+
+	/**
+	 * @return the sorted {@code group:name:version} of the scanned artifacts, which is
+	 * the input instead of the {@link #getScannedModules() absolute paths}, so that the
+	 * task stays relocatable
+	 */
+	@Input
+	public Provider<List<String>> getScannedModuleIds() {
+		return getScannedModules().map((modules) -> new ArrayList<>(new TreeSet<>(modules.values())));
+	}
+
+	/**
+	 * @return the directory caching the classes found in each jar by its content hash,
+	 * shared by all builds of the user
+	 */
+	@Internal
+	public abstract DirectoryProperty getBytecodeCacheDirectory();
+
+	/**
+	 * Scan the {@link #getScannedClasspath() scanned classpath} for classes in
+	 * {@link #getProhibitedPackages() prohibited packages}.
+	 *
+	 * @return the prohibited classes by artifact, e.g. its module and file name
+	 */
+	protected Map<String, List<String>> scanBytecode() {
+		return scanBytecode(getScannedClasspath().getFiles(), getScannedModules().get(), getPackageProviders().get(),
+				getBytecodeCacheDirectory().get().getAsFile().toPath(), getProhibitedPackages().get());
+	}
+
+	/**
+	 * Scan the jars of a classpath for classes in prohibited packages.
+	 *
+	 * @param classpath The files of the classpath
+	 * @param modules The {@code group:name:version} of the artifacts by the absolute path
+	 * of their file
+	 * @param packageProviders The {@code group:name} of the modules allowed to contain
+	 * classes in prohibited packages
+	 * @param cacheDirectory The directory caching the classes found in each jar
+	 * @param prohibitedPackages The packages whose classes are prohibited
+	 * @return the prohibited classes by artifact, e.g. its module and file name
+	 */
+	static Map<String, List<String>> scanBytecode(Set<File> classpath, Map<String, String> modules,
+			List<String> packageProviders, Path cacheDirectory, List<String> prohibitedPackages) {
+		Set<String> providers = new HashSet<>(packageProviders);
+		List<Path> jars = classpath.stream()
+				.filter((file) -> file.isFile() && file.getName().endsWith(".jar"))
+				.filter((file) -> !isPackageProvider(modules.get(file.getAbsolutePath()), providers))
+				.map(File::toPath)
+				.collect(Collectors.toList());
+		Map<String, List<String>> prohibitedClasses = new LinkedHashMap<>();
+		new BytecodeScanner(cacheDirectory, prohibitedPackages).scan(jars).forEach((jar, classes) -> {
+			String fileName = jar.getFileName().toString();
+			String module = modules.get(jar.toAbsolutePath().toString());
+			prohibitedClasses.put((module != null) ? module + " (" + fileName + ")" : fileName, classes);
+		});
+		return prohibitedClasses;
+	}
+
+	private static boolean isPackageProvider(String module, Set<String> packageProviders) {
+		if (module == null) {
+			return false;
+		}
+		String[] coordinates = module.split(":");
+		return packageProviders.contains(coordinates[0] + ":" + coordinates[1]);
+	}
+
+	static Map<String, String> getModules(ArtifactCollection artifacts) {
+		Map<String, String> modules = new TreeMap<>();
+		for (ResolvedArtifactResult artifact : artifacts.getArtifacts()) {
+			ComponentIdentifier id = artifact.getId().getComponentIdentifier();
+			if (id instanceof ModuleComponentIdentifier) {
+				ModuleComponentIdentifier moduleId = (ModuleComponentIdentifier) id;
+				modules.put(artifact.getFile().getAbsolutePath(),
+						moduleId.getGroup() + ":" + moduleId.getModule() + ":" + moduleId.getVersion());
+			}
+		}
+		return modules;
+	}
+}
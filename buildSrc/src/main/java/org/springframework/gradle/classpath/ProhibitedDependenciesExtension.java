@@ -0,0 +1,158 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.gradle.classpath;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The prohibited dependencies policy of a project, in addition to the
+ * {@link DependencyPolicy#DEFAULT_RULES default rules}, e.g.
+ * <pre>
+ * prohibitedDependencies {
+ *     deny 'com.example.legacy*'
+ *     deny 'com.example:library', '[1.0,2.0)'
+ *     allow 'com.example.legacy:still-needed'
+ * }
+ * </pre>
+ * Allow rules take precedence over deny rules. To replace the default rules, set
+ * {@code defaultRules = false}.
+ * <p>
+ * The default rules do not prohibit the {@code javax} APIs, which Spring Framework 5
+ * still supports, but allow {@code javax.batch}, {@code javax.cache} and
+ * {@code javax.money}, so that a project that has moved to Jakarta EE can opt in to
+ * prohibiting the others with:
+ * <pre>
+ * prohibitedDependencies {
+ *     deny 'javax*'
+ * }
+ * </pre>
+ * <p>
+ * To also find classes of prohibited packages that were shaded or repackaged into other
+ * artifacts, scan the bytecode of the classpath:
+ * <pre>
+ * prohibitedDependencies {
+ *     scanBytecode = true
+ *     prohibitedPackages = ['org.apache.commons.logging', 'javax.servlet']
+ * }
+ * </pre>
+ * Only the modules in {@code packageProviders}, by default
+ * {@code org.springframework:spring-jcl}, may contain classes of prohibited packages.
+ */
+public class ProhibitedDependenciesExtension {
+	private boolean defaultRules = true;
+
+	private List<String> rules = new ArrayList<>();
+
+	private boolean scanBytecode;
+
+	private List<String> prohibitedPackages = new ArrayList<>(BytecodeScanner.DEFAULT_PROHIBITED_PACKAGES);
+
+	private List<String> packageProviders = new ArrayList<>(BytecodeScanner.DEFAULT_PACKAGE_PROVIDERS);
+
+	public boolean isDefaultRules() {
+		return this.defaultRules;
+	}
+
+	public void setDefaultRules(boolean defaultRules) {
+		this.defaultRules = defaultRules;
+	}
+
+	public List<String> getRules() {
+		return this.rules;
+	}
+
+	public void setRules(List<String> rules) {
+		this.rules = rules;
+	}
+
+	public boolean isScanBytecode() {
+		return this.scanBytecode;
+	}
+
+	public void setScanBytecode(boolean scanBytecode) {
+		this.scanBytecode = scanBytecode;
+	}
+
+	public List<String> getProhibitedPackages() {
+		return this.prohibitedPackages;
+	}
+
+	public void setProhibitedPackages(List<String> prohibitedPackages) {
+		this.prohibitedPackages = prohibitedPackages;
+	}
+
+	public List<String> getPackageProviders() {
+		return this.packageProviders;
+	}
+
+	public void setPackageProviders(List<String> packageProviders) {
+		this.packageProviders = packageProviders;
+	}
+
+	/**
+	 * Allow dependencies, even when a deny rule matches them.
+	 * @param coordinates The group, or group:name, which may contain {@code *}
+	 */
+	public void allow(String coordinates) {
+		addRule("allow " + coordinates);
+	}
+
+	/**
+	 * Allow the versions of dependencies in a range, even when a deny rule matches them.
+	 * @param coordinates The group, or group:name, which may contain {@code *}
+	 * @param versionRange The version range, e.g. {@code [1.0,2.0)}
+	 */
+	public void allow(String coordinates, String versionRange) {
+		addRule("allow " + coordinates + " " + versionRange);
+	}
+
+	/**
+	 * Prohibit dependencies.
+	 * @param coordinates The group, or group:name, which may contain {@code *}
+	 */
+	public void deny(String coordinates) {
+		addRule("deny " + coordinates);
+	}
+
+	/**
+	 * Prohibit the versions of dependencies in a range.
+	 * @param coordinates The group, or group:name, which may contain {@code *}
+	 * @param versionRange The version range, e.g. {@code [1.0,2.0)}
+	 */
+	public void deny(String coordinates, String versionRange) {
+		addRule("deny " + coordinates + " " + versionRange);
+	}
+
+	/**
+	 * @return the default rules, if enabled, followed by the rules of the project
+	 */
+	public List<String> getPolicyRules() {
+		List<String> policyRules = new ArrayList<>();
+		if (this.defaultRules) {
+			policyRules.addAll(DependencyPolicy.DEFAULT_RULES);
+		}
+		policyRules.addAll(this.rules);
+		return policyRules;
+	}
+
+	private void addRule(String rule) {
+		DependencyPolicy.validate(rule);
+		this.rules.add(rule);
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.gradle.classpath;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * The prohibited dependencies found in classpaths, each explained by its shortest
+ * inbound dependency paths, and the prohibited classes found by scanning the bytecode
+ * of their artifacts, as text for the build output and as JSON for tooling.
+ */
+final class ProhibitedDependenciesReport {
+	/**
+	 * The maximum number of inbound paths reported per prohibited dependency.
+	 */
+	static final int MAX_PATHS = 3;
+
+	private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+	/**
+	 * The maximum number of prohibited classes listed per artifact in the text report.
+	 */
+	static final int MAX_CLASSES = 5;
+
+	private final Map<String, List<Finding>> findings = new LinkedHashMap<>();
+
+	private final Map<String, List<ClassesFinding>> classFindings = new LinkedHashMap<>();
+
+	private final Summary summary;
+
+	ProhibitedDependenciesReport(int classpaths, int distinctGraphs, int distinctModules) {
+		this.summary = new Summary(classpaths, distinctGraphs, distinctModules);
+	}
+
+	/**
+	 * Add the prohibited modules of a classpath, explained by their inbound paths in
+	 * the graph of the classpath.
+	 *
+	 * @param classpath The name of the classpath
+	 * @param graph The graph of the classpath
+	 * @param modules The {@code group:name:version} of the prohibited modules
+	 */
+	void add(String classpath, DependencyGraph graph, Iterable<String> modules) {
+		List<Finding> classpathFindings = this.findings.computeIfAbsent(classpath, (name) -> new ArrayList<>());
+		for (String module : modules) {
+			classpathFindings.add(new Finding(module, graph.getInboundPaths(module, MAX_PATHS)));
+		}
+	}
+
+	/**
+	 * Add the prohibited classes found in an artifact of a classpath.
+	 *
+	 * @param classpath The name of the classpath
+	 * @param artifact The artifact, e.g. its file name and module
+	 * @param classes The names of the prohibited class entries
+	 */
+	void addClasses(String classpath, String artifact, List<String> classes) {
+		this.classFindings.computeIfAbsent(classpath, (name) -> new ArrayList<>())
+				.add(new ClassesFinding(artifact, classes));
+	}
+
+	boolean hasFindings() {
+		return !this.findings.isEmpty() || !this.classFindings.isEmpty();
+	}
+
+	String toText() {
+		StringBuilder text = new StringBuilder();
+		text.append(String.format("Checked %d classpaths (%d distinct graphs, %d distinct modules)%n",
+				this.summary.classpaths, this.summary.distinctGraphs, this.summary.distinctModules));
+		if (!hasFindings()) {
+			text.append(String.format("No prohibited dependencies found%n"));
+		}
+		this.findings.forEach((classpath, classpathFindings) -> {
+			text.append(String.format("Found prohibited dependencies in '%s':%n", classpath));
+			for (Finding finding : classpathFindings) {
+				text.append(String.format("    %s%n", finding.module));
+				for (List<String> path : finding.paths) {
+					text.append(String.format("        %s%n", String.join(" -> ", path)));
+				}
+			}
+		});
+		this.classFindings.forEach((classpath, classpathFindings) -> {
+			text.append(String.format("Found prohibited classes in '%s':%n", classpath));
+			for (ClassesFinding finding : classpathFindings) {
+				text.append(String.format("    %s%n", finding.artifact));
+				finding.classes.stream().limit(MAX_CLASSES)
+						.forEach((className) -> text.append(String.format("        %s%n", className)));
+				if (finding.classes.size() > MAX_CLASSES) {
+					text.append(String.format("        ... and %d more%n", finding.classes.size() - MAX_CLASSES));
+				}
+			}
+		});
+		return text.toString();
+	}
+
+	String toJson() {
+		Map<String, Object> json = new LinkedHashMap<>();
+		json.put("summary", this.summary);
+		List<Map<String, Object>> classpaths = new ArrayList<>();
+		this.findings.forEach((classpath, classpathFindings) -> {
+			Map<String, Object> entry = new LinkedHashMap<>();
+			entry.put("classpath", classpath);
+			entry.put("prohibited", classpathFindings);
+			classpaths.add(entry);
+		});
+		this.classFindings.forEach((classpath, classpathFindings) -> {
+			Map<String, Object> entry = classpaths.stream()
+					.filter((candidate) -> classpath.equals(candidate.get("classpath")))
+					.findFirst()
+					.orElseGet(() -> {
+						Map<String, Object> newEntry = new LinkedHashMap<>();
+						newEntry.put("classpath", classpath);
+						classpaths.add(newEntry);
+						return newEntry;
+					});
+			entry.put("prohibitedClasses", classpathFindings);
+		});
+		json.put("classpaths", classpaths);
+		return GSON.toJson(json);
+	}
+
+	void writeJson(Path file) throws IOException {
+		Files.createDirectories(file.getParent());
+		try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			writer.write(toJson());
+		}
+	}
+
+	private static final class Summary {
+		private final int classpaths;
+
+		private final int distinctGraphs;
+
+		private final int distinctModules;
+
+		private Summary(int classpaths, int distinctGraphs, int distinctModules) {
+			this.classpaths = classpaths;
+			this.distinctGraphs = distinctGraphs;
+			this.distinctModules = distinctModules;
+		}
+	}
+
+	private static final class Finding {
+		private final String module;
+
+		private final List<List<String>> paths;
+
+		private Finding(String module, List<List<String>> paths) {
+			this.module = module;
+			this.paths = paths;
+		}
+	}
+
+	private static final class ClassesFinding {
+		private final String artifact;
+
+		private final List<String> classes;
+
+		private ClassesFinding(String artifact, List<String> classes) {
+			this.artifact = artifact;
+			this.classes = classes;
+		}
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.gradle.classpath;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+
+/**
+ * Publishes the dependency graph of a classpath of its own project, together with its
+ * policy, for the aggregated {@link CheckClasspathsForProhibitedDependencies} task.
+ * <p>
+ * Each project resolves its own classpaths, so the aggregated task only consumes the
+ * task outputs of other projects instead of resolving their configurations. For the
+ * same reason, the bytecode is {@link #getScanBytecode() scanned} here and the
+ * prohibited classes are part of the snapshot.
+ */
+@CacheableTask
+public abstract class SnapshotClasspathForProhibitedDependencies extends ProhibitedDependenciesClasspathTask {
+
+	@OutputFile
+	public abstract RegularFileProperty getOutputFile();
+
+	@TaskAction
+	public void snapshotClasspath() throws IOException {
+		Map<String, List<String>> prohibitedClasses = getScanBytecode().get() ? scanBytecode()
+				: Collections.emptyMap();
+		new ClasspathSnapshot(getClasspathName().get(), getPolicyRules().get(), getDependencyGraph().get(),
+				prohibitedClasses).write(getOutputFile().get().getAsFile().toPath());
+	}
+}
@@ -31,36 +31,77 @@ import org.springframework.util.StringUtils;
  * @author Rob Winch
  */
 public class SpringCheckClasspathForProhibitedDependenciesPlugin implements Plugin<Project> {
+	public static final String EXTENSION_NAME = "prohibitedDependencies";
 
 	@Override
 	public void apply(Project project) {
 		project.getPlugins().apply(SpringCheckProhibitedDependenciesLifecyclePlugin.class);
+		ProhibitedDependenciesExtension prohibitedDependencies = project.getExtensions().create(EXTENSION_NAME,
+				ProhibitedDependenciesExtension.class);
 		project.getPlugins().withType(JavaBasePlugin.class, (javaBasePlugin) ->
-				configureProhibitedDependencyChecks(project));
+				configureProhibitedDependencyChecks(project, prohibitedDependencies));
 	}
 
-	private void configureProhibitedDependencyChecks(Project project) {
+	private void configureProhibitedDependencyChecks(Project project, ProhibitedDependenciesExtension prohibitedDependencies) {
 		SourceSetContainer sourceSets = project.getExtensions().getByType(SourceSetContainer.class);
-		sourceSets.all((sourceSet) -> createProhibitedDependenciesChecks(project,
+		sourceSets.all((sourceSet) -> createProhibitedDependenciesChecks(project, prohibitedDependencies,
 				sourceSet.getCompileClasspathConfigurationName(), sourceSet.getRuntimeClasspathConfigurationName()));
 	}
 
-	private void createProhibitedDependenciesChecks(Project project, String... configurationNames) {
+	private void createProhibitedDependenciesChecks(Project project, ProhibitedDependenciesExtension prohibitedDependencies,
+			String... configurationNames) {
 		ConfigurationContainer configurations = project.getConfigurations();
 		for (String configurationName : configurationNames) {
 			Configuration configuration = configurations.getByName(configurationName);
-			createProhibitedDependenciesCheck(configuration, project);
+			createProhibitedDependenciesCheck(configuration, project, prohibitedDependencies);
 		}
 	}
 
-	private void createProhibitedDependenciesCheck(Configuration classpath, Project project) {
+	private void createProhibitedDependenciesCheck(Configuration classpath, Project project,
+			ProhibitedDependenciesExtension prohibitedDependencies) {
+		if (SpringCheckProhibitedDependenciesLifecyclePlugin.isAggregate(project)) {
+			addToAggregatedCheck(classpath, project, prohibitedDependencies);
+			return;
+		}
 		String taskName = "check" + StringUtils.capitalize(classpath.getName() + "ForProhibitedDependencies");
 		TaskProvider<CheckClasspathForProhibitedDependencies> checkClasspathTask = project.getTasks().register(taskName,
 				CheckClasspathForProhibitedDependencies.class, (checkClasspath) -> {
 					checkClasspath.setGroup(LifecycleBasePlugin.CHECK_TASK_NAME);
 					checkClasspath.setDescription("Checks " + classpath.getName() + " for prohibited dependencies");
 					checkClasspath.setClasspath(classpath);
+					checkClasspath.getPolicyRules().set(project.provider(prohibitedDependencies::getPolicyRules));
+					checkClasspath.getScanBytecode().set(project.provider(prohibitedDependencies::isScanBytecode));
+					checkClasspath.getProhibitedPackages().set(project.provider(prohibitedDependencies::getProhibitedPackages));
+					checkClasspath.getPackageProviders().set(project.provider(prohibitedDependencies::getPackageProviders));
+					checkClasspath.getReportFile().set(project.getLayout().getBuildDirectory()
+							.file("reports/prohibited-dependencies/" + classpath.getName() + ".txt"));
+					checkClasspath.getJsonReportFile().set(project.getLayout().getBuildDirectory()
+							.file("reports/prohibited-dependencies/" + classpath.getName() + ".json"));
 				});
 		project.getTasks().named(SpringCheckProhibitedDependenciesLifecyclePlugin.CHECK_PROHIBITED_DEPENDENCIES_TASK_NAME, (checkProhibitedTask) -> checkProhibitedTask.dependsOn(checkClasspathTask));
 	}
+
+	private void addToAggregatedCheck(Configuration classpath, Project project,
+			ProhibitedDependenciesExtension prohibitedDependencies) {
+		String key = (project == project.getRootProject()) ? ":" + classpath.getName()
+				: project.getPath() + ":" + classpath.getName();
+		// The project resolves its own classpath, the root project only consumes the snapshot
+		String taskName = "snapshot" + StringUtils.capitalize(classpath.getName() + "ForProhibitedDependencies");
+		TaskProvider<SnapshotClasspathForProhibitedDependencies> snapshotClasspathTask = project.getTasks().register(
+				taskName, SnapshotClasspathForProhibitedDependencies.class, (snapshotClasspath) -> {
+					snapshotClasspath.setDescription("Snapshots " + classpath.getName() + " for the aggregated prohibited dependencies check");
+					snapshotClasspath.setClasspath(classpath);
+					snapshotClasspath.getClasspathName().set(key);
+					snapshotClasspath.getPolicyRules().set(project.provider(prohibitedDependencies::getPolicyRules));
+					snapshotClasspath.getScanBytecode().set(project.provider(prohibitedDependencies::isScanBytecode));
+					snapshotClasspath.getProhibitedPackages().set(project.provider(prohibitedDependencies::getProhibitedPackages));
+					snapshotClasspath.getPackageProviders().set(project.provider(prohibitedDependencies::getPackageProviders));
+					snapshotClasspath.getOutputFile().set(project.getLayout().getBuildDirectory()
+							.file("prohibited-dependencies/" + classpath.getName() + ".snapshot"));
+				});
+		project.getConfigurations().named(SpringCheckProhibitedDependenciesLifecyclePlugin.SNAPSHOT_ELEMENTS_CONFIGURATION_NAME,
+				(snapshotElements) -> snapshotElements.getOutgoing().artifact(
+						snapshotClasspathTask.flatMap(SnapshotClasspathForProhibitedDependencies::getOutputFile),
+						(artifact) -> artifact.setType(SpringCheckProhibitedDependenciesLifecyclePlugin.SNAPSHOT_USAGE)));
+	}
 }
@@ -16,17 +16,33 @@
 
 package org.springframework.gradle.classpath;
 
+import java.util.Collections;
+
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
 import org.gradle.api.Task;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.type.ArtifactTypeDefinition;
+import org.gradle.api.attributes.Usage;
+import org.gradle.api.file.FileCollection;
 import org.gradle.api.plugins.JavaBasePlugin;
 import org.gradle.api.tasks.TaskProvider;
 
+import org.springframework.gradle.ProjectUtils;
+
 /**
  * @author Rob Winch
  */
 public class SpringCheckProhibitedDependenciesLifecyclePlugin implements Plugin<Project> {
 	public static final String CHECK_PROHIBITED_DEPENDENCIES_TASK_NAME = "checkForProhibitedDependencies";
+	public static final String CHECK_ALL_CLASSPATHS_TASK_NAME = "checkAllClasspathsForProhibitedDependencies";
+	public static final String AGGREGATE_PROPERTY = "prohibitedDependenciesAggregate";
+	public static final String SNAPSHOT_ELEMENTS_CONFIGURATION_NAME = "prohibitedDependenciesSnapshotElements";
+	public static final String SNAPSHOTS_CONFIGURATION_NAME = "prohibitedDependenciesSnapshots";
+	/**
+	 * The usage and artifact type of the classpath snapshots published by each project.
+	 */
+	public static final String SNAPSHOT_USAGE = "spring-prohibited-dependencies-snapshot";
 
 	@Override
 	public void apply(Project project) {
@@ -37,5 +53,66 @@ public class SpringCheckProhibitedDependenciesLifecyclePlugin implements Plugin<
 		project.getTasks().named(JavaBasePlugin.CHECK_TASK_NAME, (checkTask) -> {
 			checkTask.dependsOn(checkProhibitedDependencies);
 		});
+		if (!isAggregate(project)) {
+			return;
+		}
+		project.getConfigurations().create(SNAPSHOT_ELEMENTS_CONFIGURATION_NAME, (snapshotElements) -> {
+			snapshotElements.setDescription("Classpath snapshots for the aggregated prohibited dependencies check");
+			snapshotElements.setCanBeConsumed(true);
+			snapshotElements.setCanBeResolved(false);
+			snapshotElements.getAttributes().attribute(Usage.USAGE_ATTRIBUTE,
+					project.getObjects().named(Usage.class, SNAPSHOT_USAGE));
+		});
+		if (project == project.getRootProject()) {
+			FileCollection classpathSnapshots = getClasspathSnapshots(project);
+			TaskProvider<CheckClasspathsForProhibitedDependencies> checkAllClasspaths = project.getTasks().register(
+					CHECK_ALL_CLASSPATHS_TASK_NAME, CheckClasspathsForProhibitedDependencies.class, (task) -> {
+						task.setGroup(JavaBasePlugin.VERIFICATION_GROUP);
+						task.setDescription("Checks the compile/runtime classpath of every SourceSet of all projects for prohibited dependencies in a single pass");
+						task.getReportFile().set(project.getLayout().getBuildDirectory()
+								.file("reports/prohibited-dependencies/all-classpaths.txt"));
+						task.getJsonReportFile().set(project.getLayout().getBuildDirectory()
+								.file("reports/prohibited-dependencies/all-classpaths.json"));
+						task.getClasspathSnapshots().from(classpathSnapshots);
+					});
+			checkProhibitedDependencies.configure((task) -> task.dependsOn(checkAllClasspaths));
+		}
+	}
+
+	/**
+	 * Resolve the classpath snapshots published by all projects, so that the root
+	 * project does not configure the tasks of other projects.
+	 *
+	 * @param project The root project
+	 * @return the classpath snapshots
+	 */
+	private static FileCollection getClasspathSnapshots(Project project) {
+		Configuration snapshots = project.getConfigurations().create(SNAPSHOTS_CONFIGURATION_NAME, (configuration) -> {
+			configuration.setDescription("Classpath snapshots of all projects for the aggregated prohibited dependencies check");
+			configuration.setCanBeConsumed(false);
+			configuration.setCanBeResolved(true);
+			configuration.getAttributes().attribute(Usage.USAGE_ATTRIBUTE,
+					project.getObjects().named(Usage.class, SNAPSHOT_USAGE));
+		});
+		for (Project dependency : project.getAllprojects()) {
+			snapshots.getDependencies().add(project.getDependencies().project(
+					Collections.singletonMap("path", dependency.getPath())));
+		}
+		// Projects without classpaths publish no snapshots, and variants without the usage,
+		// e.g. from other plugins, are compatible, so only the snapshot artifacts are selected
+		return snapshots.getIncoming().artifactView((view) -> {
+			view.lenient(true);
+			view.attributes((attributes) -> attributes.attribute(ArtifactTypeDefinition.ARTIFACT_TYPE_ATTRIBUTE,
+					SNAPSHOT_USAGE));
+		}).getFiles();
+	}
+
+	/**
+	 * @param project The project
+	 * @return {@code true} if the classpaths of all projects are checked by a single
+	 * task of the root project, enabled with {@code -PprohibitedDependenciesAggregate=true}
+	 */
+	static boolean isAggregate(Project project) {
+		return ProjectUtils.findProperty(project.getRootProject(), AGGREGATE_PROPERTY, false);
 	}
 }
@@ -19,51 +19,35 @@ package org.springframework.gradle.release;
 import com.github.api.GitHubMilestoneApi;
 import com.github.api.RepositoryRef;
 import org.gradle.api.DefaultTask;
+import org.gradle.api.provider.Property;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.TaskAction;
 
 /**
  * @author Steve Riesenberg
  */
-public class CheckMilestoneHasNoOpenIssues extends DefaultTask {
+public abstract class CheckMilestoneHasNoOpenIssues extends DefaultTask {
 	@Input
-	private RepositoryRef repository = new RepositoryRef();
+	public abstract Property<RepositoryRef> getRepository();
 
 	@Input
-	private String gitHubAccessToken;
+	public abstract Property<String> getGitHubAccessToken();
+
+	@Internal
+	public abstract Property<GitHubApiService> getGitHubApiService();
 
 	@Input
-	private String version;
+	public abstract Property<String> getVersion();
 
 	@TaskAction
 	public void checkMilestoneHasNoOpenIssues() {
-		GitHubMilestoneApi gitHubMilestoneApi = new GitHubMilestoneApi(this.gitHubAccessToken);
-		long milestoneNumber = gitHubMilestoneApi.findMilestoneNumberByTitle(this.repository, this.version);
-		boolean hasOpenIssues = gitHubMilestoneApi.isOpenIssuesForMilestoneNumber(this.repository, milestoneNumber);
+		GitHubApiService gitHubApiService = getGitHubApiService().get();
+		GitHubMilestoneApi gitHubMilestoneApi = gitHubApiService.getMilestoneApi(getGitHubAccessToken().get());
+		RepositoryRef repository = getRepository().get();
+		long milestoneNumber = gitHubMilestoneApi.findMilestoneNumberByTitle(repository, getVersion().get());
+		boolean hasOpenIssues = gitHubMilestoneApi.isOpenIssuesForMilestoneNumber(repository, milestoneNumber);
 		System.out.println(!hasOpenIssues);
-	}
-
-	public RepositoryRef getRepository() {
-		return repository;
-	}
-
-	public void setRepository(RepositoryRef repository) {
-		this.repository = repository;
-	}
-
-	public String getGitHubAccessToken() {
-		return gitHubAccessToken;
-	}
-
-	public void setGitHubAccessToken(String gitHubAccessToken) {
-		this.gitHubAccessToken = gitHubAccessToken;
-	}
-
-	public String getVersion() {
-		return version;
-	}
-
-	public void setVersion(String version) {
-		this.version = version;
+		gitHubApiService.logStatistics(getLogger());
 	}
 }
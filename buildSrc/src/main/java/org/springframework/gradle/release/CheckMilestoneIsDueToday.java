@@ -19,50 +19,33 @@ package org.springframework.gradle.release;
 import com.github.api.GitHubMilestoneApi;
 import com.github.api.RepositoryRef;
 import org.gradle.api.DefaultTask;
+import org.gradle.api.provider.Property;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.TaskAction;
 
 /**
  * @author Steve Riesenberg
  */
-public class CheckMilestoneIsDueToday extends DefaultTask {
+public abstract class CheckMilestoneIsDueToday extends DefaultTask {
 	@Input
-	private RepositoryRef repository = new RepositoryRef();
+	public abstract Property<RepositoryRef> getRepository();
 
 	@Input
-	private String gitHubAccessToken;
+	public abstract Property<String> getGitHubAccessToken();
+
+	@Internal
+	public abstract Property<GitHubApiService> getGitHubApiService();
 
 	@Input
-	private String version;
+	public abstract Property<String> getVersion();
 
 	@TaskAction
 	public void checkMilestoneIsDueToday() {
-		GitHubMilestoneApi gitHubMilestoneApi = new GitHubMilestoneApi(this.gitHubAccessToken);
-		boolean milestoneDueToday = gitHubMilestoneApi.isMilestoneDueToday(this.repository, this.version);
+		GitHubApiService gitHubApiService = getGitHubApiService().get();
+		GitHubMilestoneApi gitHubMilestoneApi = gitHubApiService.getMilestoneApi(getGitHubAccessToken().get());
+		boolean milestoneDueToday = gitHubMilestoneApi.isMilestoneDueToday(getRepository().get(), getVersion().get());
 		System.out.println(milestoneDueToday);
-	}
-
-	public RepositoryRef getRepository() {
-		return repository;
-	}
-
-	public void setRepository(RepositoryRef repository) {
-		this.repository = repository;
-	}
-
-	public String getGitHubAccessToken() {
-		return gitHubAccessToken;
-	}
-
-	public void setGitHubAccessToken(String gitHubAccessToken) {
-		this.gitHubAccessToken = gitHubAccessToken;
-	}
-
-	public String getVersion() {
-		return version;
-	}
-
-	public void setVersion(String version) {
-		this.version = version;
+		gitHubApiService.logStatistics(getLogger());
 	}
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.gradle.release;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import com.github.api.GitHubMilestoneApi;
+import com.github.api.RepositoryRef;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+
+import org.springframework.gradle.changelog.ChangelogConfiguration;
+import org.springframework.util.Assert;
+
+/**
+ * Writes a {@link GitHubMilestoneApi#getIssuesFingerprint fingerprint} of the closed
+ * issues of each milestone to a file, one {@code <version>=<fingerprint>} line per
+ * version.
+ * <p>
+ * The file is an input of the release notes tasks, which makes them cacheable without
+ * calling GitHub while their inputs are snapshotted. This task has to check GitHub
+ * every time, but the fingerprints are revalidated with ETags, so it is cheap as long
+ * as the issues are unchanged.
+ */
+public abstract class ComputeIssuesFingerprintsTask extends DefaultTask {
+	@InputFile
+	@PathSensitive(PathSensitivity.NONE)
+	public abstract RegularFileProperty getSectionsFile();
+
+	@Input
+	public abstract ListProperty<String> getVersions();
+
+	@Internal
+	public abstract Property<String> getGitHubAccessToken();
+
+	@Internal
+	public abstract Property<GitHubApiService> getGitHubApiService();
+
+	@OutputFile
+	public abstract RegularFileProperty getOutputFile();
+
+	@TaskAction
+	public void computeIssuesFingerprints() {
+		List<String> versions = getVersions().get();
+		Assert.notEmpty(versions, "versions must not be empty");
+		Path sectionsFile = getSectionsFile().get().getAsFile().toPath();
+		RepositoryRef repository = ChangelogConfiguration.load(sectionsFile).getRepository();
+		Assert.notNull(repository, () -> "changelog.repository must be set in " + sectionsFile);
+		GitHubMilestoneApi gitHubMilestoneApi = getGitHubApiService().get()
+				.getMilestoneApi(getGitHubAccessToken().getOrNull());
+		StringBuilder fingerprints = new StringBuilder();
+		for (String version : versions) {
+			try {
+				fingerprints.append(version).append('=')
+						.append(gitHubMilestoneApi.getIssuesFingerprint(repository, version)).append('\n');
+			}
+			catch (RuntimeException ex) {
+				throw new RuntimeException("Could not fingerprint the closed issues of milestone " + version
+						+ " of repository " + repository.getOwner() + "/" + repository.getName() + ": "
+						+ ex.getMessage(), ex);
+			}
+		}
+		Path outputFile = getOutputFile().get().getAsFile().toPath();
+		try {
+			Files.createDirectories(outputFile.getParent());
+			Files.writeString(outputFile, fingerprints, StandardCharsets.UTF_8);
+		}
+		catch (IOException ex) {
+			throw new RuntimeException("Unable to write issues fingerprints to " + outputFile, ex);
+		}
+	}
+}
@@ -19,64 +19,89 @@ package org.springframework.gradle.release;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.nio.file.Paths;
 
 import com.github.api.GitHubReleaseApi;
 import com.github.api.Release;
 import com.github.api.RepositoryRef;
+import groovy.lang.MissingPropertyException;
 import org.gradle.api.Action;
 import org.gradle.api.DefaultTask;
-import org.gradle.api.Project;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
 import org.gradle.api.tasks.TaskAction;
 
 /**
  * @author Steve Riesenberg
  */
-public class CreateGitHubReleaseTask extends DefaultTask {
+public abstract class CreateGitHubReleaseTask extends DefaultTask {
+	public CreateGitHubReleaseTask() {
+		getBranch().convention("main");
+		getCreateRelease().convention(false);
+	}
+
 	@Input
-	private RepositoryRef repository = new RepositoryRef();
+	public abstract Property<RepositoryRef> getRepository();
 
 	@Input @Optional
-	private String gitHubAccessToken;
+	public abstract Property<String> getGitHubAccessToken();
+
+	@Internal
+	public abstract Property<GitHubApiService> getGitHubApiService();
 
 	@Input
-	private String version;
+	public abstract Property<String> getVersion();
 
 	@Input @Optional
-	private String branch = "main";
+	public abstract Property<String> getBranch();
 
 	@Input
-	private boolean createRelease = false;
+	public abstract Property<Boolean> getCreateRelease();
+
+	/**
+	 * @return the release notes generated by the {@code generateChangelog} task
+	 */
+	@InputFile
+	@PathSensitive(PathSensitivity.NONE)
+	public abstract RegularFileProperty getReleaseNotes();
 
 	@TaskAction
 	public void createGitHubRelease() {
+		RepositoryRef repository = getRepository().get();
+		String version = getVersion().get();
+		boolean createRelease = getCreateRelease().get();
+		if (createRelease && !getGitHubAccessToken().isPresent()) {
+			throw new MissingPropertyException("Please provide an access token with -PgitHubAccessToken=...");
+		}
 		String body = readReleaseNotes();
-		Release release = Release.tag(this.version)
-				.commit(this.branch)
-				.name(this.version)
+		Release release = Release.tag(version)
+				.commit(getBranch().getOrNull())
+				.name(version)
 				.body(body)
-				.preRelease(this.version.contains("-"))
+				.preRelease(version.contains("-"))
 				.build();
 
 		System.out.printf("%sCreating GitHub release for %s/%s@%s\n",
-				this.createRelease ? "" : "[DRY RUN] ",
-				this.repository.getOwner(),
-				this.repository.getName(),
-				this.version
+				createRelease ? "" : "[DRY RUN] ",
+				repository.getOwner(),
+				repository.getName(),
+				version
 		);
 		System.out.printf("  Release Notes:\n\n----\n%s\n----\n\n", body.trim());
 
-		if (this.createRelease) {
-			GitHubReleaseApi github = new GitHubReleaseApi(this.gitHubAccessToken);
-			github.publishRelease(this.repository, release);
+		if (createRelease) {
+			GitHubReleaseApi github = getGitHubApiService().get().getReleaseApi(getGitHubAccessToken().get());
+			github.publishRelease(repository, release);
 		}
 	}
 
 	private String readReleaseNotes() {
-		Project project = getProject();
-		File inputFile = project.file(Paths.get(project.getBuildDir().getPath(), GitHubChangelogPlugin.RELEASE_NOTES_PATH));
+		File inputFile = getReleaseNotes().get().getAsFile();
 		try {
 			return Files.readString(inputFile.toPath());
 		} catch (IOException ex) {
@@ -84,47 +109,9 @@ public class CreateGitHubReleaseTask extends DefaultTask {
 		}
 	}
 
-	public RepositoryRef getRepository() {
-		return repository;
-	}
-
 	public void repository(Action<RepositoryRef> repository) {
-		repository.execute(this.repository);
-	}
-
-	public void setRepository(RepositoryRef repository) {
-		this.repository = repository;
-	}
-
-	public String getGitHubAccessToken() {
-		return gitHubAccessToken;
-	}
-
-	public void setGitHubAccessToken(String gitHubAccessToken) {
-		this.gitHubAccessToken = gitHubAccessToken;
-	}
-
-	public String getVersion() {
-		return version;
-	}
-
-	public void setVersion(String version) {
-		this.version = version;
-	}
-
-	public String getBranch() {
-		return branch;
-	}
-
-	public void setBranch(String branch) {
-		this.branch = branch;
-	}
-
-	public boolean isCreateRelease() {
-		return createRelease;
-	}
-
-	public void setCreateRelease(boolean createRelease) {
-		this.createRelease = createRelease;
+		RepositoryRef repositoryRef = getRepository().getOrElse(new RepositoryRef());
+		repository.execute(repositoryRef);
+		getRepository().set(repositoryRef);
 	}
 }
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.gradle.release;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.inject.Inject;
+
+import com.github.api.GitHubMilestoneApi;
+import com.github.api.RepositoryRef;
+import com.google.gson.Gson;
+import okhttp3.OkHttpClient;
+import okio.Okio;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.WorkerExecutor;
+import org.yaml.snakeyaml.Yaml;
+
+import org.springframework.gradle.changelog.ChangelogConfiguration;
+import org.springframework.gradle.changelog.ChangelogGenerator;
+import org.springframework.util.Assert;
+
+/**
+ * Generates the release notes of a milestone in-process with the
+ * {@link ChangelogGenerator}, configured by the release notes sections file.
+ * <p>
+ * By default the release notes are generated in the build process with the shared
+ * {@link GitHubApiService}. With {@link #getClassLoaderIsolation() class loader
+ * isolation}, they are generated in a Gradle worker with its own class loader and
+ * GitHub client instead.
+ * <p>
+ * The release notes are cacheable: besides the version and the sections file, the
+ * task input includes a file with a {@link GitHubMilestoneApi#getIssuesFingerprint
+ * fingerprint} of the closed issues of the milestone, written by an upstream
+ * {@link ComputeIssuesFingerprintsTask}. As long as the issues are unchanged, the
+ * previous release notes are reused from the build cache.
+ */
+@CacheableTask
+public abstract class GenerateChangelogTask extends DefaultTask {
+	public GenerateChangelogTask() {
+		getClassLoaderIsolation().convention(false);
+	}
+
+	@InputFile
+	@PathSensitive(PathSensitivity.NONE)
+	public abstract RegularFileProperty getSectionsFile();
+
+	@Input
+	public abstract Property<String> getVersion();
+
+	@Internal
+	public abstract Property<String> getGitHubAccessToken();
+
+	@Internal
+	public abstract Property<GitHubApiService> getGitHubApiService();
+
+	@Internal
+	public abstract Property<Boolean> getClassLoaderIsolation();
+
+	@OutputFile
+	public abstract RegularFileProperty getOutputFile();
+
+	/**
+	 * @return the file written by {@link ComputeIssuesFingerprintsTask} with a
+	 * fingerprint of the closed issues of the milestone
+	 */
+	@InputFile
+	@PathSensitive(PathSensitivity.NONE)
+	public abstract RegularFileProperty getIssuesFingerprintFile();
+
+	@Inject
+	protected abstract WorkerExecutor getWorkerExecutor();
+
+	@TaskAction
+	public void generateChangelog() {
+		if (getClassLoaderIsolation().get()) {
+			getWorkerExecutor().classLoaderIsolation((spec) -> spec.getClasspath().from(getWorkerClasspath()))
+					.submit(GenerateChangelogWorkAction.class, (parameters) -> {
+						parameters.getSectionsFile().set(getSectionsFile());
+						parameters.getVersion().set(getVersion());
+						parameters.getGitHubAccessToken().set(getGitHubAccessToken());
+						parameters.getOutputFile().set(getOutputFile());
+					});
+			return;
+		}
+		GitHubApiService gitHubApiService = getGitHubApiService().get();
+		GitHubMilestoneApi gitHubMilestoneApi = gitHubApiService.getMilestoneApi(getGitHubAccessToken().getOrNull());
+		generateChangelog(gitHubMilestoneApi, getSectionsFile().get().getAsFile().toPath(), getVersion().get(),
+				getOutputFile().get().getAsFile().toPath());
+		gitHubApiService.logStatistics(getLogger());
+	}
+
+	static void generateChangelog(GitHubMilestoneApi gitHubMilestoneApi, Path sectionsFile, String version, Path outputFile) {
+		ChangelogConfiguration configuration = ChangelogConfiguration.load(sectionsFile);
+		RepositoryRef repository = configuration.getRepository();
+		Assert.notNull(repository, () -> "changelog.repository must be set in " + sectionsFile);
+		String releaseNotes = new ChangelogGenerator(configuration).generate(gitHubMilestoneApi, repository, version);
+		writeReleaseNotes(outputFile, releaseNotes);
+	}
+
+	static void writeReleaseNotes(Path outputFile, String releaseNotes) {
+		try {
+			Files.createDirectories(outputFile.getParent());
+			Files.writeString(outputFile, releaseNotes, StandardCharsets.UTF_8);
+		}
+		catch (IOException ex) {
+			throw new RuntimeException("Unable to write release notes to " + outputFile, ex);
+		}
+	}
+
+	/**
+	 * @return the locations of the classes needed to generate release notes in an
+	 * isolated worker
+	 */
+	private static Set<File> getWorkerClasspath() {
+		Set<File> classpath = new LinkedHashSet<>();
+		for (Class<?> type : new Class<?>[] { GenerateChangelogWorkAction.class, OkHttpClient.class, Okio.class,
+				Gson.class, Yaml.class, Assert.class }) {
+			try {
+				classpath.add(new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()));
+			}
+			catch (Exception ex) {
+				throw new IllegalStateException("Unable to determine the location of " + type.getName(), ex);
+			}
+		}
+		return classpath;
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.gradle.release;
+
+import com.github.api.GitHubClientRegistry;
+import com.github.api.RateLimitInterceptor;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+
+/**
+ * Generates release notes in a Gradle worker, see {@link GenerateChangelogTask}.
+ */
+public abstract class GenerateChangelogWorkAction implements WorkAction<GenerateChangelogWorkAction.Parameters> {
+	@Override
+	public void execute() {
+		Parameters parameters = getParameters();
+		try (GitHubClientRegistry clientRegistry = new GitHubClientRegistry(new RateLimitInterceptor())) {
+			GenerateChangelogTask.generateChangelog(
+					clientRegistry.getMilestoneApi(parameters.getGitHubAccessToken().getOrNull()),
+					parameters.getSectionsFile().get().getAsFile().toPath(),
+					parameters.getVersion().get(),
+					parameters.getOutputFile().get().getAsFile().toPath());
+		}
+	}
+
+	public interface Parameters extends WorkParameters {
+		RegularFileProperty getSectionsFile();
+
+		Property<String> getVersion();
+
+		Property<String> getGitHubAccessToken();
+
+		RegularFileProperty getOutputFile();
+	}
+}
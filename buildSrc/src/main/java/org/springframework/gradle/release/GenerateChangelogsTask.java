@@ -0,0 +1,108 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.gradle.release;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import com.github.api.GitHubMilestoneApi;
+import com.github.api.RepositoryRef;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+
+import org.springframework.gradle.changelog.ChangelogConfiguration;
+import org.springframework.gradle.changelog.ChangelogGenerator;
+import org.springframework.util.Assert;
+
+/**
+ * Generates the release notes of several milestones at once, e.g. of every patch line
+ * released on the same day, into one {@code release-notes-<version>.md} file per
+ * version.
+ * <p>
+ * The issues of all milestones are fetched concurrently through the shared
+ * {@link GitHubApiService}, while the open milestones of the repository and the
+ * sections configuration are loaded once for all versions. Like
+ * {@link GenerateChangelogTask}, the task is cacheable with a file of fingerprints of
+ * the closed issues of each milestone.
+ */
+@CacheableTask
+public abstract class GenerateChangelogsTask extends DefaultTask {
+	@InputFile
+	@PathSensitive(PathSensitivity.NONE)
+	public abstract RegularFileProperty getSectionsFile();
+
+	@Input
+	public abstract ListProperty<String> getVersions();
+
+	@Internal
+	public abstract Property<String> getGitHubAccessToken();
+
+	@Internal
+	public abstract Property<GitHubApiService> getGitHubApiService();
+
+	@OutputDirectory
+	public abstract DirectoryProperty getOutputDirectory();
+
+	/**
+	 * @return the file written by {@link ComputeIssuesFingerprintsTask} with a
+	 * fingerprint of the closed issues of each milestone
+	 */
+	@InputFile
+	@PathSensitive(PathSensitivity.NONE)
+	public abstract RegularFileProperty getIssuesFingerprintFile();
+
+	@TaskAction
+	public void generateChangelogs() {
+		List<String> versions = getVersions().get();
+		Assert.notEmpty(versions, "versions must not be empty");
+		ChangelogConfiguration configuration = loadConfiguration();
+		Map<String, String> releaseNotes = new ChangelogGenerator(configuration)
+				.generate(getGitHubMilestoneApi(), getRepository(configuration), versions);
+		Path outputDirectory = getOutputDirectory().get().getAsFile().toPath();
+		releaseNotes.forEach((version, content) -> GenerateChangelogTask.writeReleaseNotes(
+				outputDirectory.resolve("release-notes-" + version + ".md"), content));
+		getLogger().lifecycle("Generated release notes for {} in {}", String.join(", ", versions), outputDirectory);
+		getGitHubApiService().get().logStatistics(getLogger());
+	}
+
+	private ChangelogConfiguration loadConfiguration() {
+		return ChangelogConfiguration.load(getSectionsFile().get().getAsFile().toPath());
+	}
+
+	private RepositoryRef getRepository(ChangelogConfiguration configuration) {
+		RepositoryRef repository = configuration.getRepository();
+		Assert.notNull(repository, () -> "changelog.repository must be set in " + getSectionsFile().get());
+		return repository;
+	}
+
+	private GitHubMilestoneApi getGitHubMilestoneApi() {
+		return getGitHubApiService().get().getMilestoneApi(getGitHubAccessToken().getOrNull());
+	}
+}
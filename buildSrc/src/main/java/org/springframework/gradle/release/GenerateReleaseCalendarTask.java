@@ -0,0 +1,90 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.gradle.release;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.TaskAction;
+
+import org.springframework.support.ReleaseTrainTemplate;
+import org.springframework.support.SpringReleaseCalendar;
+
+/**
+ * Generates the release calendar of one or more projects for a range of years as
+ * {@code release-calendar.csv} and {@code release-calendar.ics}.
+ */
+public abstract class GenerateReleaseCalendarTask extends DefaultTask {
+	@Input
+	public abstract ListProperty<String> getProjects();
+
+	@Input
+	public abstract Property<Integer> getWeekOfMonth();
+
+	@Input
+	public abstract Property<Integer> getDayOfWeek();
+
+	@Input
+	@Optional
+	public abstract Property<ReleaseTrainTemplate> getTrainTemplate();
+
+	@Input
+	public abstract Property<Integer> getFromYear();
+
+	@Input
+	public abstract Property<Integer> getToYear();
+
+	@OutputDirectory
+	public abstract DirectoryProperty getOutputDirectory();
+
+	@TaskAction
+	public void generateReleaseCalendar() {
+		SpringReleaseCalendar.Builder builder = SpringReleaseCalendar.builder().years(getFromYear().get(), getToYear().get());
+		ReleaseTrainTemplate template = getTrainTemplate().map(ReleaseTrainTemplate::mutate).getOrElse(ReleaseTrainTemplate.builder())
+				.weekOfMonth(getWeekOfMonth().get())
+				.dayOfWeek(getDayOfWeek().get())
+				.build();
+		for (String project : getProjects().get()) {
+			builder.project(project, template);
+		}
+		SpringReleaseCalendar calendar = builder.build();
+		File csvFile = getOutputDirectory().file("release-calendar.csv").get().getAsFile();
+		File icsFile = getOutputDirectory().file("release-calendar.ics").get().getAsFile();
+		try (Writer writer = Files.newBufferedWriter(csvFile.toPath(), StandardCharsets.UTF_8)) {
+			calendar.writeCsv(writer);
+		}
+		catch (IOException ex) {
+			throw new RuntimeException("Unable to write " + csvFile, ex);
+		}
+		try (Writer writer = Files.newBufferedWriter(icsFile.toPath(), StandardCharsets.UTF_8)) {
+			calendar.writeIcs(writer);
+		}
+		catch (IOException ex) {
+			throw new RuntimeException("Unable to write " + icsFile, ex);
+		}
+	}
+}
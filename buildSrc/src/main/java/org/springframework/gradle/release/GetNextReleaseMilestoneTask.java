@@ -19,40 +19,37 @@ package org.springframework.gradle.release;
 import com.github.api.GitHubMilestoneApi;
 import com.github.api.RepositoryRef;
 import org.gradle.api.DefaultTask;
+import org.gradle.api.provider.Property;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.TaskAction;
 
 /**
  * @author Steve Riesenberg
  */
-public class GetNextReleaseMilestoneTask extends DefaultTask {
+public abstract class GetNextReleaseMilestoneTask extends DefaultTask {
 	@Input
-	private RepositoryRef repository = new RepositoryRef();
+	public abstract Property<RepositoryRef> getRepository();
 
 	@Input
-	private String gitHubAccessToken;
+	public abstract Property<String> getGitHubAccessToken();
+
+	@Internal
+	public abstract Property<GitHubApiService> getGitHubApiService();
+
+	/**
+	 * @return the current version of the project
+	 */
+	@Input
+	public abstract Property<String> getCurrentVersion();
 
 	@TaskAction
 	public void getNextReleaseMilestone() {
-		GitHubMilestoneApi gitHubMilestoneApi = new GitHubMilestoneApi(this.gitHubAccessToken);
-		String currentVersion = getProject().getVersion().toString();
-		String nextReleaseMilestone = gitHubMilestoneApi.getNextReleaseMilestone(this.repository, currentVersion);
+		GitHubApiService gitHubApiService = getGitHubApiService().get();
+		GitHubMilestoneApi gitHubMilestoneApi = gitHubApiService.getMilestoneApi(getGitHubAccessToken().get());
+		String nextReleaseMilestone = gitHubMilestoneApi.getNextReleaseMilestone(getRepository().get(),
+				getCurrentVersion().get());
 		System.out.println(nextReleaseMilestone);
-	}
-
-	public RepositoryRef getRepository() {
-		return repository;
-	}
-
-	public void setRepository(RepositoryRef repository) {
-		this.repository = repository;
-	}
-
-	public String getGitHubAccessToken() {
-		return gitHubAccessToken;
-	}
-
-	public void setGitHubAccessToken(String gitHubAccessToken) {
-		this.gitHubAccessToken = gitHubAccessToken;
+		gitHubApiService.logStatistics(getLogger());
 	}
 }
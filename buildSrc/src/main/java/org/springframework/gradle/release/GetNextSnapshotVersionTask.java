@@ -16,35 +16,34 @@
 
 package org.springframework.gradle.release;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 import org.gradle.api.DefaultTask;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.TaskAction;
 
-public class GetNextSnapshotVersionTask extends DefaultTask {
-	private static final String RELEASE_VERSION_PATTERN = "^([0-9]+)\\.([0-9]+)\\.([0-9]+)(-M\\d+|-RC\\d+)?$";
+import org.springframework.support.SemanticVersion;
+
+public abstract class GetNextSnapshotVersionTask extends DefaultTask {
+	/**
+	 * @return the current version of the project
+	 */
+	@Input
+	public abstract Property<String> getCurrentVersion();
 
 	@TaskAction
 	public void getNextSnapshotVersion() {
-		String currentVersion = getProject().getVersion().toString();
-		String nextVersion = calculateNextSnapshotVersion(currentVersion);
+		String nextVersion = calculateNextSnapshotVersion(getCurrentVersion().get());
 		System.out.println(nextVersion);
 	}
 
 	private String calculateNextSnapshotVersion(String currentVersion) {
-		Pattern releaseVersionPattern = Pattern.compile(RELEASE_VERSION_PATTERN);
-		Matcher releaseVersion = releaseVersionPattern.matcher(currentVersion);
+		SemanticVersion releaseVersion = SemanticVersion.tryParse(currentVersion);
 
-		if (releaseVersion.find()) {
-			String majorSegment = releaseVersion.group(1);
-			String minorSegment = releaseVersion.group(2);
-			String patchSegment = releaseVersion.group(3);
-			String modifier = releaseVersion.group(4);
-			if (modifier == null) {
-				patchSegment = String.valueOf(Integer.parseInt(patchSegment) + 1);
+		if (releaseVersion != null && !releaseVersion.isSnapshot()) {
+			if (!releaseVersion.isPreRelease()) {
+				releaseVersion = releaseVersion.nextPatch();
 			}
-			return String.format("%s.%s.%s-SNAPSHOT", majorSegment, minorSegment, patchSegment);
+			return releaseVersion.toSnapshot().toString();
 		}
 		else {
 			throw new IllegalStateException(
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.gradle.release;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.github.api.ConditionalRequestCache;
+import com.github.api.GitHubActionsApi;
+import com.github.api.GitHubClientRegistry;
+import com.github.api.GitHubGraphQlApi;
+import com.github.api.GitHubMilestoneApi;
+import com.github.api.GitHubReleaseApi;
+import com.github.api.RateLimitInterceptor;
+import com.github.api.RecordReplayInterceptor;
+import okhttp3.Interceptor;
+import org.gradle.api.Project;
+import org.gradle.api.file.Directory;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+/**
+ * A build service sharing GitHub API clients between all release tasks of a build.
+ * <p>
+ * GET responses are cached under the Gradle user home and revalidated with ETags,
+ * so repeated lookups of unchanged data cost no rate limit budget. Requests are paced
+ * to the remaining rate limit budget and retried when GitHub asks to back off.
+ * <p>
+ * With {@code -PgitHubApiMode=record} every response is additionally written to
+ * fixtures (by default in {@code gradle/github-fixtures}, configurable with
+ * {@code -PgitHubApiFixtures=...}), and with {@code -PgitHubApiMode=replay} the
+ * recorded responses are served without any network access, response cache or
+ * rate limiting.
+ */
+public abstract class GitHubApiService implements BuildService<GitHubApiService.Parameters>, AutoCloseable {
+	public static final String SERVICE_NAME = "gitHubApi";
+
+	static final String MODE_PROPERTY = "gitHubApiMode";
+
+	static final String FIXTURES_PROPERTY = "gitHubApiFixtures";
+
+	private final ConditionalRequestCache responseCache;
+
+	private final RateLimitInterceptor rateLimit = new RateLimitInterceptor();
+
+	private final GitHubClientRegistry clientRegistry;
+
+	private final RecordReplayInterceptor recordReplay;
+
+	public GitHubApiService() {
+		this.responseCache = new ConditionalRequestCache(getParameters().getCacheDirectory().get().getAsFile().toPath());
+		this.recordReplay = createRecordReplay(getParameters());
+		List<Interceptor> interceptors = new ArrayList<>();
+		if (this.recordReplay == null) {
+			interceptors.add(this.responseCache);
+		}
+		else {
+			// Record outside of the retry loop, so that only final responses are recorded
+			interceptors.add(this.recordReplay);
+		}
+		if (this.recordReplay == null || this.recordReplay.getMode() == RecordReplayInterceptor.Mode.RECORD) {
+			interceptors.add(this.rateLimit);
+		}
+		this.clientRegistry = new GitHubClientRegistry(interceptors.toArray(new Interceptor[0]));
+	}
+
+	private static RecordReplayInterceptor createRecordReplay(Parameters parameters) {
+		String mode = parameters.getMode().getOrNull();
+		if (mode == null) {
+			return null;
+		}
+		try {
+			return new RecordReplayInterceptor(RecordReplayInterceptor.Mode.valueOf(mode.toUpperCase(Locale.ROOT)),
+					parameters.getFixturesDirectory().get().getAsFile().toPath());
+		}
+		catch (IllegalArgumentException ex) {
+			throw new IllegalArgumentException("Unsupported " + MODE_PROPERTY + " '" + mode + "', expected record or replay", ex);
+		}
+	}
+
+	public GitHubMilestoneApi getMilestoneApi(String gitHubToken) {
+		return this.clientRegistry.getMilestoneApi(gitHubToken);
+	}
+
+	public GitHubReleaseApi getReleaseApi(String gitHubToken) {
+		return this.clientRegistry.getReleaseApi(gitHubToken);
+	}
+
+	public GitHubActionsApi getActionsApi(String gitHubToken) {
+		return this.clientRegistry.getActionsApi(gitHubToken);
+	}
+
+	public GitHubGraphQlApi getGraphQlApi(String gitHubToken) {
+		return this.clientRegistry.getGraphQlApi(gitHubToken);
+	}
+
+	public ConditionalRequestCache getResponseCache() {
+		return this.responseCache;
+	}
+
+	public RateLimitInterceptor getRateLimit() {
+		return this.rateLimit;
+	}
+
+	public RecordReplayInterceptor getRecordReplay() {
+		return this.recordReplay;
+	}
+
+	public void logStatistics(Logger logger) {
+		if (this.recordReplay != null) {
+			logger.info("GitHub API responses are {} in {}", (this.recordReplay.getMode() == RecordReplayInterceptor.Mode.RECORD)
+					? "recorded" : "replayed", this.recordReplay.getDirectory());
+		}
+		logger.info("GitHub response cache: {} hits, {} misses", this.responseCache.getHitCount(),
+				this.responseCache.getMissCount());
+		logger.info("GitHub rate limit: {} of {} remaining (resets at {}), {} retries, throttled for {} ms",
+				this.rateLimit.getRemaining(), this.rateLimit.getLimit(), this.rateLimit.getResetEpochSeconds(),
+				this.rateLimit.getRetryCount(), this.rateLimit.getThrottledMillis());
+	}
+
+	@Override
+	public void close() {
+		this.clientRegistry.close();
+	}
+
+	public static Provider<GitHubApiService> register(Project project) {
+		File cacheDirectory = new File(project.getGradle().getGradleUserHomeDir(), "caches/spring-release/github-responses");
+		Directory rootDirectory = project.getRootProject().getLayout().getProjectDirectory();
+		return project.getGradle().getSharedServices().registerIfAbsent(SERVICE_NAME, GitHubApiService.class, (spec) -> {
+			spec.getParameters().getCacheDirectory().set(cacheDirectory);
+			spec.getParameters().getMode().set(project.getProviders().gradleProperty(MODE_PROPERTY));
+			spec.getParameters().getFixturesDirectory().set(project.getProviders().gradleProperty(FIXTURES_PROPERTY)
+					.orElse("gradle/github-fixtures")
+					.map(rootDirectory::dir));
+		});
+	}
+
+	public interface Parameters extends BuildServiceParameters {
+		DirectoryProperty getCacheDirectory();
+
+		Property<String> getMode();
+
+		DirectoryProperty getFixturesDirectory();
+	}
+}
@@ -16,87 +16,87 @@
 
 package org.springframework.gradle.release;
 
-import java.io.File;
-import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 
-import org.gradle.api.Action;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
-import org.gradle.api.Task;
-import org.gradle.api.artifacts.Configuration;
-import org.gradle.api.artifacts.DependencySet;
-import org.gradle.api.artifacts.repositories.ExclusiveContentRepository;
-import org.gradle.api.artifacts.repositories.InclusiveRepositoryContentDescriptor;
-import org.gradle.api.artifacts.repositories.IvyArtifactRepository;
-import org.gradle.api.artifacts.repositories.IvyPatternRepositoryLayout;
-import org.gradle.api.tasks.JavaExec;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.provider.ProviderFactory;
+import org.gradle.api.tasks.TaskProvider;
 
 public class GitHubChangelogPlugin implements Plugin<Project> {
-	public static final String CHANGELOG_GENERATOR_CONFIGURATION_NAME = "changelogGenerator";
+	public static final String GENERATE_CHANGELOG_TASK_NAME = "generateChangelog";
+	public static final String GENERATE_CHANGELOGS_TASK_NAME = "generateChangelogs";
+	public static final String COMPUTE_CHANGELOG_FINGERPRINT_TASK_NAME = "computeChangelogFingerprint";
+	public static final String COMPUTE_CHANGELOGS_FINGERPRINTS_TASK_NAME = "computeChangelogsFingerprints";
+	public static final String RELEASE_NOTES_SECTIONS_PATH = "scripts/release/release-notes-sections.yml";
 	public static final String RELEASE_NOTES_PATH = "changelog/release-notes.md";
+	public static final String RELEASE_NOTES_DIRECTORY = "changelog/versions";
+	public static final String RELEASE_NOTES_FINGERPRINT_PATH = "changelog/fingerprints/release-notes.txt";
+	public static final String RELEASE_NOTES_FINGERPRINTS_PATH = "changelog/fingerprints/versions.txt";
 
 	@Override
 	public void apply(Project project) {
-		createRepository(project);
-		createChangelogGeneratorConfiguration(project);
-		project.getTasks().register("generateChangelog", JavaExec.class, new Action<JavaExec>() {
-			@Override
-			public void execute(JavaExec generateChangelog) {
-				File outputFile = project.file(Paths.get(project.getBuildDir().getPath(), RELEASE_NOTES_PATH));
-				outputFile.getParentFile().mkdirs();
-				generateChangelog.setGroup("Release");
-				generateChangelog.setDescription("Generates the changelog");
-				generateChangelog.setWorkingDir(project.getRootDir());
-				generateChangelog.classpath(project.getConfigurations().getAt(CHANGELOG_GENERATOR_CONFIGURATION_NAME));
-				generateChangelog.doFirst(new Action<Task>() {
-					@Override
-					public void execute(Task task) {
-						generateChangelog.args("--spring.config.location=scripts/release/release-notes-sections.yml", project.property("nextVersion"), outputFile.toString());
-					}
-				});
-			}
+		Provider<GitHubApiService> gitHubApiService = GitHubApiService.register(project);
+		ProviderFactory providers = project.getProviders();
+		Provider<String> nextVersion = providers.gradleProperty("nextVersion");
+		Provider<List<String>> changelogVersions = providers.gradleProperty("changelogVersions")
+				.map((versions) -> Arrays.stream(versions.split(","))
+						.map(String::trim)
+						.filter((version) -> !version.isEmpty())
+						.collect(Collectors.toList()));
+		TaskProvider<ComputeIssuesFingerprintsTask> computeChangelogFingerprint = registerComputeIssuesFingerprints(
+				project, COMPUTE_CHANGELOG_FINGERPRINT_TASK_NAME, nextVersion.map(Collections::singletonList),
+				RELEASE_NOTES_FINGERPRINT_PATH, gitHubApiService);
+		TaskProvider<ComputeIssuesFingerprintsTask> computeChangelogsFingerprints = registerComputeIssuesFingerprints(
+				project, COMPUTE_CHANGELOGS_FINGERPRINTS_TASK_NAME, changelogVersions, RELEASE_NOTES_FINGERPRINTS_PATH,
+				gitHubApiService);
+		project.getTasks().register(GENERATE_CHANGELOG_TASK_NAME, GenerateChangelogTask.class, (generateChangelog) -> {
+			generateChangelog.setGroup("Release");
+			generateChangelog.setDescription("Generates the changelog");
+
+			generateChangelog.getSectionsFile().set(project.getRootProject().getLayout().getProjectDirectory().file(RELEASE_NOTES_SECTIONS_PATH));
+			generateChangelog.getVersion().set(nextVersion);
+			generateChangelog.getIssuesFingerprintFile().set(computeChangelogFingerprint
+					.flatMap(ComputeIssuesFingerprintsTask::getOutputFile));
+			generateChangelog.getGitHubAccessToken().set(providers.gradleProperty("gitHubAccessToken"));
+			generateChangelog.getGitHubApiService().set(gitHubApiService);
+			generateChangelog.usesService(gitHubApiService);
+			generateChangelog.getClassLoaderIsolation().set(providers.gradleProperty("changelogClassLoaderIsolation")
+					.map(Boolean::valueOf).orElse(false));
+			generateChangelog.getOutputFile().set(project.getLayout().getBuildDirectory().file(RELEASE_NOTES_PATH));
 		});
-	}
+		project.getTasks().register(GENERATE_CHANGELOGS_TASK_NAME, GenerateChangelogsTask.class, (generateChangelogs) -> {
+			generateChangelogs.setGroup("Release");
+			generateChangelogs.setDescription("Generates the changelogs of several versions, e.g. -PchangelogVersions=5.6.3,5.7.1");
 
-	private void createChangelogGeneratorConfiguration(Project project) {
-		project.getConfigurations().create(CHANGELOG_GENERATOR_CONFIGURATION_NAME, new Action<Configuration>() {
-			@Override
-			public void execute(Configuration configuration) {
-				configuration.defaultDependencies(new Action<DependencySet>() {
-					@Override
-					public void execute(DependencySet dependencies) {
-						dependencies.add(project.getDependencies().create("spring-io:github-changelog-generator:0.0.6"));
-					}
-				});
-			}
+			generateChangelogs.getSectionsFile().set(project.getRootProject().getLayout().getProjectDirectory().file(RELEASE_NOTES_SECTIONS_PATH));
+			generateChangelogs.getVersions().set(changelogVersions);
+			generateChangelogs.getIssuesFingerprintFile().set(computeChangelogsFingerprints
+					.flatMap(ComputeIssuesFingerprintsTask::getOutputFile));
+			generateChangelogs.getGitHubAccessToken().set(providers.gradleProperty("gitHubAccessToken"));
+			generateChangelogs.getGitHubApiService().set(gitHubApiService);
+			generateChangelogs.usesService(gitHubApiService);
+			generateChangelogs.getOutputDirectory().set(project.getLayout().getBuildDirectory().dir(RELEASE_NOTES_DIRECTORY));
 		});
 	}
 
-	private void createRepository(Project project) {
-		IvyArtifactRepository repository = project.getRepositories().ivy(new Action<IvyArtifactRepository>() {
-			@Override
-			public void execute(IvyArtifactRepository repository) {
-				repository.setUrl("https://github.com/");
-				repository.patternLayout(new Action<IvyPatternRepositoryLayout>() {
-					@Override
-					public void execute(IvyPatternRepositoryLayout layout) {
-						layout.artifact("[organization]/[artifact]/releases/download/v[revision]/[artifact].[ext]");
-					}
-				});
-				repository.getMetadataSources().artifact();
-			}
-		});
-		project.getRepositories().exclusiveContent(new Action<ExclusiveContentRepository>() {
-			@Override
-			public void execute(ExclusiveContentRepository exclusiveContentRepository) {
-				exclusiveContentRepository.forRepositories(repository);
-				exclusiveContentRepository.filter(new Action<InclusiveRepositoryContentDescriptor>() {
-					@Override
-					public void execute(InclusiveRepositoryContentDescriptor descriptor) {
-						descriptor.includeGroup("spring-io");
-					}
-				});
-			}
+	private static TaskProvider<ComputeIssuesFingerprintsTask> registerComputeIssuesFingerprints(Project project,
+			String name, Provider<List<String>> versions, String outputPath, Provider<GitHubApiService> gitHubApiService) {
+		return project.getTasks().register(name, ComputeIssuesFingerprintsTask.class, (computeIssuesFingerprints) -> {
+			computeIssuesFingerprints.doNotTrackState("API call to GitHub needs to check for changed issues every time");
+			computeIssuesFingerprints.setGroup("Release");
+			computeIssuesFingerprints.setDescription("Fingerprints the closed issues of the milestones to generate the changelog of");
+
+			computeIssuesFingerprints.getSectionsFile().set(project.getRootProject().getLayout().getProjectDirectory().file(RELEASE_NOTES_SECTIONS_PATH));
+			computeIssuesFingerprints.getVersions().set(versions);
+			computeIssuesFingerprints.getGitHubAccessToken().set(project.getProviders().gradleProperty("gitHubAccessToken"));
+			computeIssuesFingerprints.getGitHubApiService().set(gitHubApiService);
+			computeIssuesFingerprints.usesService(gitHubApiService);
+			computeIssuesFingerprints.getOutputFile().set(project.getLayout().getBuildDirectory().file(outputPath));
 		});
 	}
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.gradle.release;
+
+import com.github.api.GitHubGraphQlApi;
+import com.github.api.ReleasePreflight;
+import com.github.api.RepositoryRef;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.TaskAction;
+
+/**
+ * Combines {@link GetNextReleaseMilestoneTask}, {@link CheckMilestoneIsDueToday} and
+ * {@link CheckMilestoneHasNoOpenIssues} into a single GraphQL request and outputs the
+ * result as JSON.
+ */
+public abstract class ReleasePreflightTask extends DefaultTask {
+	@Input
+	public abstract Property<RepositoryRef> getRepository();
+
+	@Input
+	public abstract Property<String> getGitHubAccessToken();
+
+	@Internal
+	public abstract Property<GitHubApiService> getGitHubApiService();
+
+	/**
+	 * @return the current version of the project
+	 */
+	@Input
+	public abstract Property<String> getCurrentVersion();
+
+	@TaskAction
+	public void releasePreflight() {
+		GitHubApiService gitHubApiService = getGitHubApiService().get();
+		GitHubGraphQlApi gitHubGraphQlApi = gitHubApiService.getGraphQlApi(getGitHubAccessToken().get());
+		ReleasePreflight releasePreflight = gitHubGraphQlApi.getReleasePreflight(getRepository().get(),
+				getCurrentVersion().get());
+		System.out.println(releasePreflight.toJson());
+		gitHubApiService.logStatistics(getLogger());
+	}
+}
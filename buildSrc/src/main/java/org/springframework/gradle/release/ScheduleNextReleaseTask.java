@@ -18,59 +18,196 @@ package org.springframework.gradle.release;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.github.api.GitHubMilestoneApi;
 import com.github.api.Milestone;
 import com.github.api.RepositoryRef;
 import org.gradle.api.DefaultTask;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.TaskAction;
 
+import org.springframework.support.ReleaseTrainTemplate;
+import org.springframework.support.SemanticVersion;
 import org.springframework.support.SpringReleaseTrain;
 import org.springframework.support.SpringReleaseTrainSpec;
 
 /**
+ * Schedules the next release of a repository.
+ * <p>
+ * When {@link #getRepositories() repositories} are configured, the next release is
+ * scheduled for all of them concurrently (at most {@link #getMaxParallelism()
+ * maxParallelism} at a time) instead of the single {@link #getRepository()
+ * repository}, and the outcome for each repository is reported once all are done.
+ * <p>
+ * Repositories on the same release train do not share their versions, so the next
+ * release of each repository is based on its own entry in {@link #getVersions()
+ * versions}. The {@link #getVersion() version} only applies to the single
+ * {@link #getRepository() repository}; scheduling fails for any other repository
+ * without a version rather than assuming a shared one.
+ *
  * @author Steve Riesenberg
  */
-public class ScheduleNextReleaseTask extends DefaultTask {
+public abstract class ScheduleNextReleaseTask extends DefaultTask {
+	public ScheduleNextReleaseTask() {
+		getMaxParallelism().convention(8);
+	}
+
+	@Input
+	public abstract Property<RepositoryRef> getRepository();
+
+	@Input
+	public abstract ListProperty<RepositoryRef> getRepositories();
+
 	@Input
-	private RepositoryRef repository = new RepositoryRef();
+	public abstract Property<Integer> getMaxParallelism();
 
 	@Input
-	private String gitHubAccessToken;
+	public abstract Property<String> getGitHubAccessToken();
+
+	@Internal
+	public abstract Property<GitHubApiService> getGitHubApiService();
+
+	@Input
+	@Optional
+	public abstract Property<String> getVersion();
 
 	@Input
-	private String version;
+	public abstract MapProperty<RepositoryRef, String> getVersions();
 
 	@Input
-	private Integer weekOfMonth;
+	public abstract Property<Integer> getWeekOfMonth();
 
 	@Input
-	private Integer dayOfWeek;
+	public abstract Property<Integer> getDayOfWeek();
+
+	@Input
+	@Optional
+	public abstract Property<ReleaseTrainTemplate> getTrainTemplate();
 
 	@TaskAction
 	public void scheduleNextRelease() {
-		GitHubMilestoneApi gitHubMilestoneApi = new GitHubMilestoneApi(this.gitHubAccessToken);
-		String nextReleaseMilestone = gitHubMilestoneApi.getNextReleaseMilestone(this.repository, this.version);
-
-		// If the next release contains a dash (e.g. 5.6.0-RC1), it is already scheduled
-		if (nextReleaseMilestone.contains("-")) {
+		GitHubMilestoneApi gitHubMilestoneApi = getGitHubApiService().get().getMilestoneApi(getGitHubAccessToken().get());
+		List<RepositoryRef> repositories = getRepositories().get();
+		if (repositories.isEmpty()) {
+			RepositoryRef repository = getRepository().get();
+			scheduleNextRelease(gitHubMilestoneApi, repository, getVersion(repository));
 			return;
 		}
 
+		// Fail before any milestone is created if a repository has no version
+		Map<RepositoryRef, String> versions = new LinkedHashMap<>();
+		for (RepositoryRef repository : repositories) {
+			versions.put(repository, getVersion(repository));
+		}
+		Map<RepositoryRef, Future<List<String>>> results = new LinkedHashMap<>();
+		ExecutorService executor = newExecutor(Math.min(getMaxParallelism().get(), repositories.size()));
+		try {
+			versions.forEach((repository, version) -> results.put(repository,
+					executor.submit(() -> scheduleNextRelease(gitHubMilestoneApi, repository, version))));
+			reportResults(results);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Determine the version the next release of a repository is based on.
+	 *
+	 * @param repository The repository owner/name
+	 * @return the configured version of the repository
+	 */
+	private String getVersion(RepositoryRef repository) {
+		String version = null;
+		if (repository.equals(getRepository().getOrNull())) {
+			version = getVersion().getOrNull();
+		}
+		if (version == null) {
+			version = getVersions().get().get(repository);
+		}
+		if (version == null) {
+			throw new IllegalArgumentException("No version configured for repository " + repository.getOwner() + "/"
+					+ repository.getName() + ". Repositories do not share their versions, so configure a version for"
+					+ " each repository, e.g. springRelease { repositories '" + repository.getOwner() + "/"
+					+ repository.getName() + "': '1.0.0' }");
+		}
+		return version;
+	}
+
+	private void reportResults(Map<RepositoryRef, Future<List<String>>> results) {
+		Map<String, Throwable> failures = new LinkedHashMap<>();
+		getLogger().lifecycle("Scheduled next release for {} repositories:", results.size());
+		for (Map.Entry<RepositoryRef, Future<List<String>>> entry : results.entrySet()) {
+			String repositoryName = entry.getKey().getOwner() + "/" + entry.getKey().getName();
+			try {
+				List<String> createdMilestones = entry.getValue().get();
+				getLogger().lifecycle("  {}: {}", repositoryName,
+						createdMilestones.isEmpty() ? "already scheduled" : "created " + String.join(", ", createdMilestones));
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("Interrupted while scheduling the next release", ex);
+			}
+			catch (ExecutionException ex) {
+				getLogger().lifecycle("  {}: failed ({})", repositoryName, ex.getCause().getMessage());
+				failures.put(repositoryName, ex.getCause());
+			}
+		}
+		if (!failures.isEmpty()) {
+			RuntimeException failure = new RuntimeException("Could not schedule the next release for " + failures.keySet());
+			failures.values().forEach(failure::addSuppressed);
+			throw failure;
+		}
+	}
+
+	/**
+	 * Schedule the next release of a single repository.
+	 *
+	 * @param gitHubMilestoneApi The api to query and create milestones with
+	 * @param repository The repository owner/name
+	 * @param version The version of the repository the next release is based on
+	 * @return the titles of the milestones that were created, or an empty list if the
+	 * next release is already scheduled
+	 */
+	private List<String> scheduleNextRelease(GitHubMilestoneApi gitHubMilestoneApi, RepositoryRef repository,
+			String version) {
+		String nextReleaseMilestone = gitHubMilestoneApi.getNextReleaseMilestone(repository, version);
+		SemanticVersion nextReleaseVersion = SemanticVersion.parse(nextReleaseMilestone);
+
+		// If the next release is a pre-release (e.g. 5.6.0-RC1), it is already scheduled
+		if (nextReleaseVersion.isPreRelease()) {
+			return Collections.emptyList();
+		}
+
 		// Check to see if a scheduled GA version already exists
-		boolean hasExistingMilestone = gitHubMilestoneApi.getMilestones(this.repository).stream()
-				.peek(m -> System.out.println(m.getDueOn()))
-				.anyMatch(milestone -> nextReleaseMilestone.equals(milestone.getTitle()));
+		boolean hasExistingMilestone = gitHubMilestoneApi.getMilestoneSnapshot(repository)
+				.findByTitle(nextReleaseMilestone).isPresent();
 		if (hasExistingMilestone) {
-			return;
+			return Collections.emptyList();
 		}
 
+		List<String> createdMilestones = new ArrayList<>();
 		// Next milestone is either a patch version or minor version
 		// Note: Major versions will be handled like minor and get a release
 		// train which can be manually updated to match the desired schedule.
-		if (nextReleaseMilestone.endsWith(".0")) {
+		if (nextReleaseVersion.isMinorRelease()) {
 			// Create M1, M2, M3, RC1 and GA milestones for release train
+			List<Milestone> milestones = new ArrayList<>();
 			getReleaseTrain(nextReleaseMilestone).getTrainDates().forEach((milestoneTitle, dueOn) -> {
 				Milestone milestone = new Milestone();
 				milestone.setTitle(milestoneTitle);
@@ -80,8 +217,10 @@ public class ScheduleNextReleaseTask extends DefaultTask {
 				// For example, midnight UTC is actually 8pm CDT (the previous day).
 				// We use 12pm/noon UTC to be as far from anybody's midnight as we can.
 				milestone.setDueOn(dueOn.atTime(LocalTime.NOON));
-				gitHubMilestoneApi.createMilestone(this.repository, milestone);
+				milestones.add(milestone);
+				createdMilestones.add(milestoneTitle);
 			});
+			gitHubMilestoneApi.createMilestones(repository, milestones);
 		} else {
 			// Create GA milestone for patch release on the next even month
 			LocalDate startDate = LocalDate.now();
@@ -89,59 +228,31 @@ public class ScheduleNextReleaseTask extends DefaultTask {
 			Milestone milestone = new Milestone();
 			milestone.setTitle(nextReleaseMilestone);
 			milestone.setDueOn(dueOn.atTime(LocalTime.NOON));
-			gitHubMilestoneApi.createMilestone(this.repository, milestone);
+			gitHubMilestoneApi.createMilestone(repository, milestone);
+			createdMilestones.add(nextReleaseMilestone);
 		}
+		return createdMilestones;
+	}
+
+	private static ExecutorService newExecutor(int threads) {
+		AtomicInteger threadNumber = new AtomicInteger();
+		return Executors.newFixedThreadPool(threads, (runnable) -> {
+			Thread thread = new Thread(runnable, "schedule-next-release-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
 	}
 
 	private SpringReleaseTrain getReleaseTrain(String nextReleaseMilestone) {
 		SpringReleaseTrainSpec releaseTrainSpec =
 				SpringReleaseTrainSpec.builder()
+						.template(getTrainTemplate().getOrNull())
 						.nextTrain()
 						.version(nextReleaseMilestone)
-						.weekOfMonth(this.weekOfMonth)
-						.dayOfWeek(this.dayOfWeek)
+						.weekOfMonth(getWeekOfMonth().get())
+						.dayOfWeek(getDayOfWeek().get())
 						.build();
 
 		return new SpringReleaseTrain(releaseTrainSpec);
 	}
-
-	public RepositoryRef getRepository() {
-		return this.repository;
-	}
-
-	public void setRepository(RepositoryRef repository) {
-		this.repository = repository;
-	}
-
-	public String getGitHubAccessToken() {
-		return this.gitHubAccessToken;
-	}
-
-	public void setGitHubAccessToken(String gitHubAccessToken) {
-		this.gitHubAccessToken = gitHubAccessToken;
-	}
-
-	public String getVersion() {
-		return this.version;
-	}
-
-	public void setVersion(String version) {
-		this.version = version;
-	}
-
-	public Integer getWeekOfMonth() {
-		return weekOfMonth;
-	}
-
-	public void setWeekOfMonth(Integer weekOfMonth) {
-		this.weekOfMonth = weekOfMonth;
-	}
-
-	public Integer getDayOfWeek() {
-		return dayOfWeek;
-	}
-
-	public void setDayOfWeek(Integer dayOfWeek) {
-		this.dayOfWeek = dayOfWeek;
-	}
 }
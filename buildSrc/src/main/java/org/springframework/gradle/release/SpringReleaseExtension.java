@@ -16,6 +16,11 @@
 
 package org.springframework.gradle.release;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
 import org.gradle.api.Action;
 import org.gradle.api.tasks.Nested;
 
@@ -26,6 +31,9 @@ public class SpringReleaseExtension {
 	@Nested
 	private Repository repository = new Repository();
 
+	@Nested
+	private List<Repository> repositories = new ArrayList<>();
+
 	@Nested
 	private ReleaseTrain releaseTrain = new ReleaseTrain();
 
@@ -41,6 +49,50 @@ public class SpringReleaseExtension {
 		action.execute(this.repository);
 	}
 
+	public List<Repository> getRepositories() {
+		return repositories;
+	}
+
+	public void setRepositories(List<Repository> repositories) {
+		this.repositories = repositories;
+	}
+
+	/**
+	 * Add repositories on the same release train, e.g.
+	 * {@code repositories 'spring-projects/spring-security', 'spring-projects/spring-session'}.
+	 * When configured, the next release is scheduled for all of them at once, which
+	 * requires a version for each of them, see {@link #repositories(Map)}.
+	 * @param repositories The repositories in owner/name format
+	 */
+	public void repositories(String... repositories) {
+		for (String ownerAndName : repositories) {
+			this.repositories.add(createRepository(ownerAndName, null));
+		}
+	}
+
+	/**
+	 * Add repositories on the same release train together with their current versions,
+	 * e.g. {@code repositories 'spring-projects/spring-security': '5.7.0', 'spring-projects/spring-session': '2.7.0'}.
+	 * Repositories do not share their versions, so the next release of each repository
+	 * is based on its own version.
+	 * @param repositories The versions by repository in owner/name format
+	 */
+	public void repositories(Map<String, String> repositories) {
+		repositories.forEach((ownerAndName, version) -> this.repositories.add(createRepository(ownerAndName, version)));
+	}
+
+	private static Repository createRepository(String ownerAndName, String version) {
+		String[] parts = ownerAndName.split("/");
+		if (parts.length != 2 || parts[0].isEmpty() || parts[1].isEmpty()) {
+			throw new IllegalArgumentException("Expected repository in owner/name format but got " + ownerAndName);
+		}
+		Repository repository = new Repository();
+		repository.setOwner(parts[0]);
+		repository.setName(parts[1]);
+		repository.setVersion(version);
+		return repository;
+	}
+
 	public ReleaseTrain getReleaseTrain() {
 		return releaseTrain;
 	}
@@ -56,6 +108,7 @@ public class SpringReleaseExtension {
 	public static class Repository {
 		private String owner;
 		private String name;
+		private String version;
 
 		public String getOwner() {
 			return owner;
@@ -72,11 +125,40 @@ public class SpringReleaseExtension {
 		public void setName(String name) {
 			this.name = name;
 		}
+
+		/**
+		 * @return the current version of the repository, or null to use the
+		 * {@code nextVersion} property for the single repository
+		 */
+		public String getVersion() {
+			return version;
+		}
+
+		public void setVersion(String version) {
+			this.version = version;
+		}
 	}
 
+	/**
+	 * The release train template, by default trains starting in January and July and
+	 * releasing M1, M2, M3, RC1 and GA. For example, quarterly trains releasing M1, RC1
+	 * and GA, skipping the holidays:
+	 * <pre>
+	 * releaseTrain {
+	 *     weekOfMonth = 3
+	 *     dayOfWeek = 2
+	 *     startMonths = [1, 4, 7, 10]
+	 *     qualifiers = ['M1', 'RC1', 'GA']
+	 *     blackoutDates = ['2023-12-19', '2023-12-26']
+	 * }
+	 * </pre>
+	 */
 	public static class ReleaseTrain {
 		private Integer weekOfMonth = 1;
 		private Integer dayOfWeek = 1;
+		private List<Integer> startMonths = new ArrayList<>(Arrays.asList(1, 7));
+		private List<String> qualifiers = new ArrayList<>(Arrays.asList("M1", "M2", "M3", "RC1", "GA"));
+		private List<String> blackoutDates = new ArrayList<>();
 
 		public Integer getWeekOfMonth() {
 			return weekOfMonth;
@@ -93,5 +175,29 @@ public class SpringReleaseExtension {
 		public void setDayOfWeek(int dayOfWeek) {
 			this.dayOfWeek = dayOfWeek;
 		}
+
+		public List<Integer> getStartMonths() {
+			return startMonths;
+		}
+
+		public void setStartMonths(List<Integer> startMonths) {
+			this.startMonths = startMonths;
+		}
+
+		public List<String> getQualifiers() {
+			return qualifiers;
+		}
+
+		public void setQualifiers(List<String> qualifiers) {
+			this.qualifiers = qualifiers;
+		}
+
+		public List<String> getBlackoutDates() {
+			return blackoutDates;
+		}
+
+		public void setBlackoutDates(List<String> blackoutDates) {
+			this.blackoutDates = blackoutDates;
+		}
 	}
 }
@@ -16,10 +16,23 @@
 
 package org.springframework.gradle.release;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import com.github.api.RepositoryRef;
-import groovy.lang.MissingPropertyException;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.provider.ProviderFactory;
+
+import org.springframework.support.ReleaseTrainTemplate;
 
 /**
  * @author Steve Riesenberg
@@ -35,26 +48,81 @@ public class SpringReleasePlugin implements Plugin<Project> {
 		SpringReleaseExtension.Repository repository = releaseSettings.getRepository();
 		SpringReleaseExtension.ReleaseTrain releaseTrain = releaseSettings.getReleaseTrain();
 
+		// Register shared GitHub API clients
+		Provider<GitHubApiService> gitHubApiService = GitHubApiService.register(project);
+
+		// Resolve settings lazily, so that they are read once the build script was evaluated
+		// and no task needs the Project at execution time
+		ProviderFactory providers = project.getProviders();
+		Provider<String> nextVersion = providers.gradleProperty("nextVersion");
+		Provider<String> gitHubAccessToken = providers.gradleProperty("gitHubAccessToken");
+		Provider<String> currentVersion = project.provider(() -> project.getVersion().toString());
+		Provider<RepositoryRef> repositoryRef = project.provider(() -> new RepositoryRef(repository.getOwner(), repository.getName()));
+		Provider<ReleaseTrainTemplate> trainTemplate = project.provider(() -> createTrainTemplate(releaseTrain));
+
 		// Register release management tasks
 		project.getTasks().register("scheduleNextRelease", ScheduleNextReleaseTask.class, (scheduleNextRelease) -> {
 			scheduleNextRelease.doNotTrackState("API call to GitHub needs to check for new milestones every time");
 			scheduleNextRelease.setGroup("Release");
-			scheduleNextRelease.setDescription("Schedule the next release (even months only) or release train (series of milestones starting in January or July) based on the current version");
+			scheduleNextRelease.setDescription("Schedule the next release (even months only) or release train (series of milestones starting in January or July, or as configured by the release train template) based on the current version");
+
+			scheduleNextRelease.getRepository().set(repositoryRef);
+			scheduleNextRelease.getRepositories().set(project.provider(() -> releaseSettings.getRepositories().stream()
+					.map((additionalRepository) -> new RepositoryRef(additionalRepository.getOwner(), additionalRepository.getName()))
+					.collect(Collectors.toList())));
+			scheduleNextRelease.getWeekOfMonth().set(project.provider(releaseTrain::getWeekOfMonth));
+			scheduleNextRelease.getDayOfWeek().set(project.provider(releaseTrain::getDayOfWeek));
+			scheduleNextRelease.getTrainTemplate().set(trainTemplate);
+			scheduleNextRelease.getVersion().set(nextVersion);
+			scheduleNextRelease.getVersions().set(project.provider(() -> {
+				Map<RepositoryRef, String> versions = new LinkedHashMap<>();
+				List<SpringReleaseExtension.Repository> configuredRepositories = new ArrayList<>();
+				configuredRepositories.add(repository);
+				configuredRepositories.addAll(releaseSettings.getRepositories());
+				for (SpringReleaseExtension.Repository configuredRepository : configuredRepositories) {
+					if (configuredRepository.getVersion() != null) {
+						versions.put(new RepositoryRef(configuredRepository.getOwner(), configuredRepository.getName()),
+								configuredRepository.getVersion());
+					}
+				}
+				return versions;
+			}));
+			scheduleNextRelease.getGitHubAccessToken().set(gitHubAccessToken);
+			scheduleNextRelease.getGitHubApiService().set(gitHubApiService);
+			scheduleNextRelease.usesService(gitHubApiService);
+		});
 
-			scheduleNextRelease.setRepository(new RepositoryRef(repository.getOwner(), repository.getName()));
-			scheduleNextRelease.setWeekOfMonth(releaseTrain.getWeekOfMonth());
-			scheduleNextRelease.setDayOfWeek(releaseTrain.getDayOfWeek());
-			scheduleNextRelease.setVersion((String) project.findProperty("nextVersion"));
-			scheduleNextRelease.setGitHubAccessToken((String) project.findProperty("gitHubAccessToken"));
+		project.getTasks().register("generateReleaseCalendar", GenerateReleaseCalendarTask.class, (generateReleaseCalendar) -> {
+			generateReleaseCalendar.setGroup("Release");
+			generateReleaseCalendar.setDescription("Generates the release calendar (release trains and patch releases) of the configured repositories as CSV and ICS, by default for this year and the next two years");
+
+			Provider<Integer> currentYear = project.provider(() -> LocalDate.now().getYear());
+			generateReleaseCalendar.getProjects().set(project.provider(() -> {
+				Set<String> projects = new LinkedHashSet<>();
+				if (repository.getName() != null) {
+					projects.add(repository.getName());
+				}
+				releaseSettings.getRepositories().forEach((additionalRepository) -> projects.add(additionalRepository.getName()));
+				return new ArrayList<>(projects);
+			}));
+			generateReleaseCalendar.getWeekOfMonth().set(project.provider(releaseTrain::getWeekOfMonth));
+			generateReleaseCalendar.getDayOfWeek().set(project.provider(releaseTrain::getDayOfWeek));
+			generateReleaseCalendar.getTrainTemplate().set(trainTemplate);
+			generateReleaseCalendar.getFromYear().set(providers.gradleProperty("fromYear").map(Integer::valueOf).orElse(currentYear));
+			generateReleaseCalendar.getToYear().set(providers.gradleProperty("toYear").map(Integer::valueOf)
+					.orElse(currentYear.map((year) -> year + 2)));
+			generateReleaseCalendar.getOutputDirectory().set(project.getLayout().getBuildDirectory().dir("release-calendar"));
 		});
 
 		project.getTasks().register("triggerRelease", TriggerReleaseTask.class, (triggerRelease) -> {
 			triggerRelease.setGroup("Release");
 			triggerRelease.setDescription("Create a workflow_dispatch event to trigger a release on a given branch");
 
-			triggerRelease.setRepository(new RepositoryRef(repository.getOwner(), repository.getName()));
-			triggerRelease.setBranch((String) project.findProperty("branch"));
-			triggerRelease.setGitHubAccessToken((String) project.findProperty("gitHubAccessToken"));
+			triggerRelease.getRepository().set(repositoryRef);
+			triggerRelease.getBranch().set(providers.gradleProperty("branch"));
+			triggerRelease.getGitHubAccessToken().set(gitHubAccessToken);
+			triggerRelease.getGitHubApiService().set(gitHubApiService);
+			triggerRelease.usesService(gitHubApiService);
 		});
 
 		project.getTasks().register("getNextReleaseMilestone", GetNextReleaseMilestoneTask.class, (getNextReleaseMilestone) -> {
@@ -62,14 +130,19 @@ public class SpringReleasePlugin implements Plugin<Project> {
 			getNextReleaseMilestone.setGroup("Release");
 			getNextReleaseMilestone.setDescription("Calculates the next release version based on the current version and outputs the version number");
 
-			getNextReleaseMilestone.setRepository(new RepositoryRef(repository.getOwner(), repository.getName()));
-			getNextReleaseMilestone.setGitHubAccessToken((String) project.findProperty("gitHubAccessToken"));
+			getNextReleaseMilestone.getRepository().set(repositoryRef);
+			getNextReleaseMilestone.getCurrentVersion().set(currentVersion);
+			getNextReleaseMilestone.getGitHubAccessToken().set(gitHubAccessToken);
+			getNextReleaseMilestone.getGitHubApiService().set(gitHubApiService);
+			getNextReleaseMilestone.usesService(gitHubApiService);
 		});
 
 		project.getTasks().register("getNextSnapshotVersion", GetNextSnapshotVersionTask.class, (getNextSnapshotVersion) -> {
 			getNextSnapshotVersion.doNotTrackState("API call to GitHub needs to check for new milestones every time");
 			getNextSnapshotVersion.setGroup("Release");
 			getNextSnapshotVersion.setDescription("Calculates the next snapshot version based on the current version and outputs the version number");
+
+			getNextSnapshotVersion.getCurrentVersion().set(currentVersion);
 		});
 
 		project.getTasks().register("checkMilestoneHasNoOpenIssues", CheckMilestoneHasNoOpenIssues.class, (checkMilestoneHasNoOpenIssues) -> {
@@ -77,9 +150,11 @@ public class SpringReleasePlugin implements Plugin<Project> {
 			checkMilestoneHasNoOpenIssues.setGroup("Release");
 			checkMilestoneHasNoOpenIssues.setDescription("Checks if there are any open issues for the specified repository and milestone and outputs true or false");
 
-			checkMilestoneHasNoOpenIssues.setRepository(new RepositoryRef(repository.getOwner(), repository.getName()));
-			checkMilestoneHasNoOpenIssues.setGitHubAccessToken((String) project.findProperty("gitHubAccessToken"));
-			checkMilestoneHasNoOpenIssues.setVersion((String) project.findProperty("nextVersion"));
+			checkMilestoneHasNoOpenIssues.getRepository().set(repositoryRef);
+			checkMilestoneHasNoOpenIssues.getGitHubAccessToken().set(gitHubAccessToken);
+			checkMilestoneHasNoOpenIssues.getGitHubApiService().set(gitHubApiService);
+			checkMilestoneHasNoOpenIssues.usesService(gitHubApiService);
+			checkMilestoneHasNoOpenIssues.getVersion().set(nextVersion);
 		});
 
 		project.getTasks().register("checkMilestoneIsDueToday", CheckMilestoneIsDueToday.class, (checkMilestoneIsDueToday) -> {
@@ -87,27 +162,57 @@ public class SpringReleasePlugin implements Plugin<Project> {
 			checkMilestoneIsDueToday.setGroup("Release");
 			checkMilestoneIsDueToday.setDescription("Checks if the given version is due today or past due and outputs true or false");
 
-			checkMilestoneIsDueToday.setRepository(new RepositoryRef(repository.getOwner(), repository.getName()));
-			checkMilestoneIsDueToday.setGitHubAccessToken((String) project.findProperty("gitHubAccessToken"));
-			checkMilestoneIsDueToday.setVersion((String) project.findProperty("nextVersion"));
+			checkMilestoneIsDueToday.getRepository().set(repositoryRef);
+			checkMilestoneIsDueToday.getGitHubAccessToken().set(gitHubAccessToken);
+			checkMilestoneIsDueToday.getGitHubApiService().set(gitHubApiService);
+			checkMilestoneIsDueToday.usesService(gitHubApiService);
+			checkMilestoneIsDueToday.getVersion().set(nextVersion);
+		});
+
+		project.getTasks().register("releasePreflight", ReleasePreflightTask.class, (releasePreflight) -> {
+			releasePreflight.doNotTrackState("API call to GitHub needs to check milestones and open issues every time");
+			releasePreflight.setGroup("Release");
+			releasePreflight.setDescription("Calculates the next release version and checks its due date and open issues with a single request, and outputs the result as JSON");
+
+			releasePreflight.getRepository().set(repositoryRef);
+			releasePreflight.getCurrentVersion().set(currentVersion);
+			releasePreflight.getGitHubAccessToken().set(gitHubAccessToken);
+			releasePreflight.getGitHubApiService().set(gitHubApiService);
+			releasePreflight.usesService(gitHubApiService);
 		});
 
 		project.getTasks().register("createGitHubRelease", CreateGitHubReleaseTask.class, (createGitHubRelease) -> {
 			createGitHubRelease.doNotTrackState("API call to GitHub needs to check for new issues and create a release every time");
 			createGitHubRelease.setGroup("Release");
 			createGitHubRelease.setDescription("Create a github release");
-			createGitHubRelease.dependsOn("generateChangelog");
 
-			createGitHubRelease.setRepository(new RepositoryRef(repository.getOwner(), repository.getName()));
-			createGitHubRelease.setCreateRelease("true".equals(project.findProperty("createRelease")));
-			createGitHubRelease.setVersion((String) project.findProperty("nextVersion"));
-			if (project.hasProperty("branch")) {
-				createGitHubRelease.setBranch((String) project.findProperty("branch"));
+			createGitHubRelease.getRepository().set(repositoryRef);
+			createGitHubRelease.getCreateRelease().set(providers.gradleProperty("createRelease").map("true"::equals).orElse(false));
+			createGitHubRelease.getVersion().set(nextVersion);
+			createGitHubRelease.getBranch().set(providers.gradleProperty("branch").orElse("main"));
+			createGitHubRelease.getGitHubAccessToken().set(gitHubAccessToken);
+			createGitHubRelease.getGitHubApiService().set(gitHubApiService);
+			createGitHubRelease.usesService(gitHubApiService);
+			createGitHubRelease.getReleaseNotes().set(project.getTasks()
+					.named(GitHubChangelogPlugin.GENERATE_CHANGELOG_TASK_NAME, GenerateChangelogTask.class)
+					.flatMap(GenerateChangelogTask::getOutputFile));
+		});
+	}
+
+	private static ReleaseTrainTemplate createTrainTemplate(SpringReleaseExtension.ReleaseTrain releaseTrain) {
+		ReleaseTrainTemplate.Builder builder = ReleaseTrainTemplate.builder()
+				.startMonths(releaseTrain.getStartMonths().stream().mapToInt(Integer::intValue).toArray())
+				.qualifiers(releaseTrain.getQualifiers().toArray(new String[0]))
+				.weekOfMonth(releaseTrain.getWeekOfMonth())
+				.dayOfWeek(releaseTrain.getDayOfWeek());
+		for (String blackoutDate : releaseTrain.getBlackoutDates()) {
+			try {
+				builder.blackoutDates(LocalDate.parse(blackoutDate));
 			}
-			createGitHubRelease.setGitHubAccessToken((String) project.findProperty("gitHubAccessToken"));
-			if (createGitHubRelease.isCreateRelease() && createGitHubRelease.getGitHubAccessToken() == null) {
-				throw new MissingPropertyException("Please provide an access token with -PgitHubAccessToken=...");
+			catch (DateTimeParseException ex) {
+				throw new IllegalArgumentException("Expected blackout date in yyyy-MM-dd format but got " + blackoutDate, ex);
 			}
-		});
+		}
+		return builder.build();
 	}
 }
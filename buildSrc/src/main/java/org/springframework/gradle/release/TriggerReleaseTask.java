@@ -20,50 +20,31 @@ import com.github.api.GitHubActionsApi;
 import com.github.api.RepositoryRef;
 import com.github.api.WorkflowDispatch;
 import org.gradle.api.DefaultTask;
+import org.gradle.api.provider.Property;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.TaskAction;
 
 /**
  * @author Steve Riesenberg
  */
-public class TriggerReleaseTask extends DefaultTask {
+public abstract class TriggerReleaseTask extends DefaultTask {
 	@Input
-	private RepositoryRef repository = new RepositoryRef();
+	public abstract Property<RepositoryRef> getRepository();
 
 	@Input
-	private String gitHubAccessToken;
+	public abstract Property<String> getGitHubAccessToken();
+
+	@Internal
+	public abstract Property<GitHubApiService> getGitHubApiService();
 
 	@Input
-	private String branch;
+	public abstract Property<String> getBranch();
 
 	@TaskAction
 	public void triggerRelease() {
-		GitHubActionsApi gitHubActionsApi = new GitHubActionsApi(this.gitHubAccessToken);
-		WorkflowDispatch workflowDispatch = new WorkflowDispatch(this.branch, null);
-		gitHubActionsApi.dispatchWorkflow(this.repository, "release-next-version.yml", workflowDispatch);
-	}
-
-	public RepositoryRef getRepository() {
-		return repository;
-	}
-
-	public void setRepository(RepositoryRef repository) {
-		this.repository = repository;
-	}
-
-	public String getGitHubAccessToken() {
-		return gitHubAccessToken;
-	}
-
-	public void setGitHubAccessToken(String gitHubAccessToken) {
-		this.gitHubAccessToken = gitHubAccessToken;
-	}
-
-	public String getBranch() {
-		return branch;
-	}
-
-	public void setBranch(String branch) {
-		this.branch = branch;
+		GitHubActionsApi gitHubActionsApi = getGitHubApiService().get().getActionsApi(getGitHubAccessToken().get());
+		WorkflowDispatch workflowDispatch = new WorkflowDispatch(getBranch().get(), null);
+		gitHubActionsApi.dispatchWorkflow(getRepository().get(), "release-next-version.yml", workflowDispatch);
 	}
 }
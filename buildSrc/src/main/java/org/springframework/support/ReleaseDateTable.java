@@ -0,0 +1,93 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.support;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.util.Arrays;
+
+import org.springframework.support.SpringReleaseTrainSpec.DayOfWeek;
+import org.springframework.support.SpringReleaseTrainSpec.WeekOfMonth;
+
+/**
+ * Memoizes release dates per (year, month, day of week, week of month) in a compact
+ * table of epoch days covering a range of years. Dates outside of the range are
+ * calculated on every call.
+ * <p>
+ * Entries are calculated on first use. Concurrent calculation of the same entry is
+ * harmless, as it always yields the same value.
+ */
+final class ReleaseDateTable {
+	private static final int NOT_CALCULATED = Integer.MIN_VALUE;
+
+	private static final int MONTHS = Month.values().length;
+
+	private static final int DAYS_OF_WEEK = DayOfWeek.values().length;
+
+	private static final int WEEKS_OF_MONTH = WeekOfMonth.values().length;
+
+	private final int firstYear;
+
+	private final int lastYear;
+
+	private final int[] epochDays;
+
+	ReleaseDateTable(int firstYear, int lastYear) {
+		if (lastYear < firstYear) {
+			throw new IllegalArgumentException("Invalid range of years: " + firstYear + "-" + lastYear);
+		}
+		this.firstYear = firstYear;
+		this.lastYear = lastYear;
+		this.epochDays = new int[(lastYear - firstYear + 1) * MONTHS * DAYS_OF_WEEK * WEEKS_OF_MONTH];
+		Arrays.fill(this.epochDays, NOT_CALCULATED);
+	}
+
+	LocalDate get(int year, Month month, DayOfWeek dayOfWeek, WeekOfMonth weekOfMonth) {
+		if (year < this.firstYear || year > this.lastYear) {
+			return calculateReleaseDate(Year.of(year), month, dayOfWeek.getDayOfWeek(), weekOfMonth.getDayOffset());
+		}
+		int index = (((year - this.firstYear) * MONTHS + month.ordinal()) * DAYS_OF_WEEK + dayOfWeek.ordinal())
+				* WEEKS_OF_MONTH + weekOfMonth.ordinal();
+		int epochDay = this.epochDays[index];
+		if (epochDay == NOT_CALCULATED) {
+			epochDay = (int) calculateReleaseDate(Year.of(year), month, dayOfWeek.getDayOfWeek(), weekOfMonth.getDayOffset())
+					.toEpochDay();
+			this.epochDays[index] = epochDay;
+		}
+		return LocalDate.ofEpochDay(epochDay);
+	}
+
+	/**
+	 * Calculate the release date of a month.
+	 *
+	 * @param year The year
+	 * @param month The month
+	 * @param dayOfWeek The day of week of the release
+	 * @param dayOffset The offset of the week of month of the release in days
+	 * @return the release date
+	 */
+	static LocalDate calculateReleaseDate(Year year, Month month, java.time.DayOfWeek dayOfWeek, Integer dayOffset) {
+		LocalDate firstDayOfMonth = year.atMonth(month).atDay(1);
+		int dayOfWeekOffset = dayOfWeek.getValue() - firstDayOfMonth.getDayOfWeek().getValue();
+		if (dayOfWeekOffset < 0) {
+			dayOfWeekOffset += 7;
+		}
+
+		return firstDayOfMonth.plusDays(dayOfWeekOffset).plusDays(dayOffset);
+	}
+}
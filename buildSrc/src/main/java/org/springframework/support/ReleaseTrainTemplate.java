@@ -0,0 +1,355 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.support;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+
+import org.springframework.support.SpringReleaseTrainSpec.DayOfWeek;
+import org.springframework.support.SpringReleaseTrainSpec.WeekOfMonth;
+import org.springframework.util.Assert;
+
+/**
+ * A template for release trains: the months in which trains start, the qualifiers
+ * released one month after another in each train, the week of month and day of week
+ * of every release, and blackout dates (e.g. holidays) on which nothing is released.
+ * <p>
+ * The default template starts a train in January and July, releasing M1, M2, M3, RC1
+ * and GA. Other templates allow e.g. quarterly trains releasing M1, RC1 and GA:
+ * <pre>
+ * ReleaseTrainTemplate.builder()
+ *     .startMonths(Month.JANUARY, Month.APRIL, Month.JULY, Month.OCTOBER)
+ *     .qualifiers("M1", "RC1", "GA")
+ *     .weekOfMonth(WeekOfMonth.THIRD)
+ *     .dayOfWeek(DayOfWeek.TUESDAY)
+ *     .blackoutDates(LocalDate.of(2023, 12, 26))
+ *     .build();
+ * </pre>
+ * A release falling on a blackout date is moved to the next weekday that is not a
+ * blackout date.
+ * <p>
+ * Templates are compiled when built: the train and qualifier released in each month
+ * are looked up in tables indexed by month, release dates are memoized per year and
+ * month, and blackout dates are binary searched, so evaluating a template for many
+ * projects and years is cheap. Templates are immutable and serializable, so they can
+ * be used as task inputs.
+ *
+ * @see SpringReleaseTrainSpec.Builder#template(ReleaseTrainTemplate)
+ */
+public final class ReleaseTrainTemplate implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private static final String GA = "GA";
+
+	private static final int MONTHS = Month.values().length;
+
+	private static final ReleaseDateTable RELEASE_DATES = new ReleaseDateTable(2000, 2099);
+
+	/**
+	 * Trains starting in January and July, releasing M1, M2, M3, RC1 and GA on the
+	 * Monday of the first week of the month.
+	 */
+	public static final ReleaseTrainTemplate DEFAULT = builder().build();
+
+	private final Month[] startMonths;
+
+	private final String[] qualifiers;
+
+	private final WeekOfMonth weekOfMonth;
+
+	private final DayOfWeek dayOfWeek;
+
+	private final long[] blackoutEpochDays;
+
+	/**
+	 * The train (starting with 1) releasing in each month, or 0 for none.
+	 */
+	private final int[] trainByMonth;
+
+	/**
+	 * The index of the qualifier released in each month, or -1 for none.
+	 */
+	private final int[] qualifierByMonth;
+
+	private ReleaseTrainTemplate(Month[] startMonths, String[] qualifiers, WeekOfMonth weekOfMonth,
+			DayOfWeek dayOfWeek, long[] blackoutEpochDays) {
+		this.startMonths = startMonths;
+		this.qualifiers = qualifiers;
+		this.weekOfMonth = weekOfMonth;
+		this.dayOfWeek = dayOfWeek;
+		this.blackoutEpochDays = blackoutEpochDays;
+		this.trainByMonth = new int[MONTHS];
+		this.qualifierByMonth = new int[MONTHS];
+		Arrays.fill(this.qualifierByMonth, -1);
+		for (int train = 0; train < startMonths.length; train++) {
+			for (int i = 0; i < qualifiers.length; i++) {
+				int month = startMonths[train].plus(i).ordinal();
+				this.trainByMonth[month] = train + 1;
+				this.qualifierByMonth[month] = i;
+			}
+		}
+	}
+
+	public List<Month> getStartMonths() {
+		return Collections.unmodifiableList(Arrays.asList(this.startMonths));
+	}
+
+	public List<String> getQualifiers() {
+		return Collections.unmodifiableList(Arrays.asList(this.qualifiers));
+	}
+
+	public WeekOfMonth getWeekOfMonth() {
+		return this.weekOfMonth;
+	}
+
+	public DayOfWeek getDayOfWeek() {
+		return this.dayOfWeek;
+	}
+
+	public List<LocalDate> getBlackoutDates() {
+		List<LocalDate> blackoutDates = new ArrayList<>(this.blackoutEpochDays.length);
+		for (long epochDay : this.blackoutEpochDays) {
+			blackoutDates.add(LocalDate.ofEpochDay(epochDay));
+		}
+		return Collections.unmodifiableList(blackoutDates);
+	}
+
+	/**
+	 * @return the number of trains per year
+	 */
+	public int getTrainCount() {
+		return this.startMonths.length;
+	}
+
+	/**
+	 * @param train The train, starting with 1
+	 * @return the month in which the given train starts
+	 */
+	public Month getStartMonth(int train) {
+		Assert.isTrue(train >= 1 && train <= this.startMonths.length, () -> "Invalid train: " + train);
+		return this.startMonths[train - 1];
+	}
+
+	/**
+	 * @param month The month
+	 * @return the train (starting with 1) starting in the given month, or 0 if no train
+	 * starts in that month
+	 */
+	public int getTrainStartingIn(Month month) {
+		return (this.qualifierByMonth[month.ordinal()] == 0) ? this.trainByMonth[month.ordinal()] : 0;
+	}
+
+	/**
+	 * @param month The month
+	 * @return the train (starting with 1) with a release in the given month, or 0 if no
+	 * train releases in that month
+	 */
+	public int getTrainReleasingIn(Month month) {
+		return this.trainByMonth[month.ordinal()];
+	}
+
+	/**
+	 * @param month The month
+	 * @return the qualifier (e.g. M1 or GA) released in the given month, or null if no
+	 * train releases in that month
+	 */
+	public String getQualifierReleasedIn(Month month) {
+		int qualifier = this.qualifierByMonth[month.ordinal()];
+		return (qualifier >= 0) ? this.qualifiers[qualifier] : null;
+	}
+
+	/**
+	 * @param version The version of a train (e.g. 5.6.0)
+	 * @param qualifier The qualifier (e.g. M1 or GA)
+	 * @return the version of a release of the train (e.g. 5.6.0-M1 or 5.6.0)
+	 */
+	public String getReleaseVersion(String version, String qualifier) {
+		return GA.equals(qualifier) ? version : version + "-" + qualifier;
+	}
+
+	/**
+	 * Calculate the release date of a month, moving it past blackout dates.
+	 *
+	 * @param month The year and month
+	 * @return the release date
+	 */
+	public LocalDate getReleaseDate(YearMonth month) {
+		LocalDate releaseDate = RELEASE_DATES.get(month.getYear(), month.getMonth(), this.dayOfWeek, this.weekOfMonth);
+		if (this.blackoutEpochDays.length == 0) {
+			return releaseDate;
+		}
+		while (isWeekend(releaseDate) || Arrays.binarySearch(this.blackoutEpochDays, releaseDate.toEpochDay()) >= 0) {
+			releaseDate = releaseDate.plusDays(1);
+		}
+		return releaseDate;
+	}
+
+	private static boolean isWeekend(LocalDate date) {
+		return date.getDayOfWeek() == java.time.DayOfWeek.SATURDAY || date.getDayOfWeek() == java.time.DayOfWeek.SUNDAY;
+	}
+
+	/**
+	 * @return a builder initialized with the settings of this template
+	 */
+	public Builder mutate() {
+		Builder builder = new Builder()
+				.startMonths(this.startMonths)
+				.qualifiers(this.qualifiers)
+				.weekOfMonth(this.weekOfMonth)
+				.dayOfWeek(this.dayOfWeek);
+		for (long epochDay : this.blackoutEpochDays) {
+			builder.blackoutDates.add(LocalDate.ofEpochDay(epochDay));
+		}
+		return builder;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		ReleaseTrainTemplate other = (ReleaseTrainTemplate) obj;
+		return Arrays.equals(this.startMonths, other.startMonths)
+				&& Arrays.equals(this.qualifiers, other.qualifiers)
+				&& this.weekOfMonth == other.weekOfMonth
+				&& this.dayOfWeek == other.dayOfWeek
+				&& Arrays.equals(this.blackoutEpochDays, other.blackoutEpochDays);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = Objects.hash(this.weekOfMonth, this.dayOfWeek);
+		result = 31 * result + Arrays.hashCode(this.startMonths);
+		result = 31 * result + Arrays.hashCode(this.qualifiers);
+		result = 31 * result + Arrays.hashCode(this.blackoutEpochDays);
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "ReleaseTrainTemplate{" +
+				"startMonths=" + Arrays.toString(startMonths) +
+				", qualifiers=" + Arrays.toString(qualifiers) +
+				", weekOfMonth=" + weekOfMonth +
+				", dayOfWeek=" + dayOfWeek +
+				", blackoutDates=" + getBlackoutDates() +
+				'}';
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public static class Builder {
+		private Month[] startMonths = { Month.JANUARY, Month.JULY };
+		private String[] qualifiers = { "M1", "M2", "M3", "RC1", GA };
+		private WeekOfMonth weekOfMonth = WeekOfMonth.FIRST;
+		private DayOfWeek dayOfWeek = DayOfWeek.MONDAY;
+		private final TreeSet<LocalDate> blackoutDates = new TreeSet<>();
+
+		private Builder() {
+		}
+
+		public Builder startMonths(int... startMonths) {
+			Month[] months = new Month[startMonths.length];
+			for (int i = 0; i < startMonths.length; i++) {
+				Assert.isTrue(startMonths[i] >= 1 && startMonths[i] <= MONTHS, "Invalid month: " + startMonths[i]);
+				months[i] = Month.of(startMonths[i]);
+			}
+			return startMonths(months);
+		}
+
+		public Builder startMonths(Month... startMonths) {
+			this.startMonths = startMonths.clone();
+			return this;
+		}
+
+		public Builder qualifiers(String... qualifiers) {
+			this.qualifiers = qualifiers.clone();
+			return this;
+		}
+
+		public Builder weekOfMonth(int weekOfMonth) {
+			Assert.isTrue(weekOfMonth >= 1 && weekOfMonth <= WeekOfMonth.values().length, "Invalid weekOfMonth: " + weekOfMonth);
+			return weekOfMonth(WeekOfMonth.values()[weekOfMonth - 1]);
+		}
+
+		public Builder weekOfMonth(WeekOfMonth weekOfMonth) {
+			this.weekOfMonth = weekOfMonth;
+			return this;
+		}
+
+		public Builder dayOfWeek(int dayOfWeek) {
+			Assert.isTrue(dayOfWeek >= 1 && dayOfWeek <= DayOfWeek.values().length, "Invalid dayOfWeek: " + dayOfWeek);
+			return dayOfWeek(DayOfWeek.values()[dayOfWeek - 1]);
+		}
+
+		public Builder dayOfWeek(DayOfWeek dayOfWeek) {
+			this.dayOfWeek = dayOfWeek;
+			return this;
+		}
+
+		public Builder blackoutDates(LocalDate... blackoutDates) {
+			this.blackoutDates.addAll(Arrays.asList(blackoutDates));
+			return this;
+		}
+
+		public ReleaseTrainTemplate build() {
+			Assert.notEmpty(startMonths, "startMonths cannot be empty");
+			Assert.noNullElements(startMonths, "startMonths cannot contain null");
+			Assert.notEmpty(qualifiers, "qualifiers cannot be empty");
+			Assert.noNullElements(qualifiers, "qualifiers cannot contain null");
+			Assert.notNull(weekOfMonth, "weekOfMonth cannot be null");
+			Assert.notNull(dayOfWeek, "dayOfWeek cannot be null");
+			Assert.isTrue(GA.equals(qualifiers[qualifiers.length - 1]), "The last qualifier must be GA");
+			SemanticVersion previous = null;
+			for (String qualifier : qualifiers) {
+				SemanticVersion version = SemanticVersion.tryParse("1.0.0" + (GA.equals(qualifier) ? "" : "-" + qualifier));
+				Assert.isTrue(version != null && !version.isSnapshot(), () -> "Invalid qualifier: " + qualifier);
+				Assert.isTrue(previous == null || previous.compareTo(version) < 0,
+						() -> "Qualifiers must be in ascending order: " + Arrays.toString(qualifiers));
+				previous = version;
+			}
+			Month[] sortedStartMonths = startMonths.clone();
+			Arrays.sort(sortedStartMonths);
+			Assert.isTrue(Arrays.stream(sortedStartMonths).distinct().count() == sortedStartMonths.length,
+					() -> "startMonths cannot contain duplicates: " + Arrays.toString(startMonths));
+			for (int i = 0; i < sortedStartMonths.length; i++) {
+				Month startMonth = sortedStartMonths[i];
+				Month nextStartMonth = sortedStartMonths[(i + 1) % sortedStartMonths.length];
+				int monthsBetween = (nextStartMonth.ordinal() - startMonth.ordinal() + MONTHS - 1) % MONTHS + 1;
+				Assert.isTrue(monthsBetween >= qualifiers.length, () -> "Train starting in " + startMonth
+						+ " overlaps with the train starting in " + nextStartMonth + ", as each train releases "
+						+ qualifiers.length + " versions");
+			}
+			long[] blackoutEpochDays = blackoutDates.stream().mapToLong(LocalDate::toEpochDay).toArray();
+			return new ReleaseTrainTemplate(sortedStartMonths, qualifiers.clone(), weekOfMonth, dayOfWeek,
+					blackoutEpochDays);
+		}
+	}
+}
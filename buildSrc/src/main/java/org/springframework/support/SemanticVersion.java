@@ -0,0 +1,288 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.support;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A version of a Spring project in the format {@code MAJOR.MINOR.PATCH[-QUALIFIER]},
+ * where the qualifier is {@code SNAPSHOT}, a milestone ({@code M1}, {@code M2}, ...) or
+ * a release candidate ({@code RC1}, {@code RC2}, ...).
+ * <p>
+ * Versions of the same release are ordered SNAPSHOT, milestones, release candidates
+ * and GA, and milestones and release candidates by their number (so {@code M10} comes
+ * after {@code M9}). Parsing does not use regular expressions, and parsed versions are
+ * cached, so repeatedly parsing the same milestone titles does not allocate.
+ *
+ * @see #parse(String)
+ */
+public final class SemanticVersion implements Comparable<SemanticVersion> {
+	private static final int MAX_CACHED_VERSIONS = 4096;
+
+	private static final ConcurrentMap<String, SemanticVersion> CACHE = new ConcurrentHashMap<>();
+
+	/**
+	 * Cached for strings that are not versions, as null cannot be cached.
+	 */
+	private static final SemanticVersion INVALID = new SemanticVersion(0, 0, 0, Qualifier.GA, 0, "");
+
+	private final int major;
+
+	private final int minor;
+
+	private final int patch;
+
+	private final Qualifier qualifier;
+
+	private final int qualifierNumber;
+
+	private final String version;
+
+	private SemanticVersion(int major, int minor, int patch, Qualifier qualifier, int qualifierNumber, String version) {
+		this.major = major;
+		this.minor = minor;
+		this.patch = patch;
+		this.qualifier = qualifier;
+		this.qualifierNumber = qualifierNumber;
+		this.version = version;
+	}
+
+	/**
+	 * Parse a version.
+	 *
+	 * @param version The version (e.g. 5.6.0, 5.6.0-M1, 5.6.0-RC1 or 5.6.0-SNAPSHOT)
+	 * @return the parsed version
+	 * @throws IllegalArgumentException if the version does not conform to the expected
+	 * format
+	 */
+	public static SemanticVersion parse(String version) {
+		SemanticVersion semanticVersion = tryParse(version);
+		if (semanticVersion == null) {
+			throw new IllegalArgumentException("Version " + version + " does not conform to the expected format MAJOR.MINOR.PATCH[-M#|-RC#|-SNAPSHOT]");
+		}
+		return semanticVersion;
+	}
+
+	/**
+	 * Parse a version, e.g. a milestone title, which might not be a version.
+	 *
+	 * @param version The version (e.g. 5.6.0, 5.6.0-M1, 5.6.0-RC1 or 5.6.0-SNAPSHOT)
+	 * @return the parsed version or null if the given string is not a version
+	 */
+	public static SemanticVersion tryParse(String version) {
+		if (version == null) {
+			return null;
+		}
+		SemanticVersion semanticVersion = CACHE.get(version);
+		if (semanticVersion == null) {
+			semanticVersion = doParse(version);
+			if (CACHE.size() < MAX_CACHED_VERSIONS) {
+				CACHE.putIfAbsent(version, semanticVersion);
+			}
+		}
+		return (semanticVersion != INVALID) ? semanticVersion : null;
+	}
+
+	private static SemanticVersion doParse(String version) {
+		int length = version.length();
+		int[] segments = new int[3];
+		int index = 0;
+		for (int segment = 0; segment < 3; segment++) {
+			if (segment > 0) {
+				if (index >= length || version.charAt(index) != '.') {
+					return INVALID;
+				}
+				index++;
+			}
+			int start = index;
+			int value = 0;
+			while (index < length && isDigit(version.charAt(index))) {
+				value = value * 10 + (version.charAt(index) - '0');
+				index++;
+			}
+			// At most 9 digits, so that the value cannot overflow
+			if (index == start || index - start > 9) {
+				return INVALID;
+			}
+			segments[segment] = value;
+		}
+		if (index == length) {
+			return new SemanticVersion(segments[0], segments[1], segments[2], Qualifier.GA, 0, version);
+		}
+		if (version.charAt(index) != '-') {
+			return INVALID;
+		}
+		index++;
+		if (version.startsWith("SNAPSHOT", index) && index + 8 == length) {
+			return new SemanticVersion(segments[0], segments[1], segments[2], Qualifier.SNAPSHOT, 0, version);
+		}
+		Qualifier qualifier;
+		if (version.startsWith("RC", index)) {
+			qualifier = Qualifier.RC;
+			index += 2;
+		}
+		else if (version.startsWith("M", index)) {
+			qualifier = Qualifier.M;
+			index += 1;
+		}
+		else {
+			return INVALID;
+		}
+		int start = index;
+		int number = 0;
+		while (index < length && isDigit(version.charAt(index))) {
+			number = number * 10 + (version.charAt(index) - '0');
+			index++;
+		}
+		if (index == start || index - start > 9 || index != length) {
+			return INVALID;
+		}
+		return new SemanticVersion(segments[0], segments[1], segments[2], qualifier, number, version);
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	public int getMajor() {
+		return this.major;
+	}
+
+	public int getMinor() {
+		return this.minor;
+	}
+
+	public int getPatch() {
+		return this.patch;
+	}
+
+	public Qualifier getQualifier() {
+		return this.qualifier;
+	}
+
+	/**
+	 * @return the number of a milestone or release candidate, 0 otherwise
+	 */
+	public int getQualifierNumber() {
+		return this.qualifierNumber;
+	}
+
+	public boolean isSnapshot() {
+		return this.qualifier == Qualifier.SNAPSHOT;
+	}
+
+	/**
+	 * @return true if this is a milestone or release candidate
+	 */
+	public boolean isPreRelease() {
+		return this.qualifier == Qualifier.M || this.qualifier == Qualifier.RC;
+	}
+
+	/**
+	 * @return true if this is the first release of a minor (or major) version
+	 */
+	public boolean isMinorRelease() {
+		return this.patch == 0;
+	}
+
+	/**
+	 * @return true if this and the given version share the same MAJOR.MINOR.PATCH
+	 */
+	public boolean isSameRelease(SemanticVersion version) {
+		return this.major == version.major && this.minor == version.minor && this.patch == version.patch;
+	}
+
+	/**
+	 * @return the version without any qualifier (e.g. 5.6.0 for 5.6.0-M1)
+	 */
+	public SemanticVersion toGa() {
+		if (this.qualifier == Qualifier.GA) {
+			return this;
+		}
+		return parse(this.major + "." + this.minor + "." + this.patch);
+	}
+
+	/**
+	 * @return the next patch version (e.g. 5.6.1 for 5.6.0)
+	 */
+	public SemanticVersion nextPatch() {
+		return parse(this.major + "." + this.minor + "." + (this.patch + 1));
+	}
+
+	/**
+	 * @return the snapshot of this version (e.g. 5.6.0-SNAPSHOT for 5.6.0-M1)
+	 */
+	public SemanticVersion toSnapshot() {
+		if (this.qualifier == Qualifier.SNAPSHOT) {
+			return this;
+		}
+		return parse(this.major + "." + this.minor + "." + this.patch + "-SNAPSHOT");
+	}
+
+	@Override
+	public int compareTo(SemanticVersion other) {
+		int result = Integer.compare(this.major, other.major);
+		if (result == 0) {
+			result = Integer.compare(this.minor, other.minor);
+		}
+		if (result == 0) {
+			result = Integer.compare(this.patch, other.patch);
+		}
+		if (result == 0) {
+			result = this.qualifier.compareTo(other.qualifier);
+		}
+		if (result == 0) {
+			result = Integer.compare(this.qualifierNumber, other.qualifierNumber);
+		}
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		SemanticVersion other = (SemanticVersion) obj;
+		return this.major == other.major && this.minor == other.minor && this.patch == other.patch
+				&& this.qualifier == other.qualifier && this.qualifierNumber == other.qualifierNumber;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.major, this.minor, this.patch, this.qualifier, this.qualifierNumber);
+	}
+
+	/**
+	 * @return the version as it was parsed
+	 */
+	@Override
+	public String toString() {
+		return this.version;
+	}
+
+	/**
+	 * The qualifiers of a version, in the order of the releases of a version.
+	 */
+	public enum Qualifier {
+		SNAPSHOT, M, RC, GA
+	}
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.support;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.support.SpringReleaseTrainSpec.DayOfWeek;
+import org.springframework.support.SpringReleaseTrainSpec.WeekOfMonth;
+import org.springframework.util.Assert;
+
+/**
+ * Release calendar of several projects over a range of years, following the rules of
+ * {@link SpringReleaseTrain}: by default a release train (M1, M2, M3, RC1 and GA)
+ * starting in January and July, or the trains of a {@link ReleaseTrainTemplate}, and
+ * patch releases in every even month.
+ * <p>
+ * All dates are generated in one pass. Projects releasing on the same week of month and
+ * day of week share the dates memoized by the templates. The calendar can be exported
+ * as CSV or as an iCalendar (ICS) file.
+ *
+ * @see #builder()
+ */
+public final class SpringReleaseCalendar {
+	private static final String PATCH_RELEASE = "PATCH";
+
+	private static final DateTimeFormatter ICS_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+	private static final DateTimeFormatter ICS_UTC_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+			.withZone(ZoneOffset.UTC);
+
+	/**
+	 * The maximum length of a content line in octets, excluding the line break.
+	 */
+	private static final int ICS_MAX_LINE_OCTETS = 75;
+
+	private final List<Entry> entries;
+
+	private SpringReleaseCalendar(List<Entry> entries) {
+		this.entries = Collections.unmodifiableList(entries);
+	}
+
+	/**
+	 * @return the releases of all projects ordered by date and project
+	 */
+	public List<Entry> getEntries() {
+		return this.entries;
+	}
+
+	/**
+	 * Write the calendar as CSV with the columns project, date, release and train.
+	 *
+	 * @param writer The writer to write to
+	 */
+	public void writeCsv(Writer writer) {
+		try {
+			writer.write("project,date,release,train\r\n");
+			for (Entry entry : this.entries) {
+				writer.write(csvValue(entry.getProject()));
+				writer.write(',');
+				writer.write(entry.getDate().toString());
+				writer.write(',');
+				writer.write(entry.getRelease());
+				writer.write(',');
+				writer.write((entry.getTrain() != null) ? String.valueOf(entry.getTrain()) : "");
+				writer.write("\r\n");
+			}
+			writer.flush();
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Unable to write release calendar", ex);
+		}
+	}
+
+	/**
+	 * Write the calendar as an iCalendar file with an all-day event per release,
+	 * stamped with the current time.
+	 *
+	 * @param writer The writer to write to
+	 */
+	public void writeIcs(Writer writer) {
+		writeIcs(writer, Instant.now());
+	}
+
+	/**
+	 * Write the calendar as an iCalendar file with an all-day event per release.
+	 *
+	 * @param writer The writer to write to
+	 * @param generatedAt The time the calendar is generated, used as the DTSTAMP of
+	 * all events
+	 */
+	public void writeIcs(Writer writer, Instant generatedAt) {
+		String timestamp = ICS_UTC_DATE_TIME.format(generatedAt);
+		try {
+			writeIcsLine(writer, "BEGIN:VCALENDAR");
+			writeIcsLine(writer, "VERSION:2.0");
+			writeIcsLine(writer, "PRODID:-//Spring//Release Calendar//EN");
+			writeIcsLine(writer, "CALSCALE:GREGORIAN");
+			for (Entry entry : this.entries) {
+				String date = entry.getDate().format(ICS_DATE);
+				String summary = entry.getProject() + " " + (PATCH_RELEASE.equals(entry.getRelease())
+						? "patch release" : entry.getRelease() + " (train " + entry.getTrain() + ")");
+				writeIcsLine(writer, "BEGIN:VEVENT");
+				writeIcsLine(writer, "UID:" + icsText(entry.getProject()).replace(' ', '-') + "-" + date + "-"
+						+ entry.getRelease() + "@release-calendar.spring.io");
+				writeIcsLine(writer, "DTSTAMP:" + timestamp);
+				writeIcsLine(writer, "DTSTART;VALUE=DATE:" + date);
+				writeIcsLine(writer, "DTEND;VALUE=DATE:" + entry.getDate().plusDays(1).format(ICS_DATE));
+				writeIcsLine(writer, "SUMMARY:" + icsText(summary));
+				writeIcsLine(writer, "END:VEVENT");
+			}
+			writeIcsLine(writer, "END:VCALENDAR");
+			writer.flush();
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Unable to write release calendar", ex);
+		}
+	}
+
+	/**
+	 * Write a content line, folding it into lines of at most 75 octets (RFC 5545,
+	 * section 3.1). Continuation lines start with a space and characters are never
+	 * split.
+	 */
+	private static void writeIcsLine(Writer writer, String line) throws IOException {
+		int octets = 0;
+		for (int i = 0; i < line.length(); ) {
+			int codePoint = line.codePointAt(i);
+			String character = new String(Character.toChars(codePoint));
+			int length = character.getBytes(StandardCharsets.UTF_8).length;
+			if (octets + length > ICS_MAX_LINE_OCTETS) {
+				writer.write("\r\n ");
+				octets = 1;
+			}
+			writer.write(character);
+			octets += length;
+			i += Character.charCount(codePoint);
+		}
+		writer.write("\r\n");
+	}
+
+	private static String csvValue(String value) {
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+
+	private static String icsText(String value) {
+		return value.replace("\\", "\\\\").replace(";", "\\;").replace(",", "\\,").replace("\n", "\\n");
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * A release of a project.
+	 */
+	public static final class Entry {
+		private final String project;
+
+		private final LocalDate date;
+
+		private final String release;
+
+		private final Integer train;
+
+		private Entry(String project, LocalDate date, String release, Integer train) {
+			this.project = project;
+			this.date = date;
+			this.release = release;
+			this.train = train;
+		}
+
+		public String getProject() {
+			return project;
+		}
+
+		public LocalDate getDate() {
+			return date;
+		}
+
+		/**
+		 * @return the qualifier (e.g. M1 or GA) for a release train, PATCH for a patch release
+		 */
+		public String getRelease() {
+			return release;
+		}
+
+		/**
+		 * @return the release train starting with 1, or null for a patch release
+		 */
+		public Integer getTrain() {
+			return train;
+		}
+
+		@Override
+		public String toString() {
+			return "Entry{" +
+					"project='" + project + '\'' +
+					", date=" + date +
+					", release='" + release + '\'' +
+					", train=" + train +
+					'}';
+		}
+	}
+
+	public static class Builder {
+		private final Map<String, ReleaseTrainTemplate> projects = new LinkedHashMap<>();
+
+		private Integer fromYear;
+
+		private Integer toYear;
+
+		private Builder() {
+		}
+
+		public Builder years(int fromYear, int toYear) {
+			this.fromYear = fromYear;
+			this.toYear = toYear;
+			return this;
+		}
+
+		public Builder project(String name, int weekOfMonth, int dayOfWeek) {
+			Assert.isTrue(weekOfMonth >= 1 && weekOfMonth <= WeekOfMonth.values().length, "Invalid weekOfMonth: " + weekOfMonth);
+			Assert.isTrue(dayOfWeek >= 1 && dayOfWeek <= DayOfWeek.values().length, "Invalid dayOfWeek: " + dayOfWeek);
+			return project(name, WeekOfMonth.values()[weekOfMonth - 1], DayOfWeek.values()[dayOfWeek - 1]);
+		}
+
+		public Builder project(String name, WeekOfMonth weekOfMonth, DayOfWeek dayOfWeek) {
+			Assert.notNull(weekOfMonth, "weekOfMonth cannot be null");
+			Assert.notNull(dayOfWeek, "dayOfWeek cannot be null");
+			return project(name, ReleaseTrainTemplate.DEFAULT.mutate().weekOfMonth(weekOfMonth).dayOfWeek(dayOfWeek).build());
+		}
+
+		public Builder project(String name, ReleaseTrainTemplate template) {
+			Assert.hasText(name, "name cannot be empty");
+			Assert.notNull(template, "template cannot be null");
+			this.projects.put(name, template);
+			return this;
+		}
+
+		public SpringReleaseCalendar build() {
+			Assert.notNull(fromYear, "years cannot be null");
+			Assert.isTrue(fromYear <= toYear, "fromYear cannot be after toYear");
+			Assert.notEmpty(projects, "projects cannot be empty");
+			List<Entry> entries = new ArrayList<>();
+			for (int year = fromYear; year <= toYear; year++) {
+				for (Month month : Month.values()) {
+					YearMonth yearMonth = YearMonth.of(year, month);
+					for (Map.Entry<String, ReleaseTrainTemplate> project : projects.entrySet()) {
+						addEntries(entries, project.getKey(), project.getValue(), yearMonth);
+					}
+				}
+			}
+			entries.sort(Comparator.comparing(Entry::getDate).thenComparing(Entry::getProject));
+			return new SpringReleaseCalendar(entries);
+		}
+
+		private static void addEntries(List<Entry> entries, String project, ReleaseTrainTemplate template,
+				YearMonth month) {
+			LocalDate date = template.getReleaseDate(month);
+			int train = template.getTrainReleasingIn(month.getMonth());
+			if (train > 0) {
+				entries.add(new Entry(project, date, template.getQualifierReleasedIn(month.getMonth()), train));
+			}
+			// Patch releases are on even months
+			if (month.getMonthValue() % 2 == 0) {
+				entries.add(new Entry(project, date, PATCH_RELEASE, null));
+			}
+		}
+	}
+}
@@ -16,11 +16,11 @@
 
 package org.springframework.support;
 
-import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.Month;
-import java.time.Year;
+import java.time.YearMonth;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -37,41 +37,54 @@ import java.util.Map;
  *
  * The release train generated will contain M1, M2, M3, RC1 and GA versions
  * mapped to their respective dates in the train.
+ * <p>
+ * A {@link ReleaseTrainTemplate} in the specification can replace these rules, e.g.
+ * with quarterly trains, other qualifiers or blackout dates.
  *
  * @author Steve Riesenberg
  */
 public final class SpringReleaseTrain {
 	private final SpringReleaseTrainSpec releaseTrainSpec;
 
+	private final long firstEpochDay;
+
+	/**
+	 * The version due on each day of the train, indexed by the number of days since
+	 * the first release of the train.
+	 */
+	private final String[] versionsByDay;
+
+	private final Map<String, LocalDate> trainDates;
+
 	public SpringReleaseTrain(SpringReleaseTrainSpec releaseTrainSpec) {
 		this.releaseTrainSpec = releaseTrainSpec;
+		ReleaseTrainTemplate template = releaseTrainSpec.getTemplate();
+		List<String> qualifiers = template.getQualifiers();
+		YearMonth firstMonth = releaseTrainSpec.getYear().atMonth(releaseTrainSpec.getStartMonth());
+		String[] versions = new String[qualifiers.size()];
+		long[] epochDays = new long[qualifiers.size()];
+		Map<String, LocalDate> trainDates = new LinkedHashMap<>();
+		for (int i = 0; i < qualifiers.size(); i++) {
+			LocalDate releaseDate = template.getReleaseDate(firstMonth.plusMonths(i));
+			versions[i] = template.getReleaseVersion(releaseTrainSpec.getVersion(), qualifiers.get(i));
+			epochDays[i] = releaseDate.toEpochDay();
+			trainDates.put(versions[i], releaseDate);
+		}
+		this.trainDates = Collections.unmodifiableMap(trainDates);
+		this.firstEpochDay = epochDays[0];
+		this.versionsByDay = new String[(int) (epochDays[epochDays.length - 1] - this.firstEpochDay) + 1];
+		for (int i = 0; i < epochDays.length; i++) {
+			this.versionsByDay[(int) (epochDays[i] - this.firstEpochDay)] = versions[i];
+		}
 	}
 
 	/**
-	 * Calculate release train dates based on the release train specification.
+	 * Get the release train dates based on the release train specification.
 	 *
-	 * @return A mapping of release milestones to scheduled release dates
+	 * @return An unmodifiable mapping of release milestones to scheduled release dates
 	 */
 	public Map<String, LocalDate> getTrainDates() {
-		Map<String, LocalDate> releaseDates = new LinkedHashMap<>();
-		switch (this.releaseTrainSpec.getTrain()) {
-			case ONE:
-				addTrainDate(releaseDates, "M1", Month.JANUARY);
-				addTrainDate(releaseDates, "M2", Month.FEBRUARY);
-				addTrainDate(releaseDates, "M3", Month.MARCH);
-				addTrainDate(releaseDates, "RC1", Month.APRIL);
-				addTrainDate(releaseDates, null, Month.MAY);
-				break;
-			case TWO:
-				addTrainDate(releaseDates, "M1", Month.JULY);
-				addTrainDate(releaseDates, "M2", Month.AUGUST);
-				addTrainDate(releaseDates, "M3", Month.SEPTEMBER);
-				addTrainDate(releaseDates, "RC1", Month.OCTOBER);
-				addTrainDate(releaseDates, null, Month.NOVEMBER);
-				break;
-		}
-
-		return releaseDates;
+		return this.trainDates;
 	}
 
 	/**
@@ -82,7 +95,23 @@ public final class SpringReleaseTrain {
 	 * @return true if the given date matches the due date of the given version, false otherwise
 	 */
 	public boolean isTrainDate(String version, LocalDate expectedDate) {
-		return expectedDate.isEqual(getTrainDates().get(version));
+		String dueVersion = getVersionDueOn(expectedDate);
+		return dueVersion != null && dueVersion.equals(version);
+	}
+
+	/**
+	 * Find the version of the release train that is due on the given date.
+	 *
+	 * @param date The date
+	 * @return the version due on the given date (e.g. 5.6.0-M1), or null if no release
+	 * of the train is due on that date
+	 */
+	public String getVersionDueOn(LocalDate date) {
+		long day = date.toEpochDay() - this.firstEpochDay;
+		if (day < 0 || day >= this.versionsByDay.length) {
+			return null;
+		}
+		return this.versionsByDay[(int) day];
 	}
 
 	/**
@@ -96,39 +125,18 @@ public final class SpringReleaseTrain {
 	 * @return The next release date following the given date
 	 */
 	public LocalDate getNextReleaseDate(LocalDate startDate) {
-		LocalDate trainDate;
-		LocalDate currentDate = startDate;
-		do {
-			trainDate = calculateReleaseDate(
-					Year.of(currentDate.getYear()),
-					currentDate.getMonth(),
-					this.releaseTrainSpec.getDayOfWeek().getDayOfWeek(),
-					this.releaseTrainSpec.getWeekOfMonth().getDayOffset()
-			);
-			currentDate = currentDate.plusMonths(1);
-		} while (!trainDate.isAfter(startDate) || trainDate.getMonthValue() % 2 != 0);
+		// Start with the first even month, and move on to the following even month
+		// if the release of that month is not after the start date
+		LocalDate currentDate = (startDate.getMonthValue() % 2 == 0) ? startDate : startDate.plusMonths(1);
+		LocalDate trainDate = calculateReleaseDate(currentDate);
+		if (!trainDate.isAfter(startDate)) {
+			trainDate = calculateReleaseDate(currentDate.plusMonths(2));
+		}
 
 		return trainDate;
 	}
 
-	private void addTrainDate(Map<String, LocalDate> releaseDates, String milestone, Month month) {
-		LocalDate releaseDate = calculateReleaseDate(
-				this.releaseTrainSpec.getYear(),
-				month,
-				this.releaseTrainSpec.getDayOfWeek().getDayOfWeek(),
-				this.releaseTrainSpec.getWeekOfMonth().getDayOffset()
-		);
-		String suffix = (milestone == null) ? "" : "-" + milestone;
-		releaseDates.put(this.releaseTrainSpec.getVersion() + suffix, releaseDate);
-	}
-
-	private static LocalDate calculateReleaseDate(Year year, Month month, DayOfWeek dayOfWeek, Integer dayOffset) {
-		LocalDate firstDayOfMonth = year.atMonth(month).atDay(1);
-		int dayOfWeekOffset = dayOfWeek.getValue() - firstDayOfMonth.getDayOfWeek().getValue();
-		if (dayOfWeekOffset < 0) {
-			dayOfWeekOffset += 7;
-		}
-
-		return firstDayOfMonth.plusDays(dayOfWeekOffset).plusDays(dayOffset);
+	private LocalDate calculateReleaseDate(LocalDate date) {
+		return this.releaseTrainSpec.getTemplate().getReleaseDate(YearMonth.from(date));
 	}
 }
@@ -29,34 +29,63 @@ import org.springframework.util.Assert;
  * @see SpringReleaseTrain
  */
 public final class SpringReleaseTrainSpec {
-	private final Train train;
+	private final int train;
 	private final String version;
-	private final WeekOfMonth weekOfMonth;
-	private final DayOfWeek dayOfWeek;
+	private final ReleaseTrainTemplate template;
 	private final Year year;
 
 	public SpringReleaseTrainSpec(Train train, String version, WeekOfMonth weekOfMonth, DayOfWeek dayOfWeek, Year year) {
+		this(ReleaseTrainTemplate.builder().weekOfMonth(weekOfMonth).dayOfWeek(dayOfWeek).build(),
+				train.ordinal() + 1, version, year);
+	}
+
+	public SpringReleaseTrainSpec(ReleaseTrainTemplate template, int train, String version, Year year) {
+		this.template = template;
 		this.train = train;
 		this.version = version;
-		this.weekOfMonth = weekOfMonth;
-		this.dayOfWeek = dayOfWeek;
 		this.year = year;
 	}
 
+	/**
+	 * @return the train of the default template
+	 * @throws IllegalStateException if the template has more than two trains and this
+	 * is a later train, see {@link #getTrainNumber()}
+	 */
 	public Train getTrain() {
+		if (train > Train.values().length) {
+			throw new IllegalStateException("Train " + train + " has no Train constant, use getTrainNumber()");
+		}
+		return Train.values()[train - 1];
+	}
+
+	/**
+	 * @return the train, starting with 1 for the first train of the year
+	 */
+	public int getTrainNumber() {
 		return train;
 	}
 
+	/**
+	 * @return the month in which the train starts
+	 */
+	public Month getStartMonth() {
+		return template.getStartMonth(train);
+	}
+
 	public String getVersion() {
 		return version;
 	}
 
+	public ReleaseTrainTemplate getTemplate() {
+		return template;
+	}
+
 	public WeekOfMonth getWeekOfMonth() {
-		return weekOfMonth;
+		return template.getWeekOfMonth();
 	}
 
 	public DayOfWeek getDayOfWeek() {
-		return dayOfWeek;
+		return template.getDayOfWeek();
 	}
 
 	public Year getYear() {
@@ -104,8 +133,10 @@ public final class SpringReleaseTrainSpec {
 	}
 
 	public static class Builder {
-		private Train train;
+		private Integer train;
+		private LocalDate nextTrainStartDate;
 		private String version;
+		private ReleaseTrainTemplate template;
 		private WeekOfMonth weekOfMonth;
 		private DayOfWeek dayOfWeek;
 		private Year year;
@@ -113,18 +144,30 @@ public final class SpringReleaseTrainSpec {
 		private Builder() {
 		}
 
+		/**
+		 * Use a template other than the default trains starting in January and July.
+		 * A week of month or day of week set on this builder overrides the one of the
+		 * template.
+		 *
+		 * @param template The release train template
+		 * @return this builder
+		 */
+		public Builder template(ReleaseTrainTemplate template) {
+			this.template = template;
+			return this;
+		}
+
 		public Builder train(int train) {
-			switch (train) {
-				case 1: this.train = Train.ONE; break;
-				case 2: this.train = Train.TWO; break;
-				default: throw new IllegalArgumentException("Invalid train: " + train);
+			if (train < 1) {
+				throw new IllegalArgumentException("Invalid train: " + train);
 			}
+			this.train = train;
+			this.nextTrainStartDate = null;
 			return this;
 		}
 
 		public Builder train(Train train) {
-			this.train = train;
-			return this;
+			return train(train.ordinal() + 1);
 		}
 
 		public Builder nextTrain() {
@@ -133,23 +176,12 @@ public final class SpringReleaseTrainSpec {
 		}
 
 		public Builder nextTrain(LocalDate startDate) {
-			Train nextTrain = null;
-
-			// Search for next train from a given start date
-			LocalDate currentDate = startDate;
-			while (nextTrain == null) {
-				if (currentDate.getMonth() == Month.JANUARY) {
-					nextTrain = Train.ONE;
-				} else if (currentDate.getMonth() == Month.JULY) {
-					nextTrain = Train.TWO;
-				}
-
-				currentDate = currentDate.plusMonths(1);
-			}
-
-			return train(nextTrain).year(currentDate.getYear());
+			// Resolved when building, as the train depends on the template
+			this.nextTrainStartDate = startDate;
+			this.train = null;
+			this.year = null;
+			return this;
 		}
-
 		public Builder version(String version) {
 			this.version = version;
 			return this;
@@ -194,12 +226,39 @@ public final class SpringReleaseTrainSpec {
 		}
 
 		public SpringReleaseTrainSpec build() {
+			if (template == null) {
+				Assert.notNull(weekOfMonth, "weekOfMonth cannot be null");
+				Assert.notNull(dayOfWeek, "dayOfWeek cannot be null");
+			}
+			ReleaseTrainTemplate template = (this.template != null) ? this.template : ReleaseTrainTemplate.DEFAULT;
+			if (weekOfMonth != null || dayOfWeek != null) {
+				template = template.mutate()
+						.weekOfMonth((weekOfMonth != null) ? weekOfMonth : template.getWeekOfMonth())
+						.dayOfWeek((dayOfWeek != null) ? dayOfWeek : template.getDayOfWeek())
+						.build();
+			}
+			if (nextTrainStartDate != null) {
+				resolveNextTrain(template, nextTrainStartDate);
+			}
 			Assert.notNull(train, "train cannot be null");
+			Assert.isTrue(train <= template.getTrainCount(), "Invalid train: " + train);
 			Assert.notNull(version, "version cannot be null");
-			Assert.notNull(weekOfMonth, "weekOfMonth cannot be null");
-			Assert.notNull(dayOfWeek, "dayOfWeek cannot be null");
 			Assert.notNull(year, "year cannot be null");
-			return new SpringReleaseTrainSpec(train, version, weekOfMonth, dayOfWeek, year);
+			return new SpringReleaseTrainSpec(template, train, version, year);
+		}
+
+		private void resolveNextTrain(ReleaseTrainTemplate template, LocalDate startDate) {
+			// Search for next train from a given start date
+			LocalDate currentDate = startDate;
+			int nextTrain = template.getTrainStartingIn(currentDate.getMonth());
+			while (nextTrain == 0) {
+				currentDate = currentDate.plusMonths(1);
+				nextTrain = template.getTrainStartingIn(currentDate.getMonth());
+			}
+			this.train = nextTrain;
+			if (this.year == null) {
+				this.year = Year.of(currentDate.getYear());
+			}
 		}
 	}
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.api;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConditionalRequestCacheTests {
+	private MockWebServer server;
+
+	private ConditionalRequestCache cache;
+
+	private OkHttpClient client;
+
+	@TempDir
+	Path directory;
+
+	@BeforeEach
+	public void setup() throws IOException {
+		this.server = new MockWebServer();
+		this.server.start();
+		this.cache = new ConditionalRequestCache(this.directory);
+		this.client = new OkHttpClient.Builder().addInterceptor(this.cache).build();
+	}
+
+	@AfterEach
+	public void cleanup() throws IOException {
+		this.server.shutdown();
+	}
+
+	@Test
+	public void interceptWhenNotModifiedThenCachedBodyReplayed() throws Exception {
+		this.server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("[1]"));
+		this.server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+		assertThat(get()).isEqualTo("[1]");
+		try (Response response = execute()) {
+			assertThat(response.code()).isEqualTo(200);
+			assertThat(response.body().string()).isEqualTo("[1]");
+		}
+		this.server.takeRequest();
+		RecordedRequest revalidation = this.server.takeRequest();
+		assertThat(revalidation.getHeader("If-None-Match")).isEqualTo("\"v1\"");
+		assertThat(this.cache.getHitCount()).isEqualTo(1);
+		assertThat(this.cache.getMissCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void interceptWhenModifiedThenNewBodyCached() throws Exception {
+		this.server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("[1]"));
+		this.server.enqueue(new MockResponse().setHeader("ETag", "\"v2\"").setBody("[2]"));
+		this.server.enqueue(new MockResponse().setResponseCode(304));
+		assertThat(get()).isEqualTo("[1]");
+		assertThat(get()).isEqualTo("[2]");
+		assertThat(get()).isEqualTo("[2]");
+		this.server.takeRequest();
+		this.server.takeRequest();
+		assertThat(this.server.takeRequest().getHeader("If-None-Match")).isEqualTo("\"v2\"");
+	}
+
+	@Test
+	public void interceptWhenNotModifiedWithoutLinkThenCachedLinkReplayed() throws Exception {
+		String link = "<" + this.server.url("/items?page=2") + ">; rel=\"next\"";
+		this.server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setHeader("Link", link).setBody("[1]"));
+		this.server.enqueue(new MockResponse().setResponseCode(304));
+		get();
+		try (Response response = execute()) {
+			assertThat(response.header("Link")).isEqualTo(link);
+			assertThat(response.header("ETag")).isEqualTo("\"v1\"");
+		}
+	}
+
+	@Test
+	public void interceptWhenErrorThenNotCached() throws Exception {
+		this.server.enqueue(new MockResponse().setResponseCode(500).setHeader("ETag", "\"v1\"").setBody("error"));
+		this.server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("[1]"));
+		try (Response response = execute()) {
+			assertThat(response.code()).isEqualTo(500);
+		}
+		assertThat(get()).isEqualTo("[1]");
+		this.server.takeRequest();
+		assertThat(this.server.takeRequest().getHeader("If-None-Match")).isNull();
+	}
+
+	private String get() throws IOException {
+		try (Response response = execute()) {
+			return response.body().string();
+		}
+	}
+
+	private Response execute() throws IOException {
+		return this.client.newCall(new Request.Builder().url(this.server.url("/items")).build()).execute();
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class GitHubGraphQlApiTests {
+	private final RepositoryRef repository = new RepositoryRef("spring-projects", "spring-security");
+
+	private MockWebServer server;
+
+	private GitHubGraphQlApi graphQlApi;
+
+	@BeforeEach
+	public void setup() throws IOException {
+		this.server = new MockWebServer();
+		this.server.start();
+		this.graphQlApi = new GitHubGraphQlApi(new OkHttpClient());
+		this.graphQlApi.setBaseUrl(this.server.url("/").toString().replaceAll("/$", ""));
+	}
+
+	@AfterEach
+	public void cleanup() throws IOException {
+		this.server.shutdown();
+	}
+
+	@Test
+	public void getReleasePreflightWhenPagedThenNextPreReleaseFromAllPages() throws Exception {
+		this.server.enqueue(milestones(true, "\"Y3Vyc29yOjE=\"",
+				milestone("5.6.0-RC1", 2, "2022-02-14T00:00:00Z", 5, 0)));
+		this.server.enqueue(milestones(false, "null",
+				milestone("5.6.0-M1", 1, "2022-01-10T00:00:00Z", 3, 4)));
+		ReleasePreflight preflight = this.graphQlApi.getReleasePreflight(this.repository, "5.6.0-SNAPSHOT");
+		assertThat(preflight.getNextVersion()).isEqualTo("5.6.0-M1");
+		assertThat(preflight.getMilestoneNumber()).isEqualTo(1L);
+		assertThat(preflight.getDueOn()).isEqualTo(LocalDate.of(2022, 1, 10));
+		assertThat(preflight.isDueToday()).isTrue();
+		assertThat(preflight.getOpenIssues()).isEqualTo(7);
+		assertThat(preflight.toJson()).isEqualTo("{\"next_version\":\"5.6.0-M1\",\"milestone_number\":1,"
+				+ "\"due_on\":\"2022-01-10\",\"due_today\":true,\"open_issues\":7}");
+		RecordedRequest first = this.server.takeRequest();
+		assertThat(first.getMethod()).isEqualTo("POST");
+		assertThat(first.getPath()).isEqualTo("/graphql");
+		String firstBody = first.getBody().readUtf8();
+		assertThat(firstBody).contains("\"owner\":\"spring-projects\"").contains("\"title\":\"5.6.0\"")
+				.doesNotContain("\"cursor\"");
+		assertThat(this.server.takeRequest().getBody().readUtf8()).contains("\"cursor\":\"Y3Vyc29yOjE\\u003d\"");
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void getReleasePreflightWhenPatchThenOpenIssuesAndPullRequestsSummed() {
+		this.server.enqueue(milestones(false, "null", milestone("5.6.1", 7, "2999-01-01T00:00:00Z", 2, 3),
+				milestone("5.6.2", 8, null, 1, 1)));
+		ReleasePreflight preflight = this.graphQlApi.getReleasePreflight(this.repository, "5.6.1-SNAPSHOT");
+		assertThat(preflight.getNextVersion()).isEqualTo("5.6.1");
+		assertThat(preflight.getMilestoneNumber()).isEqualTo(7L);
+		assertThat(preflight.getDueOn()).isEqualTo(LocalDate.of(2999, 1, 1));
+		assertThat(preflight.isDueToday()).isFalse();
+		assertThat(preflight.getOpenIssues()).isEqualTo(5);
+	}
+
+	@Test
+	public void getReleasePreflightWhenMilestoneNotFoundThenNoMilestone() {
+		this.server.enqueue(milestones(false, "null"));
+		ReleasePreflight preflight = this.graphQlApi.getReleasePreflight(this.repository, "5.6.0-SNAPSHOT");
+		assertThat(preflight.getNextVersion()).isEqualTo("5.6.0");
+		assertThat(preflight.getMilestoneNumber()).isNull();
+		assertThat(preflight.getDueOn()).isNull();
+		assertThat(preflight.isDueToday()).isFalse();
+		assertThat(preflight.getOpenIssues()).isZero();
+		assertThat(preflight.toJson()).isEqualTo("{\"next_version\":\"5.6.0\",\"milestone_number\":null,"
+				+ "\"due_on\":null,\"due_today\":false,\"open_issues\":0}");
+	}
+
+	@Test
+	public void getReleasePreflightWhenErrorsThenException() {
+		this.server.enqueue(new MockResponse().setBody("{\"data\":{\"repository\":null},\"errors\":"
+				+ "[{\"type\":\"NOT_FOUND\",\"message\":\"Could not resolve to a Repository\"}]}"));
+		assertThatExceptionOfType(RuntimeException.class)
+				.isThrownBy(() -> this.graphQlApi.getReleasePreflight(this.repository, "5.6.0-SNAPSHOT"))
+				.withMessageContaining("Got errors")
+				.withMessageContaining("Could not resolve to a Repository");
+	}
+
+	@Test
+	public void getReleasePreflightWhenRepositoryNotFoundThenException() {
+		this.server.enqueue(new MockResponse().setBody("{\"data\":{\"repository\":null}}"));
+		assertThatExceptionOfType(RuntimeException.class)
+				.isThrownBy(() -> this.graphQlApi.getReleasePreflight(this.repository, "5.6.0-SNAPSHOT"))
+				.withMessage("Could not find repository spring-projects/spring-security");
+	}
+
+	@Test
+	public void getReleasePreflightWhenUnsuccessfulThenException() {
+		this.server.enqueue(new MockResponse().setResponseCode(502));
+		assertThatExceptionOfType(RuntimeException.class)
+				.isThrownBy(() -> this.graphQlApi.getReleasePreflight(this.repository, "5.6.0-SNAPSHOT"))
+				.withMessageStartingWith("Could not query milestones");
+	}
+
+	private static MockResponse milestones(boolean hasNextPage, String endCursor, String... nodes) {
+		return new MockResponse().setBody("{\"data\":{\"repository\":{\"milestones\":{\"pageInfo\":{\"hasNextPage\":"
+				+ hasNextPage + ",\"endCursor\":" + endCursor + "},\"nodes\":[" + String.join(",", nodes) + "]}}}}");
+	}
+
+	private static String milestone(String title, long number, String dueOn, int openIssues, int openPullRequests) {
+		return "{\"title\":\"" + title + "\",\"number\":" + number + ",\"dueOn\":"
+				+ ((dueOn != null) ? "\"" + dueOn + "\"" : "null") + ",\"issues\":{\"totalCount\":" + openIssues
+				+ "},\"pullRequests\":{\"totalCount\":" + openPullRequests + "}}";
+	}
+}
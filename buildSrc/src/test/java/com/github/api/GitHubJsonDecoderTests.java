@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.api;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+
+import com.google.gson.stream.JsonReader;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GitHubJsonDecoderTests {
+	private static final MediaType JSON = MediaType.parse("application/json");
+
+	@Test
+	public void hasElementsWhenEmptyArrayThenFalse() throws IOException {
+		assertThat(GitHubJsonDecoder.hasElements(ResponseBody.create(JSON, "[]"))).isFalse();
+	}
+
+	@Test
+	public void hasElementsWhenNotEmptyThenTrue() throws IOException {
+		assertThat(GitHubJsonDecoder.hasElements(ResponseBody.create(JSON, "[{\"number\":1}, {\"number\":2}]")))
+				.isTrue();
+	}
+
+	@Test
+	public void readMilestoneWhenKnownFieldsThenDecoded() throws IOException {
+		Milestone milestone = GitHubJsonDecoder.readMilestone(reader("{\"url\":\"https://api.github.com\","
+				+ "\"title\":\"1.0.0\",\"number\":42,\"creator\":{\"login\":\"octocat\"},"
+				+ "\"due_on\":\"2022-05-16T07:00:00Z\"}"));
+		assertThat(milestone.getTitle()).isEqualTo("1.0.0");
+		assertThat(milestone.getNumber()).isEqualTo(42L);
+		assertThat(milestone.getDueOn()).isEqualTo(LocalDateTime.of(2022, 5, 16, 7, 0));
+	}
+
+	@Test
+	public void readMilestoneWhenNullsThenNull() throws IOException {
+		Milestone milestone = GitHubJsonDecoder.readMilestone(reader("{\"title\":null,\"due_on\":null}"));
+		assertThat(milestone.getTitle()).isNull();
+		assertThat(milestone.getNumber()).isNull();
+		assertThat(milestone.getDueOn()).isNull();
+	}
+
+	@Test
+	public void readIssueWhenPullRequestThenDecoded() throws IOException {
+		Issue issue = GitHubJsonDecoder.readIssue(reader("{\"number\":7,\"title\":\"Fix bug\",\"state\":\"closed\","
+				+ "\"html_url\":\"https://github.com/spring/project/pull/7\",\"body\":\"Some {[text]}\","
+				+ "\"labels\":[{\"id\":1,\"name\":\"type: bug\",\"color\":\"red\"},{\"name\":\"in: core\"}],"
+				+ "\"user\":{\"login\":\"octocat\",\"id\":9,\"html_url\":\"https://github.com/octocat\"},"
+				+ "\"pull_request\":{\"url\":\"https://api.github.com\","
+				+ "\"html_url\":\"https://github.com/spring/project/pull/7\"}}"));
+		assertThat(issue.getNumber()).isEqualTo(7L);
+		assertThat(issue.getTitle()).isEqualTo("Fix bug");
+		assertThat(issue.getState()).isEqualTo("closed");
+		assertThat(issue.getHtmlUrl()).isEqualTo("https://github.com/spring/project/pull/7");
+		assertThat(issue.getLabels()).extracting(Issue.Label::getName).containsExactly("type: bug", "in: core");
+		assertThat(issue.getUser().getLogin()).isEqualTo("octocat");
+		assertThat(issue.getUser().getHtmlUrl()).isEqualTo("https://github.com/octocat");
+		assertThat(issue.getPullRequest().getHtmlUrl()).isEqualTo("https://github.com/spring/project/pull/7");
+	}
+
+	@Test
+	public void readIssueWhenNoPullRequestThenNull() throws IOException {
+		Issue issue = GitHubJsonDecoder.readIssue(
+				reader("{\"number\":8,\"labels\":null,\"user\":null,\"pull_request\":null,\"milestone\":{\"number\":1}}"));
+		assertThat(issue.getNumber()).isEqualTo(8L);
+		assertThat(issue.getLabels()).isNull();
+		assertThat(issue.getUser()).isNull();
+		assertThat(issue.getPullRequest()).isNull();
+	}
+
+	@Test
+	public void readIssueWhenArrayThenEachElementDecoded() throws IOException {
+		JsonReader reader = reader("[{\"number\":1},{\"number\":2}]");
+		reader.beginArray();
+		assertThat(GitHubJsonDecoder.readIssue(reader).getNumber()).isEqualTo(1L);
+		assertThat(GitHubJsonDecoder.readIssue(reader).getNumber()).isEqualTo(2L);
+		assertThat(reader.hasNext()).isFalse();
+	}
+
+	private static JsonReader reader(String json) {
+		return new JsonReader(new StringReader(json));
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.api;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class GitHubMilestoneApiTests {
+	private static final String ALREADY_EXISTS = "{\"message\":\"Validation Failed\",\"errors\":"
+			+ "[{\"resource\":\"Milestone\",\"code\":\"already_exists\",\"field\":\"title\"}]}";
+
+	private static final String MISSING_FIELD = "{\"message\":\"Validation Failed\",\"errors\":"
+			+ "[{\"resource\":\"Milestone\",\"code\":\"missing_field\",\"field\":\"title\"}]}";
+
+	private final RepositoryRef repository = new RepositoryRef("spring-projects", "spring-security");
+
+	private MockWebServer server;
+
+	private GitHubMilestoneApi milestoneApi;
+
+	@BeforeEach
+	public void setup() throws IOException {
+		this.server = new MockWebServer();
+		this.server.start();
+		this.milestoneApi = new GitHubMilestoneApi(new OkHttpClient());
+		this.milestoneApi.setBaseUrl(this.server.url("/").toString().replaceAll("/$", ""));
+	}
+
+	@AfterEach
+	public void cleanup() throws IOException {
+		this.server.shutdown();
+	}
+
+	@Test
+	public void getIssuesFingerprintWhenMilestoneClosedThenFoundInAllMilestones() throws Exception {
+		this.server.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest request) {
+				String path = request.getPath();
+				if (path.equals("/repos/spring-projects/spring-security/milestones?per_page=100&state=all")) {
+					return new MockResponse().setBody("[{\"title\":\"5.6.0\",\"number\":3}]");
+				}
+				if (path.equals("/repos/spring-projects/spring-security/milestones/3")) {
+					return new MockResponse().setHeader("ETag", "W/\"milestone\"").setBody("{}");
+				}
+				if (path.startsWith("/repos/spring-projects/spring-security/issues?per_page=100&milestone=3&state=closed")) {
+					return new MockResponse().setHeader("ETag", "\"issues\"").setBody("[]");
+				}
+				return new MockResponse().setResponseCode(404);
+			}
+		});
+		String fingerprint = this.milestoneApi.getIssuesFingerprint(this.repository, "5.6.0");
+		assertThat(fingerprint).hasSize(64);
+		assertThat(this.server.getRequestCount()).isEqualTo(3);
+	}
+
+	@Test
+	public void findMilestoneNumberByTitleWhenNotOpenThenException() throws Exception {
+		this.server.enqueue(new MockResponse().setBody("[]"));
+		assertThatExceptionOfType(RuntimeException.class)
+				.isThrownBy(() -> this.milestoneApi.findMilestoneNumberByTitle(this.repository, "5.6.0"))
+				.withMessage("Could not find open milestone with title 5.6.0 for repository " + this.repository);
+		assertThat(this.server.takeRequest().getPath()).isEqualTo("/repos/spring-projects/spring-security/milestones?per_page=100");
+	}
+
+	@Test
+	public void createMilestonesWhenCreatedThenPostedToRepository() throws Exception {
+		this.server.setDispatcher(respondByTitle(Map.of("5.7.0", new MockResponse().setResponseCode(201))));
+		this.milestoneApi.createMilestones(this.repository, Arrays.asList(milestone("5.7.0")));
+		RecordedRequest request = this.server.takeRequest();
+		assertThat(request.getMethod()).isEqualTo("POST");
+		assertThat(request.getPath()).isEqualTo("/repos/spring-projects/spring-security/milestones");
+		assertThat(request.getBody().readUtf8()).contains("\"title\":\"5.7.0\"");
+	}
+
+	@Test
+	public void createMilestonesWhenAlreadyExistsThenAccepted() {
+		this.server.setDispatcher(respondByTitle(Map.of(
+				"5.7.0", new MockResponse().setResponseCode(201),
+				"5.6.4", new MockResponse().setResponseCode(422).setBody(ALREADY_EXISTS))));
+		this.milestoneApi.createMilestones(this.repository, Arrays.asList(milestone("5.7.0"), milestone("5.6.4")));
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void createMilestonesWhenOtherValidationFailureThenException() {
+		this.server.setDispatcher(respondByTitle(Map.of(
+				"5.7.0", new MockResponse().setResponseCode(201),
+				"5.6.4", new MockResponse().setResponseCode(422).setBody(MISSING_FIELD))));
+		assertThatExceptionOfType(RuntimeException.class)
+				.isThrownBy(() -> this.milestoneApi.createMilestones(this.repository,
+						Arrays.asList(milestone("5.7.0"), milestone("5.6.4"))))
+				.withMessageContaining("Could not create milestone 5.6.4");
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void createMilestonesWhenSeveralFailThenFailuresSuppressed() {
+		this.server.setDispatcher(respondByTitle(Map.of(
+				"5.7.0", new MockResponse().setResponseCode(500),
+				"5.6.4", new MockResponse().setResponseCode(500))));
+		assertThatExceptionOfType(RuntimeException.class)
+				.isThrownBy(() -> this.milestoneApi.createMilestones(this.repository,
+						Arrays.asList(milestone("5.7.0"), milestone("5.6.4"))))
+				.satisfies((ex) -> assertThat(ex.getSuppressed()).hasSize(1));
+	}
+
+	private static Milestone milestone(String title) {
+		Milestone milestone = new Milestone();
+		milestone.setTitle(title);
+		milestone.setDueOn(LocalDateTime.of(2022, 5, 16, 0, 0));
+		return milestone;
+	}
+
+	private static Dispatcher respondByTitle(Map<String, MockResponse> responses) {
+		return new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest request) {
+				String body = request.getBody().clone().readUtf8();
+				return responses.entrySet().stream()
+						.filter((entry) -> body.contains("\"title\":\"" + entry.getKey() + "\""))
+						.map(Map.Entry::getValue)
+						.findFirst()
+						.orElse(new MockResponse().setResponseCode(404));
+			}
+		};
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.api;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class GitHubPaginatorTests {
+	private MockWebServer server;
+
+	private OkHttpClient client;
+
+	private GitHubPaginator<Milestone> paginator;
+
+	@BeforeEach
+	public void setup() throws IOException {
+		this.server = new MockWebServer();
+		this.server.start();
+		this.client = new OkHttpClient();
+		this.paginator = new GitHubPaginator<>(this.client, GitHubJsonDecoder::readMilestone);
+	}
+
+	@AfterEach
+	public void cleanup() throws IOException {
+		this.server.shutdown();
+	}
+
+	@Test
+	public void parseLinksWhenNextAndLastThenLinksByRelation() {
+		Map<String, String> links = GitHubPaginator.parseLinks(
+				"<https://api.github.com/items?page=2>; rel=\"next\", <https://api.github.com/items?page=5>; rel=\"last\"");
+		assertThat(links).containsEntry("next", "https://api.github.com/items?page=2")
+				.containsEntry("last", "https://api.github.com/items?page=5")
+				.hasSize(2);
+		assertThat(GitHubPaginator.parseLinks(null)).isEmpty();
+	}
+
+	@Test
+	public void streamWhenOnlyNextLinksThenPagesFollowedInOrder() {
+		this.server.enqueue(page("[{\"title\":\"1\"}]", "<" + this.server.url("/items?cursor=b") + ">; rel=\"next\""));
+		this.server.enqueue(page("[{\"title\":\"2\"}]", "<" + this.server.url("/items?cursor=c") + ">; rel=\"next\""));
+		this.server.enqueue(page("[{\"title\":\"3\"}]", null));
+		assertThat(titles(this.paginator.stream(this.server.url("/items").toString()))).containsExactly("1", "2", "3");
+		assertThat(this.server.getRequestCount()).isEqualTo(3);
+	}
+
+	@Test
+	public void streamWhenLastLinkThenRemainingPagesRequestedAndYieldedInOrder() throws Exception {
+		this.server.setDispatcher(pages(4, null));
+		assertThat(titles(this.paginator.stream(this.server.url("/items?page=1").toString())))
+				.containsExactly("1", "2", "3", "4");
+		assertThat(this.server.getRequestCount()).isEqualTo(4);
+	}
+
+	@Test
+	public void collectAsyncWhenLastLinkThenAllPagesInOrder() {
+		this.server.setDispatcher(pages(4, null));
+		List<Milestone> milestones = this.paginator.collectAsync(this.server.url("/items?page=1").toString()).join();
+		assertThat(milestones).extracting(Milestone::getTitle).containsExactly("1", "2", "3", "4");
+	}
+
+	@Test
+	public void streamWhenClosedEarlyThenPendingPagesCancelled() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		this.server.setDispatcher(pages(4, release));
+		try (Stream<Milestone> milestones = this.paginator.stream(this.server.url("/items?page=1").toString())) {
+			assertThat(milestones.limit(2).map(Milestone::getTitle)).containsExactly("1", "2");
+		}
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (this.client.dispatcher().runningCallsCount() > 0 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(this.client.dispatcher().runningCallsCount()).isZero();
+		release.countDown();
+	}
+
+	@Test
+	public void streamWhenPageFailsThenException() {
+		this.server.enqueue(page("[{\"title\":\"1\"}]", "<" + this.server.url("/items?cursor=b") + ">; rel=\"next\""));
+		this.server.enqueue(new MockResponse().setResponseCode(500));
+		assertThatExceptionOfType(RuntimeException.class)
+				.isThrownBy(() -> titles(this.paginator.stream(this.server.url("/items").toString())))
+				.withMessageContaining("Could not retrieve");
+	}
+
+	private static List<String> titles(Stream<Milestone> milestones) {
+		try (Stream<Milestone> stream = milestones) {
+			return stream.map(Milestone::getTitle).collect(Collectors.toList());
+		}
+	}
+
+	private static MockResponse page(String body, String link) {
+		MockResponse response = new MockResponse().setBody(body);
+		return (link != null) ? response.setHeader("Link", link) : response;
+	}
+
+	/**
+	 * Serve numbered pages with next and last links. When a latch is given, the pages
+	 * after the second one are held back until it is released.
+	 */
+	private Dispatcher pages(int lastPage, CountDownLatch release) {
+		return new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+				int page = Integer.parseInt(request.getRequestUrl().queryParameter("page"));
+				String link = null;
+				if (page < lastPage) {
+					link = "<" + server.url("/items?page=" + (page + 1)) + ">; rel=\"next\", <"
+							+ server.url("/items?page=" + lastPage) + ">; rel=\"last\"";
+				}
+				if (release != null && page > 2) {
+					release.await(5, TimeUnit.SECONDS);
+				}
+				return page("[{\"title\":\"" + page + "\"}]", link);
+			}
+		};
+	}
+}
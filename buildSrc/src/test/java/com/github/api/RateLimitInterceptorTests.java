@@ -0,0 +1,126 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.api.RateLimitInterceptor.TokenBucket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimitInterceptorTests {
+	private MockWebServer server;
+
+	private RateLimitInterceptor rateLimit;
+
+	private OkHttpClient client;
+
+	@BeforeEach
+	public void setup() throws IOException {
+		this.server = new MockWebServer();
+		this.server.start();
+		this.rateLimit = new RateLimitInterceptor();
+		this.client = new OkHttpClient.Builder().addInterceptor(this.rateLimit).build();
+	}
+
+	@AfterEach
+	public void cleanup() throws IOException {
+		this.server.shutdown();
+	}
+
+	@Test
+	public void interceptWhenGetRateLimitedWithRetryAfterThenRetried() throws IOException {
+		this.server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "0"));
+		this.server.enqueue(new MockResponse().setBody("[]"));
+		Request request = new Request.Builder().get().url(this.server.url("/milestones")).build();
+		try (Response response = this.client.newCall(request).execute()) {
+			assertThat(response.code()).isEqualTo(200);
+			assertThat(response.body().string()).isEqualTo("[]");
+		}
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+		assertThat(this.rateLimit.getRetryCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void interceptWhenPostRateLimitedWithRetryAfterThenNotRetried() throws IOException {
+		this.server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "0"));
+		this.server.enqueue(new MockResponse().setResponseCode(201));
+		RequestBody body = RequestBody.create(MediaType.parse("application/json"), "{\"title\":\"1.0.0\"}");
+		Request request = new Request.Builder().post(body).url(this.server.url("/milestones")).build();
+		try (Response response = this.client.newCall(request).execute()) {
+			assertThat(response.code()).isEqualTo(429);
+		}
+		assertThat(this.server.getRequestCount()).isEqualTo(1);
+		assertThat(this.rateLimit.getRetryCount()).isZero();
+	}
+
+	@Test
+	public void acquireWhenBudgetUnknownThenNoDelay() {
+		TokenBucket bucket = new TokenBucket();
+		for (int i = 0; i < 100; i++) {
+			assertThat(bucket.acquire(0)).isZero();
+		}
+	}
+
+	@Test
+	public void acquireWhenBudgetAboveLowWatermarkThenNoDelay() {
+		TokenBucket bucket = new TokenBucket();
+		bucket.update(TokenBucket.LOW_WATERMARK + 1, 60_000, 0);
+		for (int i = 0; i < 100; i++) {
+			assertThat(bucket.acquire(0)).isZero();
+		}
+	}
+
+	@Test
+	public void acquireWhenBudgetLowThenRequestsSpreadUntilReset() {
+		TokenBucket bucket = new TokenBucket();
+		// 10 requests left for the next 10 seconds: one request per second
+		bucket.update(10, 10_000, 0);
+		for (int i = 0; i < TokenBucket.CAPACITY; i++) {
+			assertThat(bucket.acquire(0)).isZero();
+		}
+		assertThat(bucket.acquire(0)).isEqualTo(1_000);
+		assertThat(bucket.acquire(0)).isEqualTo(2_000);
+	}
+
+	@Test
+	public void acquireWhenBudgetExhaustedThenWaitUntilReset() {
+		TokenBucket bucket = new TokenBucket();
+		bucket.update(0, 30_000, 0);
+		assertThat(bucket.acquire(10_000)).isEqualTo(20_000);
+		assertThat(bucket.acquire(30_000)).isZero();
+	}
+
+	@Test
+	public void updateWhenResetPassedThenNoDelay() {
+		TokenBucket bucket = new TokenBucket();
+		bucket.update(0, 30_000, 0);
+		bucket.update(5_000, 3_630_000, 30_000);
+		assertThat(bucket.acquire(30_000)).isZero();
+	}
+}
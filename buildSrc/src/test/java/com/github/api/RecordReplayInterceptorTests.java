@@ -0,0 +1,143 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.api;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class RecordReplayInterceptorTests {
+	private static final String MILESTONES_URL = "https://api.github.com/repos/spring-projects/spring-security/milestones?per_page=100";
+
+	@TempDir
+	Path fixtures;
+
+	@Test
+	public void replayWhenRecordedThenSameResponseWithoutNetwork() throws IOException {
+		OkHttpClient recording = client(RecordReplayInterceptor.Mode.RECORD, respondWith("[{\"title\":\"5.6.0-M1\"}]"));
+		try (Response response = get(recording)) {
+			assertThat(response.body().string()).isEqualTo("[{\"title\":\"5.6.0-M1\"}]");
+		}
+		assertThat(this.fixtures.toFile().list()).hasSize(1);
+
+		OkHttpClient replaying = client(RecordReplayInterceptor.Mode.REPLAY, failNetwork());
+		try (Response response = get(replaying)) {
+			assertThat(response.code()).isEqualTo(200);
+			assertThat(response.header("ETag")).isEqualTo("\"etag\"");
+			assertThat(response.body().string()).isEqualTo("[{\"title\":\"5.6.0-M1\"}]");
+		}
+	}
+
+	@Test
+	public void replayWhenRepeatedThenResponsesInRecordedOrder() throws IOException {
+		AtomicInteger count = new AtomicInteger();
+		OkHttpClient recording = client(RecordReplayInterceptor.Mode.RECORD,
+				(chain) -> respond(chain.request(), "[" + count.incrementAndGet() + "]"));
+		get(recording).close();
+		get(recording).close();
+
+		OkHttpClient replaying = client(RecordReplayInterceptor.Mode.REPLAY, failNetwork());
+		try (Response first = get(replaying); Response second = get(replaying); Response third = get(replaying)) {
+			assertThat(first.body().string()).isEqualTo("[1]");
+			assertThat(second.body().string()).isEqualTo("[2]");
+			assertThat(third.body().string()).isEqualTo("[2]");
+		}
+	}
+
+	@Test
+	public void replayWhenRetriedWhileRecordingThenOnlyFinalResponse() throws IOException {
+		AtomicInteger count = new AtomicInteger();
+		Interceptor network = (chain) -> {
+			if (count.incrementAndGet() == 1) {
+				return respond(chain.request(), "").newBuilder().code(503).message("Service Unavailable")
+						.header("Retry-After", "0").build();
+			}
+			return respond(chain.request(), "[]");
+		};
+		OkHttpClient recording = new OkHttpClient.Builder()
+				.addInterceptor(new AuthorizationInterceptor("token"))
+				.addInterceptor(new RecordReplayInterceptor(RecordReplayInterceptor.Mode.RECORD, this.fixtures))
+				.addInterceptor(new RateLimitInterceptor())
+				.addInterceptor(network)
+				.build();
+		try (Response response = get(recording)) {
+			assertThat(response.code()).isEqualTo(200);
+		}
+		assertThat(count).hasValue(2);
+
+		OkHttpClient replaying = client(RecordReplayInterceptor.Mode.REPLAY, failNetwork());
+		try (Response first = get(replaying); Response second = get(replaying)) {
+			assertThat(first.code()).isEqualTo(200);
+			assertThat(first.body().string()).isEqualTo("[]");
+			assertThat(second.code()).isEqualTo(200);
+			assertThat(second.body().string()).isEqualTo("[]");
+		}
+	}
+
+	@Test
+	public void replayWhenNotRecordedThenException() {
+		OkHttpClient replaying = client(RecordReplayInterceptor.Mode.REPLAY, failNetwork());
+		assertThatExceptionOfType(IOException.class).isThrownBy(() -> get(replaying))
+				.withMessageContaining("No recorded response for GET " + MILESTONES_URL);
+	}
+
+	private OkHttpClient client(RecordReplayInterceptor.Mode mode, Interceptor network) {
+		return new OkHttpClient.Builder()
+				.addInterceptor(new AuthorizationInterceptor("token"))
+				.addInterceptor(new RecordReplayInterceptor(mode, this.fixtures))
+				.addInterceptor(network)
+				.build();
+	}
+
+	private static Response get(OkHttpClient client) throws IOException {
+		return client.newCall(new Request.Builder().url(MILESTONES_URL).build()).execute();
+	}
+
+	private static Interceptor respondWith(String body) {
+		return (chain) -> respond(chain.request(), body);
+	}
+
+	private static Response respond(Request request, String body) {
+		return new Response.Builder()
+				.request(request)
+				.protocol(Protocol.HTTP_1_1)
+				.code(200)
+				.message("OK")
+				.header("ETag", "\"etag\"")
+				.body(ResponseBody.create(MediaType.parse("application/json; charset=utf-8"), body))
+				.build();
+	}
+
+	private static Interceptor failNetwork() {
+		return (chain) -> {
+			throw new AssertionError("Unexpected network request to " + chain.request().url());
+		};
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.gradle.changelog;
+
+import java.nio.file.Paths;
+
+import com.github.api.RepositoryRef;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.gradle.changelog.ChangelogConfiguration.Section;
+import org.springframework.gradle.changelog.ChangelogConfiguration.Sort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class ChangelogConfigurationTests {
+	@Test
+	public void loadWhenReleaseNotesSectionsThenParsed() {
+		ChangelogConfiguration configuration = ChangelogConfiguration.load(Paths.get("../scripts/release/release-notes-sections.yml"));
+		assertThat(configuration.getRepository()).isEqualTo(new RepositoryRef("sjohnr", "gradle-test"));
+		assertThat(configuration.getSections()).extracting(Section::getTitle, Section::getSort).containsExactly(
+				tuple(":rewind: Breaking Changes", Sort.TITLE),
+				tuple(":star: New Features", Sort.TITLE),
+				tuple(":beetle: Bug Fixes", Sort.TITLE),
+				tuple(":hammer: Dependency Upgrades", Sort.TITLE));
+		assertThat(configuration.getSections().get(0).getLabels()).containsExactly("type: breaks-passivity");
+		assertThat(configuration.getExcludedLabels()).containsExactly("status: duplicate");
+		assertThat(configuration.getExcludedContributors()).isEmpty();
+	}
+
+	@Test
+	public void parseWhenBlockSequencesAndCommentsThenParsed() {
+		String yaml = "# release notes\n"
+				+ "changelog:\n"
+				+ "  sections:\n"
+				+ "  - title: 'Fixes # and more'  # trailing comment\n"
+				+ "    labels:\n"
+				+ "      - bug\n"
+				+ "      - \"type: regression\"\n"
+				+ "  contributors:\n"
+				+ "    exclude:\n"
+				+ "      names: [rwinch, 'jzheaux']\n";
+		ChangelogConfiguration configuration = ChangelogConfiguration.parse(yaml);
+		assertThat(configuration.getRepository()).isNull();
+		assertThat(configuration.getSections()).extracting(Section::getTitle).containsExactly("Fixes # and more");
+		assertThat(configuration.getSections().get(0).getLabels()).containsExactly("bug", "type: regression");
+		assertThat(configuration.getSections().get(0).getSort()).isEqualTo(Sort.NONE);
+		assertThat(configuration.getExcludedContributors()).containsExactly("rwinch", "jzheaux");
+	}
+
+	@Test
+	public void parseWhenNoSectionsThenDefaultSections() {
+		ChangelogConfiguration configuration = ChangelogConfiguration.parse("changelog:\n  repository: spring-projects/spring-security\n");
+		assertThat(configuration.getSections()).extracting(Section::getTitle).containsExactly(":star: New Features",
+				":beetle: Bug Fixes", ":notebook_with_decorative_cover: Documentation", ":hammer: Dependency Upgrades");
+	}
+
+	@Test
+	public void parseWhenInvalidIndentationThenException() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> ChangelogConfiguration.parse("changelog:\n  repository: a/b\n    sort: title\n"))
+				.withMessageContaining("line 3");
+	}
+
+	@Test
+	public void parseWhenUnknownSortThenException() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> ChangelogConfiguration.parse("changelog:\n  sections:\n    - title: Fixes\n      sort: date\n"))
+				.withMessageContaining("Unsupported sort 'date'");
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.gradle.changelog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.github.api.GitHubMilestoneApi;
+import com.github.api.Issue;
+import com.github.api.RepositoryRef;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+public class ChangelogGeneratorTests {
+	private static final String CONFIGURATION = "changelog:\n"
+			+ "  repository: spring-projects/spring-security\n"
+			+ "  sections:\n"
+			+ "    - title: \":star: New Features\"\n"
+			+ "      labels: [\"type: enhancement\"]\n"
+			+ "      sort: \"title\"\n"
+			+ "    - title: \":beetle: Bug Fixes\"\n"
+			+ "      labels: [\"type: bug\", \"type: regression\"]\n"
+			+ "  issues:\n"
+			+ "    exclude:\n"
+			+ "      labels: [\"status: duplicate\"]\n"
+			+ "  contributors:\n"
+			+ "    exclude:\n"
+			+ "      names: [\"rwinch\"]\n";
+
+	private final ChangelogGenerator generator = new ChangelogGenerator(ChangelogConfiguration.parse(CONFIGURATION));
+
+	@Test
+	public void generateWhenIssuesThenSectionsInConfiguredOrder() {
+		List<Issue> issues = Arrays.asList(
+				issue(3, "Fix NPE", "type: bug"),
+				issue(2, "Support OAuth 2.1", "type: enhancement"),
+				issue(1, "Add DSL", "type: enhancement"),
+				issue(4, "Fix NPE again", "type: bug", "status: duplicate"),
+				issue(5, "Polish", "type: task"));
+		assertThat(this.generator.generate(issues)).isEqualTo("## :star: New Features\n\n"
+				+ "- Add DSL [#1](https://github.com/spring-projects/spring-security/issues/1)\n"
+				+ "- Support OAuth 2.1 [#2](https://github.com/spring-projects/spring-security/issues/2)\n"
+				+ "\n"
+				+ "## :beetle: Bug Fixes\n\n"
+				+ "- Fix NPE [#3](https://github.com/spring-projects/spring-security/issues/3)\n");
+	}
+
+	@Test
+	public void generateWhenPullRequestsThenContributorsExceptExcluded() {
+		List<Issue> issues = Arrays.asList(
+				pullRequest(issue(1, "Fix typo", "type: bug"), "marcusdacoregio"),
+				pullRequest(issue(2, "Fix logging", "type: bug"), "rwinch"),
+				pullRequest(issue(3, "Add example", "type: enhancement"), "Eleftheria"),
+				pullRequest(issue(4, "Fix docs", "type: bug"), "marcusdacoregio"));
+		assertThat(this.generator.generate(issues)).endsWith("## :heart: Contributors\n\n"
+				+ "We'd like to thank all the contributors who worked on this release!\n\n"
+				+ "- [@Eleftheria](https://github.com/Eleftheria)\n"
+				+ "- [@marcusdacoregio](https://github.com/marcusdacoregio)\n");
+	}
+
+	@Test
+	public void generateWhenTitleMentionsUserThenMentionQuoted() {
+		List<Issue> issues = Arrays.asList(issue(1, "Support @EnableWebSecurity for @rwinch", "type: enhancement"));
+		assertThat(this.generator.generate(issues))
+				.contains("- Support `@EnableWebSecurity` for `@rwinch` [#1]");
+	}
+
+	@Test
+	public void generateWhenLabelsOfSeveralSectionsThenFirstConfiguredSection() {
+		List<Issue> issues = Arrays.asList(issue(1, "Fix DSL", "type: bug", "type: enhancement"));
+		assertThat(this.generator.generate(issues)).startsWith("## :star: New Features\n\n- Fix DSL [#1]");
+	}
+
+	@Test
+	public void generateWhenSeveralMilestonesThenReleaseNotesPerMilestone() {
+		OkHttpClient client = new OkHttpClient.Builder().addInterceptor((chain) -> {
+			HttpUrl url = chain.request().url();
+			String body;
+			if (url.encodedPath().endsWith("/milestones")) {
+				body = "[{\"number\":1,\"title\":\"5.6.3\"},{\"number\":2,\"title\":\"5.7.1\"}]";
+			}
+			else {
+				String number = url.queryParameter("milestone");
+				body = "[{\"number\":1" + number + ",\"title\":\"Fix " + number + "\",\"html_url\":\"url\","
+						+ "\"labels\":[{\"name\":\"type: bug\"}]}]";
+			}
+			return new Response.Builder()
+					.request(chain.request())
+					.protocol(Protocol.HTTP_1_1)
+					.code(200)
+					.message("OK")
+					.body(ResponseBody.create(MediaType.parse("application/json"), body))
+					.build();
+		}).build();
+		GitHubMilestoneApi gitHubMilestoneApi = new GitHubMilestoneApi(client);
+		RepositoryRef repository = new RepositoryRef("spring-projects", "spring-security");
+		Map<String, String> releaseNotes = this.generator.generate(gitHubMilestoneApi, repository,
+				Arrays.asList("5.7.1", "5.6.3"));
+		assertThat(releaseNotes).containsExactly(
+				entry("5.7.1", "## :beetle: Bug Fixes\n\n- Fix 2 [#12](url)\n"),
+				entry("5.6.3", "## :beetle: Bug Fixes\n\n- Fix 1 [#11](url)\n"));
+	}
+
+	@Test
+	public void generateWhenNoMatchingIssuesThenEmpty() {
+		assertThat(this.generator.generate(Arrays.asList(issue(1, "Polish", "type: task")))).isEmpty();
+	}
+
+	private static Issue issue(long number, String title, String... labels) {
+		Issue issue = new Issue();
+		issue.setNumber(number);
+		issue.setTitle(title);
+		issue.setHtmlUrl("https://github.com/spring-projects/spring-security/issues/" + number);
+		List<Issue.Label> issueLabels = new ArrayList<>();
+		for (String name : labels) {
+			Issue.Label label = new Issue.Label();
+			label.setName(name);
+			issueLabels.add(label);
+		}
+		issue.setLabels(issueLabels);
+		return issue;
+	}
+
+	private static Issue pullRequest(Issue issue, String login) {
+		Issue.User user = new Issue.User();
+		user.setLogin(login);
+		user.setHtmlUrl("https://github.com/" + login);
+		issue.setUser(user);
+		issue.setPullRequest(new Issue.PullRequest());
+		return issue;
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.gradle.classpath;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BytecodeScannerTests {
+	@TempDir
+	Path directory;
+
+	@Test
+	public void scanWhenShadedClassesThenFoundByEntryName() throws IOException {
+		Path jar = jar("shaded.jar", false, "shaded/org/apache/commons/logging/Log.class", new byte[] { 1, 2, 3 },
+				"org/example/Application.class", classBytes());
+		BytecodeScanner scanner = new BytecodeScanner(this.directory.resolve("cache"),
+				BytecodeScanner.DEFAULT_PROHIBITED_PACKAGES);
+		assertThat(scanner.scan(jar)).containsExactly("shaded/org/apache/commons/logging/Log.class");
+	}
+
+	@Test
+	public void scanWhenRenamedClassThenFoundByConstantPool() throws IOException {
+		Path deflated = jar("deflated.jar", false, "renamed/Application.class", classBytes());
+		Path stored = jar("stored.jar", true, "renamed/Application.class", classBytes());
+		BytecodeScanner scanner = new BytecodeScanner(this.directory.resolve("cache"),
+				Collections.singletonList(getClass().getPackageName()));
+		Map<Path, List<String>> findings = scanner.scan(Arrays.asList(deflated, stored));
+		assertThat(findings).containsOnlyKeys(deflated, stored);
+		assertThat(findings.get(stored)).containsExactly("renamed/Application.class");
+	}
+
+	@Test
+	public void scanWhenSameContentThenCachedResult() throws IOException {
+		Path jar = jar("first.jar", false, "org/apache/commons/logging/Log.class", new byte[] { 1 });
+		Path cache = this.directory.resolve("cache");
+		BytecodeScanner scanner = new BytecodeScanner(cache, BytecodeScanner.DEFAULT_PROHIBITED_PACKAGES);
+		assertThat(scanner.scan(jar)).hasSize(1);
+		try (Stream<Path> cached = Files.list(cache)) {
+			Path cacheFile = cached.findFirst().get();
+			Files.write(cacheFile, Collections.singletonList("cached/Log.class"));
+		}
+		Path copy = Files.copy(jar, this.directory.resolve("copy.jar"));
+		assertThat(scanner.scan(copy)).containsExactly("cached/Log.class");
+	}
+
+	@Test
+	public void getClassNameWhenClassFileThenThisClass() throws IOException {
+		assertThat(BytecodeScanner.getClassName(ByteBuffer.wrap(classBytes())))
+				.isEqualTo("org/springframework/gradle/classpath/BytecodeScannerTests");
+		assertThat(BytecodeScanner.getClassName(ByteBuffer.wrap(new byte[] { (byte) 0xCA, (byte) 0xFE }))).isNull();
+	}
+
+	private byte[] classBytes() throws IOException {
+		try (InputStream content = getClass().getResourceAsStream(getClass().getSimpleName() + ".class")) {
+			return content.readAllBytes();
+		}
+	}
+
+	private Path jar(String name, boolean stored, Object... entries) throws IOException {
+		Path jar = this.directory.resolve(name);
+		try (OutputStream output = Files.newOutputStream(jar); ZipOutputStream zip = new ZipOutputStream(output)) {
+			for (int i = 0; i < entries.length; i += 2) {
+				byte[] content = (byte[]) entries[i + 1];
+				ZipEntry entry = new ZipEntry((String) entries[i]);
+				if (stored) {
+					CRC32 crc = new CRC32();
+					crc.update(content);
+					entry.setMethod(ZipEntry.STORED);
+					entry.setSize(content.length);
+					entry.setCrc(crc.getValue());
+				}
+				zip.putNextEntry(entry);
+				zip.write(content);
+				zip.closeEntry();
+			}
+		}
+		return jar;
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.gradle.classpath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CheckClasspathsForProhibitedDependenciesTests {
+	private static final String COMMONS_LOGGING = "commons-logging:commons-logging:1.2";
+
+	private static final String SPRING_CORE = "org.springframework:spring-core:5.3.17";
+
+	private static final String SLF4J = "org.slf4j:slf4j-api:1.7.36";
+
+	@Test
+	public void checkWhenEqualGraphsThenCheckedOnceAndReportedPerClasspath() {
+		ProhibitedDependenciesReport report = CheckClasspathsForProhibitedDependencies.check(Arrays.asList(
+				snapshot(":web:runtimeClasspath", DependencyPolicy.DEFAULT_RULES, graph("project :web", COMMONS_LOGGING)),
+				snapshot(":core:compileClasspath", DependencyPolicy.DEFAULT_RULES, graph("project :core", SLF4J)),
+				snapshot(":web:compileClasspath", DependencyPolicy.DEFAULT_RULES, graph("project :web", COMMONS_LOGGING))));
+		assertThat(report.hasFindings()).isTrue();
+		assertThat(report.toText()).startsWith(String.format(
+				"Checked 3 classpaths (2 distinct graphs, 3 distinct modules)%n"
+				+ "Found prohibited dependencies in ':web:compileClasspath':%n"
+				+ "    commons-logging:commons-logging:1.2%n"
+				+ "        project :web -> org.springframework:spring-core:5.3.17 -> commons-logging:commons-logging:1.2%n"
+				+ "Found prohibited dependencies in ':web:runtimeClasspath':%n"));
+	}
+
+	@Test
+	public void checkWhenDifferentPoliciesThenGroupedByPolicy() {
+		List<String> allowCommonsLogging = new ArrayList<>(DependencyPolicy.DEFAULT_RULES);
+		allowCommonsLogging.add("allow commons-logging");
+		DependencyGraph graph = graph("project :web", COMMONS_LOGGING);
+		ProhibitedDependenciesReport report = CheckClasspathsForProhibitedDependencies.check(Arrays.asList(
+				snapshot(":web:runtimeClasspath", DependencyPolicy.DEFAULT_RULES, graph),
+				snapshot(":legacy:runtimeClasspath", allowCommonsLogging, graph)));
+		assertThat(report.toText()).startsWith(String.format("Checked 2 classpaths (2 distinct graphs, 2 distinct modules)%n"))
+				.contains("':web:runtimeClasspath'")
+				.doesNotContain("':legacy:runtimeClasspath'");
+	}
+
+	@Test
+	public void checkWhenGraphsShareModulesThenDistinctModulesCountedOnce() {
+		ProhibitedDependenciesReport report = CheckClasspathsForProhibitedDependencies.check(Arrays.asList(
+				snapshot(":web:runtimeClasspath", DependencyPolicy.DEFAULT_RULES, graph("project :web", SLF4J)),
+				snapshot(":core:runtimeClasspath", DependencyPolicy.DEFAULT_RULES, graph("project :core", SLF4J))));
+		assertThat(report.hasFindings()).isFalse();
+		assertThat(report.toText()).isEqualTo(String.format("Checked 2 classpaths (2 distinct graphs, 2 distinct modules)%n"
+				+ "No prohibited dependencies found%n"));
+	}
+
+	@Test
+	public void checkWhenProhibitedClassesThenReported() {
+		Map<String, List<String>> prohibitedClasses = Collections.singletonMap("com.example:shaded:1.0 (shaded-1.0.jar)",
+				Collections.singletonList("shaded/org/apache/commons/logging/Log.class"));
+		ProhibitedDependenciesReport report = CheckClasspathsForProhibitedDependencies.check(Collections.singletonList(
+				new ClasspathSnapshot(":web:runtimeClasspath", DependencyPolicy.DEFAULT_RULES,
+						graph("project :web", SLF4J), prohibitedClasses)));
+		assertThat(report.hasFindings()).isTrue();
+		assertThat(report.toText()).contains(String.format("Found prohibited classes in ':web:runtimeClasspath':%n"
+				+ "    com.example:shaded:1.0 (shaded-1.0.jar)%n"
+				+ "        shaded/org/apache/commons/logging/Log.class%n"));
+	}
+
+	private static ClasspathSnapshot snapshot(String classpath, List<String> policyRules, DependencyGraph graph) {
+		return new ClasspathSnapshot(classpath, policyRules, graph);
+	}
+
+	private static DependencyGraph graph(String root, String coreDependency) {
+		Map<String, List<String>> dependencies = new LinkedHashMap<>();
+		dependencies.put(root, Collections.singletonList(SPRING_CORE));
+		dependencies.put(SPRING_CORE, Collections.singletonList(coreDependency));
+		return DependencyGraph.of(root, dependencies);
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.gradle.classpath;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+public class ClasspathSnapshotTests {
+	@TempDir
+	Path directory;
+
+	@Test
+	public void readWhenWrittenThenEqualSnapshot() throws IOException {
+		Path file = this.directory.resolve("web/compileClasspath.snapshot");
+		Map<String, List<String>> prohibitedClasses = Collections.singletonMap("com.example:shaded:1.0 (shaded-1.0.jar)",
+				Arrays.asList("org/apache/commons/logging/Log.class"));
+		new ClasspathSnapshot(":web:compileClasspath", DependencyPolicy.DEFAULT_RULES, graph(), prohibitedClasses)
+				.write(file);
+		ClasspathSnapshot snapshot = ClasspathSnapshot.read(file);
+		assertThat(snapshot.getClasspath()).isEqualTo(":web:compileClasspath");
+		assertThat(snapshot.getProhibitedClasses()).isEqualTo(prohibitedClasses);
+		assertThat(snapshot.getPolicyRules()).isEqualTo(DependencyPolicy.DEFAULT_RULES);
+		assertThat(snapshot.getGraph()).isEqualTo(graph());
+		assertThat(snapshot.getGraph().getInboundPaths("commons-logging:commons-logging:1.2", 1)).hasSize(1);
+	}
+
+	@Test
+	public void readWhenNotSnapshotThenIOException() throws IOException {
+		Path file = Files.write(this.directory.resolve("other.snapshot"), new byte[] { 1, 2, 3 });
+		assertThatIOException().isThrownBy(() -> ClasspathSnapshot.read(file));
+	}
+
+	private static DependencyGraph graph() {
+		Map<String, List<String>> dependencies = new LinkedHashMap<>();
+		dependencies.put("project :web", Arrays.asList("project :core", "org.apache.httpcomponents:httpclient:4.5.13"));
+		dependencies.put("project :core", Arrays.asList("org.springframework:spring-core:5.3.17"));
+		dependencies.put("org.springframework:spring-core:5.3.17", Arrays.asList("commons-logging:commons-logging:1.2"));
+		dependencies.put("org.apache.httpcomponents:httpclient:4.5.13", Arrays.asList("commons-logging:commons-logging:1.2"));
+		return DependencyGraph.of("project :web", dependencies);
+	}
+}
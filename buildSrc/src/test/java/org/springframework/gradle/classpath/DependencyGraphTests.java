@@ -0,0 +1,127 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.gradle.classpath;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.api.artifacts.component.ProjectComponentIdentifier;
+import org.gradle.api.artifacts.result.DependencyResult;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.artifacts.result.ResolvedDependencyResult;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+public class DependencyGraphTests {
+	@Test
+	public void getModulesWhenGraphThenSortedExternalModulesOnly() {
+		DependencyGraph graph = graph();
+		assertThat(graph.getModules()).containsExactly("commons-logging:commons-logging:1.2",
+				"org.apache.httpcomponents:httpclient:4.5.13", "org.springframework:spring-core:5.3.17");
+	}
+
+	@Test
+	public void fromWhenConstraintsThenConstraintEdgesSkipped() {
+		ResolvedComponentResult web = project(":web");
+		ResolvedComponentResult platform = project(":dependencies");
+		ResolvedComponentResult springCore = module("org.springframework", "spring-core", "5.3.17");
+		ResolvedComponentResult commonsLogging = module("commons-logging", "commons-logging", "1.2");
+		ResolvedComponentResult jsr305 = module("com.google.code.findbugs", "jsr305", "3.0.2");
+		dependencies(web, dependency(platform, false), dependency(springCore, false));
+		dependencies(platform, dependency(commonsLogging, true), dependency(jsr305, true));
+		dependencies(springCore, dependency(commonsLogging, false));
+		dependencies(commonsLogging);
+		DependencyGraph graph = DependencyGraph.from(web);
+		assertThat(graph.getModules()).containsExactly("commons-logging:commons-logging:1.2",
+				"org.springframework:spring-core:5.3.17");
+		assertThat(graph.getInboundPaths("commons-logging:commons-logging:1.2", 3)).containsExactly(
+				Arrays.asList("project :web", "org.springframework:spring-core:5.3.17",
+						"commons-logging:commons-logging:1.2"));
+	}
+
+	@Test
+	public void getInboundPathsWhenReachableTwiceThenShortestPathPerInboundEdge() {
+		List<List<String>> paths = graph().getInboundPaths("commons-logging:commons-logging:1.2", 3);
+		assertThat(paths).containsExactly(
+				Arrays.asList("project :web", "org.apache.httpcomponents:httpclient:4.5.13",
+						"commons-logging:commons-logging:1.2"),
+				Arrays.asList("project :web", "project :core", "org.springframework:spring-core:5.3.17",
+						"commons-logging:commons-logging:1.2"));
+	}
+
+	@Test
+	public void getInboundPathsWhenLimitedThenShortestPathsOnly() {
+		assertThat(graph().getInboundPaths("commons-logging:commons-logging:1.2", 1)).hasSize(1);
+		assertThat(graph().getInboundPaths("com.example:missing:1.0", 1)).isEmpty();
+	}
+
+	@Test
+	public void equalsWhenSameGraphThenEqual() {
+		assertThat(graph()).isEqualTo(graph()).hasSameHashCodeAs(graph());
+		assertThat(graph()).isNotEqualTo(DependencyGraph.of("project :web", Collections.emptyMap()));
+	}
+
+	private static ResolvedComponentResult project(String path) {
+		ProjectComponentIdentifier id = mock(ProjectComponentIdentifier.class);
+		given(id.getDisplayName()).willReturn("project " + path);
+		ResolvedComponentResult component = mock(ResolvedComponentResult.class);
+		given(component.getId()).willReturn(id);
+		return component;
+	}
+
+	private static ResolvedComponentResult module(String group, String name, String version) {
+		ModuleVersionIdentifier moduleVersion = mock(ModuleVersionIdentifier.class);
+		given(moduleVersion.getGroup()).willReturn(group);
+		given(moduleVersion.getName()).willReturn(name);
+		given(moduleVersion.getVersion()).willReturn(version);
+		ResolvedComponentResult component = mock(ResolvedComponentResult.class);
+		given(component.getId()).willReturn(mock(ModuleComponentIdentifier.class));
+		given(component.getModuleVersion()).willReturn(moduleVersion);
+		return component;
+	}
+
+	private static ResolvedDependencyResult dependency(ResolvedComponentResult selected, boolean constraint) {
+		ResolvedDependencyResult dependency = mock(ResolvedDependencyResult.class);
+		given(dependency.getSelected()).willReturn(selected);
+		given(dependency.isConstraint()).willReturn(constraint);
+		return dependency;
+	}
+
+	private static void dependencies(ResolvedComponentResult component, DependencyResult... dependencies) {
+		doReturn(new LinkedHashSet<>(Arrays.asList(dependencies))).when(component).getDependencies();
+	}
+
+	private static DependencyGraph graph() {
+		Map<String, List<String>> dependencies = new LinkedHashMap<>();
+		dependencies.put("project :web", Arrays.asList("project :core", "org.apache.httpcomponents:httpclient:4.5.13"));
+		dependencies.put("project :core", Arrays.asList("org.springframework:spring-core:5.3.17"));
+		dependencies.put("org.springframework:spring-core:5.3.17", Arrays.asList("commons-logging:commons-logging:1.2"));
+		dependencies.put("org.apache.httpcomponents:httpclient:4.5.13", Arrays.asList("commons-logging:commons-logging:1.2"));
+		return DependencyGraph.of("project :web", dependencies);
+	}
+}
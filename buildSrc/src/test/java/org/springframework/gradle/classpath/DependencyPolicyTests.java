@@ -0,0 +1,140 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.gradle.classpath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class DependencyPolicyTests {
+	private final DependencyPolicy defaults = DependencyPolicy.compile(DependencyPolicy.DEFAULT_RULES);
+
+	@Test
+	public void isProhibitedWhenDefaultRulesThenLegacyApisProhibited() {
+		assertThat(this.defaults.isProhibited("commons-logging", "commons-logging", "1.2")).isTrue();
+		assertThat(this.defaults.isProhibited("org.slf4j", "jcl-over-slf4j", "1.7.36")).isTrue();
+		assertThat(this.defaults.isProhibited("org.jboss.spec.javax.servlet", "jboss-servlet-api_4.0_spec", "2.0.0")).isTrue();
+		assertThat(this.defaults.isProhibited("org.apache.geronimo.specs", "geronimo-jms_1.1_spec", "1.1.1")).isTrue();
+	}
+
+	@Test
+	public void isProhibitedWhenDefaultRulesThenOthersAllowed() {
+		assertThat(this.defaults.isProhibited("org.slf4j", "slf4j-api", "1.7.36")).isFalse();
+		assertThat(this.defaults.isProhibited("org.apache.geronimo.specsx", "other", "1.0")).isFalse();
+		assertThat(this.defaults.isProhibited("javax.cache", "cache-api", "1.1.1")).isFalse();
+		assertThat(this.defaults.isProhibited("org.springframework", "spring-core", "5.3.17")).isFalse();
+	}
+
+	@Test
+	public void isProhibitedWhenAllowRuleMatchesThenAllowedRegardlessOfOrder() {
+		DependencyPolicy policy = DependencyPolicy.compile(Arrays.asList("allow javax.batch", "deny javax*"));
+		assertThat(policy.isProhibited("javax.batch", "javax.batch-api", "1.0")).isFalse();
+		assertThat(policy.isProhibited("javax.servlet", "javax.servlet-api", "4.0.1")).isTrue();
+		assertThat(policy.isProhibited("jakarta.servlet", "jakarta.servlet-api", "5.0.0")).isFalse();
+	}
+
+	@Test
+	public void isProhibitedWhenGlobInNameThenWildcardDoesNotCrossGroup() {
+		DependencyPolicy policy = DependencyPolicy.compile(Arrays.asList("deny com.example:*-legacy"));
+		assertThat(policy.isProhibited("com.example", "client-legacy", "1.0")).isTrue();
+		assertThat(policy.isProhibited("com.example", "client", "1.0")).isFalse();
+		assertThat(policy.isProhibited("com.example.sub", "client-legacy", "1.0")).isFalse();
+	}
+
+	@Test
+	public void isProhibitedWhenVersionRangeThenOnlyVersionsInRange() {
+		DependencyPolicy policy = DependencyPolicy.compile(Arrays.asList("deny com.example:library [1.0,2.0)",
+				"deny com.example:other 3.1.4"));
+		assertThat(policy.isProhibited("com.example", "library", "0.9")).isFalse();
+		assertThat(policy.isProhibited("com.example", "library", "1.0")).isTrue();
+		assertThat(policy.isProhibited("com.example", "library", "1.10.2")).isTrue();
+		assertThat(policy.isProhibited("com.example", "library", "2.0.0")).isFalse();
+		assertThat(policy.isProhibited("com.example", "other", "3.1.4")).isTrue();
+		assertThat(policy.isProhibited("com.example", "other", "3.1.5")).isFalse();
+	}
+
+	@Test
+	public void isProhibitedWhenUpperBoundThenPreReleasesOfUpperBoundInRange() {
+		DependencyPolicy policy = DependencyPolicy.compile(Arrays.asList("deny com.example:library (,2.0)"));
+		assertThat(policy.isProhibited("com.example", "library", "1.9.9")).isTrue();
+		assertThat(policy.isProhibited("com.example", "library", "2.0-SNAPSHOT")).isTrue();
+		assertThat(policy.isProhibited("com.example", "library", "2.0-M1")).isTrue();
+		assertThat(policy.isProhibited("com.example", "library", "2.0.0-RC2")).isTrue();
+		assertThat(policy.isProhibited("com.example", "library", "2.0")).isFalse();
+		assertThat(policy.isProhibited("com.example", "library", "2.0.0.RELEASE")).isFalse();
+		assertThat(policy.isProhibited("com.example", "library", "2.0.1-M1")).isFalse();
+	}
+
+	@Test
+	public void isProhibitedWhenRangeThenSnapshotOfUpperBoundIncludedAndOfLowerBoundExcluded() {
+		DependencyPolicy policy = DependencyPolicy.compile(Arrays.asList("deny com.example:library [1.0,2.0)"));
+		assertThat(policy.isProhibited("com.example", "library", "1.0-SNAPSHOT")).isFalse();
+		assertThat(policy.isProhibited("com.example", "library", "1.0-RC1")).isFalse();
+		assertThat(policy.isProhibited("com.example", "library", "2.0-SNAPSHOT")).isTrue();
+		assertThat(policy.isProhibited("com.example", "library", "2.0-M10")).isTrue();
+	}
+
+	@Test
+	public void isProhibitedWhenExactVersionRangeThenOnlyThatVersion() {
+		DependencyPolicy policy = DependencyPolicy.compile(Arrays.asList("deny com.example:library [1.0]"));
+		assertThat(policy.isProhibited("com.example", "library", "1.0")).isTrue();
+		assertThat(policy.isProhibited("com.example", "library", "1.0.0")).isTrue();
+		assertThat(policy.isProhibited("com.example", "library", "1.0-RC1")).isFalse();
+		assertThat(policy.isProhibited("com.example", "library", "1.0.1")).isFalse();
+	}
+
+	@Test
+	public void compareWhenQualifiersThenOrderedLikeSemanticVersions() {
+		List<String> versions = Arrays.asList("2.0", "2.0-jre", "2.0-RC2", "2.0-M10", "2.0-M2", "2.0-SNAPSHOT", "1.10",
+				"2.0-RC10");
+		List<String> sorted = new ArrayList<>(versions);
+		sorted.sort(DependencyPolicy.VersionRange::compare);
+		assertThat(sorted).containsExactly("1.10", "2.0-SNAPSHOT", "2.0-M2", "2.0-M10", "2.0-RC2", "2.0-RC10", "2.0",
+				"2.0-jre");
+	}
+
+	@Test
+	public void isProhibitedWhenThousandsOfRulesThenOnlyMatchingRulesApply() {
+		List<String> rules = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			rules.add("deny com.example" + i + ":artifact" + i);
+		}
+		rules.add("deny com.example42*");
+		DependencyPolicy policy = DependencyPolicy.compile(rules);
+		assertThat(policy.isProhibited("com.example4999", "artifact4999", "1.0")).isTrue();
+		assertThat(policy.isProhibited("com.example4999", "artifact4998", "1.0")).isFalse();
+		assertThat(policy.isProhibited("com.example421", "anything", "1.0")).isTrue();
+	}
+
+	@Test
+	public void compileWhenInvalidRuleThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> DependencyPolicy.compile(Arrays.asList("block javax")))
+				.withMessageContaining("allow|deny");
+		assertThatIllegalArgumentException().isThrownBy(() -> DependencyPolicy.compile(Arrays.asList("deny a:b:c")))
+				.withMessageContaining("group[:name]");
+		assertThatIllegalArgumentException().isThrownBy(() -> DependencyPolicy.compile(Arrays.asList("deny a:b [1.0")))
+				.withMessageContaining("version range");
+		assertThatIllegalArgumentException().isThrownBy(() -> DependencyPolicy.compile(Arrays.asList("deny a:b (1.0)")))
+				.withMessageContaining("version range");
+	}
+}
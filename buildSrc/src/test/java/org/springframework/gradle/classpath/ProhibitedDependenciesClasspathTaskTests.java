@@ -0,0 +1,66 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.gradle.classpath;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProhibitedDependenciesClasspathTaskTests {
+	@TempDir
+	Path directory;
+
+	@Test
+	public void scanBytecodeWhenJarsWithSameFileNameThenModulesKeyedByPath() throws IOException {
+		Path provider = jar("spring/core-1.0.jar");
+		Path shaded = jar("example/core-1.0.jar");
+		Map<String, String> modules = new TreeMap<>();
+		modules.put(provider.toAbsolutePath().toString(), "org.springframework:spring-jcl:1.0");
+		modules.put(shaded.toAbsolutePath().toString(), "com.example:core:1.0");
+		Map<String, List<String>> prohibitedClasses = ProhibitedDependenciesClasspathTask.scanBytecode(
+				new LinkedHashSet<>(Arrays.asList(provider.toFile(), shaded.toFile())), modules,
+				BytecodeScanner.DEFAULT_PACKAGE_PROVIDERS, this.directory.resolve("cache"),
+				BytecodeScanner.DEFAULT_PROHIBITED_PACKAGES);
+		assertThat(prohibitedClasses).containsExactly(Map.entry("com.example:core:1.0 (core-1.0.jar)",
+				Collections.singletonList("org/apache/commons/logging/Log.class")));
+	}
+
+	private Path jar(String name) throws IOException {
+		Path jar = this.directory.resolve(name);
+		Files.createDirectories(jar.getParent());
+		try (OutputStream output = Files.newOutputStream(jar); ZipOutputStream zip = new ZipOutputStream(output)) {
+			zip.putNextEntry(new ZipEntry("org/apache/commons/logging/Log.class"));
+			zip.write(new byte[] { 1, 2, 3 });
+			zip.closeEntry();
+		}
+		return jar;
+	}
+}
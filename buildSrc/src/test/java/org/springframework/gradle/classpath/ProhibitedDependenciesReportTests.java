@@ -0,0 +1,79 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.gradle.classpath;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProhibitedDependenciesReportTests {
+	@Test
+	public void reportWhenFindingsThenInboundPathsAsTextAndJson() {
+		ProhibitedDependenciesReport report = new ProhibitedDependenciesReport(4, 2, 3);
+		report.add(":web:runtimeClasspath", graph(), Collections.singletonList("commons-logging:commons-logging:1.2"));
+		assertThat(report.hasFindings()).isTrue();
+		assertThat(report.toText()).isEqualTo(String.format(
+				"Checked 4 classpaths (2 distinct graphs, 3 distinct modules)%n"
+				+ "Found prohibited dependencies in ':web:runtimeClasspath':%n"
+				+ "    commons-logging:commons-logging:1.2%n"
+				+ "        project :web -> org.apache.httpcomponents:httpclient:4.5.13 -> commons-logging:commons-logging:1.2%n"
+				+ "        project :web -> project :core -> org.springframework:spring-core:5.3.17 -> commons-logging:commons-logging:1.2%n"));
+		assertThat(report.toJson()).contains("\"classpath\": \":web:runtimeClasspath\"")
+				.contains("\"module\": \"commons-logging:commons-logging:1.2\"")
+				.contains("\"distinctGraphs\": 2");
+	}
+
+	@Test
+	public void reportWhenManyProhibitedClassesThenTextLimited() {
+		List<String> classes = Arrays.asList("a/Log.class", "b/Log.class", "c/Log.class", "d/Log.class", "e/Log.class",
+				"f/Log.class", "g/Log.class");
+		ProhibitedDependenciesReport report = new ProhibitedDependenciesReport(1, 1, 1);
+		report.addClasses(":web:runtimeClasspath", "shaded.jar", classes);
+		assertThat(report.toText()).contains(String.format("        e/Log.class%n        ... and 2 more%n"))
+				.doesNotContain("f/Log.class");
+		assertThat(report.toJson()).contains("\"prohibitedClasses\"").contains("g/Log.class");
+	}
+
+	@Test
+	public void writeJsonWhenNoFindingsThenSummaryOnly(@TempDir Path directory) throws IOException {
+		Path file = directory.resolve("reports/all-classpaths.json");
+		ProhibitedDependenciesReport report = new ProhibitedDependenciesReport(2, 1, 5);
+		report.writeJson(file);
+		assertThat(report.hasFindings()).isFalse();
+		assertThat(new String(Files.readAllBytes(file), StandardCharsets.UTF_8)).contains("\"distinctModules\": 5")
+				.contains("\"classpaths\": []");
+	}
+
+	private static DependencyGraph graph() {
+		Map<String, List<String>> dependencies = new LinkedHashMap<>();
+		dependencies.put("project :web", Arrays.asList("project :core", "org.apache.httpcomponents:httpclient:4.5.13"));
+		dependencies.put("project :core", Arrays.asList("org.springframework:spring-core:5.3.17"));
+		dependencies.put("org.springframework:spring-core:5.3.17", Arrays.asList("commons-logging:commons-logging:1.2"));
+		dependencies.put("org.apache.httpcomponents:httpclient:4.5.13", Arrays.asList("commons-logging:commons-logging:1.2"));
+		return DependencyGraph.of("project :web", dependencies);
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.support;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import org.springframework.support.SpringReleaseCalendar.Entry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.entry;
+
+public class ReleaseTrainTemplateTests {
+	private static final ReleaseTrainTemplate QUARTERLY = ReleaseTrainTemplate.builder()
+			.startMonths(1, 4, 7, 10)
+			.qualifiers("M1", "RC1", "GA")
+			.weekOfMonth(3)
+			.dayOfWeek(2)
+			.build();
+
+	@Test
+	public void getTrainDatesWhenQuarterlyTemplateThenThreeReleases() {
+		SpringReleaseTrainSpec releaseTrainSpec =
+				SpringReleaseTrainSpec.builder()
+						.template(QUARTERLY)
+						.train(4)
+						.version("1.0.0")
+						.year(2023)
+						.build();
+
+		Map<String, LocalDate> trainDates = new SpringReleaseTrain(releaseTrainSpec).getTrainDates();
+		assertThat(trainDates).containsExactly(entry("1.0.0-M1", LocalDate.of(2023, 10, 17)),
+				entry("1.0.0-RC1", LocalDate.of(2023, 11, 21)), entry("1.0.0", LocalDate.of(2023, 12, 19)));
+	}
+
+	@Test
+	public void getTrainDatesWhenBlackoutDatesThenNextWeekday() {
+		ReleaseTrainTemplate template = QUARTERLY.mutate()
+				.blackoutDates(LocalDate.of(2023, 12, 19), LocalDate.of(2023, 12, 20))
+				.build();
+		SpringReleaseTrainSpec releaseTrainSpec =
+				SpringReleaseTrainSpec.builder()
+						.template(template)
+						.train(4)
+						.version("1.0.0")
+						.year(2023)
+						.build();
+
+		SpringReleaseTrain releaseTrain = new SpringReleaseTrain(releaseTrainSpec);
+		assertThat(releaseTrain.getTrainDates().get("1.0.0")).isEqualTo(LocalDate.of(2023, 12, 21));
+		assertThat(releaseTrain.getVersionDueOn(LocalDate.of(2023, 12, 21))).isEqualTo("1.0.0");
+		assertThat(releaseTrain.getVersionDueOn(LocalDate.of(2023, 12, 19))).isNull();
+	}
+
+	@Test
+	public void getReleaseDateWhenBlackoutOnFridayThenMonday() {
+		ReleaseTrainTemplate template = ReleaseTrainTemplate.builder()
+				.dayOfWeek(5)
+				.blackoutDates(LocalDate.of(2023, 12, 1))
+				.build();
+		assertThat(template.getReleaseDate(Year.of(2023).atMonth(Month.DECEMBER))).isEqualTo(LocalDate.of(2023, 12, 4));
+	}
+
+	@ParameterizedTest
+	@CsvSource({
+			"2023-08-15, 4, 2023",
+			"2023-10-01, 4, 2023",
+			"2023-11-01, 1, 2024"
+	})
+	public void nextTrainWhenQuarterlyTemplateThenNextQuarter(LocalDate startDate, int expectedTrain, Year expectedYear) {
+		SpringReleaseTrainSpec releaseTrainSpec =
+				SpringReleaseTrainSpec.builder()
+						.template(QUARTERLY)
+						.nextTrain(startDate)
+						.version("1.0.0")
+						.build();
+		assertThat(releaseTrainSpec.getTrainNumber()).isEqualTo(expectedTrain);
+		assertThat(releaseTrainSpec.getYear()).isEqualTo(expectedYear);
+	}
+
+	@Test
+	public void buildWhenCalendarWithTemplateThenReleasesOfEveryQuarter() {
+		SpringReleaseCalendar calendar = SpringReleaseCalendar.builder()
+				.years(2023, 2023)
+				.project("spring-security", QUARTERLY)
+				.build();
+		Map<Integer, Long> releasesPerTrain = calendar.getEntries().stream()
+				.filter((entry) -> entry.getTrain() != null)
+				.collect(Collectors.groupingBy(Entry::getTrain, Collectors.counting()));
+		assertThat(releasesPerTrain).containsOnly(entry(1, 3L), entry(2, 3L), entry(3, 3L), entry(4, 3L));
+	}
+
+	@Test
+	public void buildWhenTrainsOverlapThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> ReleaseTrainTemplate.builder().startMonths(1, 4).build())
+				.withMessageContaining("overlaps");
+	}
+
+	@Test
+	public void buildWhenLastQualifierIsNotGaThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> ReleaseTrainTemplate.builder().qualifiers("M1", "RC1").build())
+				.withMessage("The last qualifier must be GA");
+	}
+
+	@Test
+	public void buildWhenQualifiersOutOfOrderThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> ReleaseTrainTemplate.builder().qualifiers("RC1", "M1", "GA").build())
+				.withMessageContaining("ascending order");
+	}
+}
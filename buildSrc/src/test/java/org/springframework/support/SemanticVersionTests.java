@@ -0,0 +1,97 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.support;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import org.springframework.support.SemanticVersion.Qualifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class SemanticVersionTests {
+	@ParameterizedTest
+	@CsvSource({
+			"5.6.0, 5, 6, 0, GA, 0",
+			"5.6.1-SNAPSHOT, 5, 6, 1, SNAPSHOT, 0",
+			"5.6.0-M1, 5, 6, 0, M, 1",
+			"10.20.30-M12, 10, 20, 30, M, 12",
+			"1.0.0-RC2, 1, 0, 0, RC, 2"
+	})
+	public void parseWhenValidThenSuccess(String version, int major, int minor, int patch, Qualifier qualifier, int qualifierNumber) {
+		SemanticVersion semanticVersion = SemanticVersion.parse(version);
+		assertThat(semanticVersion.getMajor()).isEqualTo(major);
+		assertThat(semanticVersion.getMinor()).isEqualTo(minor);
+		assertThat(semanticVersion.getPatch()).isEqualTo(patch);
+		assertThat(semanticVersion.getQualifier()).isEqualTo(qualifier);
+		assertThat(semanticVersion.getQualifierNumber()).isEqualTo(qualifierNumber);
+		assertThat(semanticVersion.toString()).isEqualTo(version);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+			"", "5", "5.6", "5.6.", "5.6.0.", "5.6.0-", "5.6.0-M", "5.6.0-RC", "5.6.0-M1a", "5.6.0-BUILD-SNAPSHOT",
+			"5.6.0-SNAPSHOT1", "5.x", "5.6.0.RELEASE", "General Backlog", "-5.6.0", "5.6.0-m1", "9999999999.0.0"
+	})
+	public void tryParseWhenInvalidThenNull(String version) {
+		assertThat(SemanticVersion.tryParse(version)).isNull();
+		assertThatIllegalArgumentException().isThrownBy(() -> SemanticVersion.parse(version));
+	}
+
+	@Test
+	public void tryParseWhenParsedTwiceThenSameInstance() {
+		assertThat(SemanticVersion.tryParse("5.6.0-M3")).isSameAs(SemanticVersion.tryParse("5.6.0-M3"));
+	}
+
+	@Test
+	public void compareToWhenSameReleaseThenSnapshotMilestonesReleaseCandidatesGa() {
+		List<String> versions = Arrays.asList("5.6.0", "5.6.0-RC1", "5.6.0-M10", "5.6.1-SNAPSHOT", "5.6.0-M9",
+				"5.6.0-SNAPSHOT", "5.5.10", "5.6.0-RC2", "5.10.0-M1", "5.6.0-M1");
+		List<String> sorted = versions.stream().map(SemanticVersion::parse).sorted()
+				.map(SemanticVersion::toString).collect(Collectors.toList());
+		assertThat(sorted).containsExactly("5.5.10", "5.6.0-SNAPSHOT", "5.6.0-M1", "5.6.0-M9", "5.6.0-M10",
+				"5.6.0-RC1", "5.6.0-RC2", "5.6.0", "5.6.1-SNAPSHOT", "5.10.0-M1");
+	}
+
+	@ParameterizedTest
+	@CsvSource({
+			"5.6.0, 5.6.1-SNAPSHOT",
+			"5.6.0-M1, 5.6.0-SNAPSHOT",
+			"5.6.0-RC1, 5.6.0-SNAPSHOT",
+			"5.6.9, 5.6.10-SNAPSHOT"
+	})
+	public void nextSnapshotWhenReleasedThenSuccess(String version, String expectedSnapshot) {
+		SemanticVersion releaseVersion = SemanticVersion.parse(version);
+		SemanticVersion nextVersion = releaseVersion.isPreRelease() ? releaseVersion : releaseVersion.nextPatch();
+		assertThat(nextVersion.toSnapshot().toString()).isEqualTo(expectedSnapshot);
+	}
+
+	@Test
+	public void toGaWhenPreReleaseThenVersionWithoutQualifier() {
+		SemanticVersion version = SemanticVersion.parse("5.6.0-RC1");
+		assertThat(version.toGa().toString()).isEqualTo("5.6.0");
+		assertThat(version.isSameRelease(version.toGa())).isTrue();
+		assertThat(version.isMinorRelease()).isTrue();
+	}
+}
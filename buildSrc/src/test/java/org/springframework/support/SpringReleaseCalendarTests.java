@@ -0,0 +1,148 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.support;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.support.SpringReleaseCalendar.Entry;
+import org.springframework.support.SpringReleaseTrainSpec.Train;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class SpringReleaseCalendarTests {
+	@Test
+	public void buildWhenSecondTuesdayOf2020ThenMatchesReleaseTrains() {
+		SpringReleaseCalendar calendar = SpringReleaseCalendar.builder()
+				.years(2020, 2020)
+				.project("spring-security", 2, 2)
+				.build();
+		for (Train train : Train.values()) {
+			SpringReleaseTrainSpec releaseTrainSpec =
+					SpringReleaseTrainSpec.builder()
+							.train(train)
+							.version("1.0.0")
+							.weekOfMonth(2)
+							.dayOfWeek(2)
+							.year(2020)
+							.build();
+			Map<String, LocalDate> trainDates = calendar.getEntries().stream()
+					.filter((entry) -> Integer.valueOf(train.ordinal() + 1).equals(entry.getTrain()))
+					.collect(Collectors.toMap((entry) -> "1.0.0" + ("GA".equals(entry.getRelease()) ? "" : "-" + entry.getRelease()), Entry::getDate));
+			assertThat(trainDates).isEqualTo(new SpringReleaseTrain(releaseTrainSpec).getTrainDates());
+		}
+	}
+
+	@Test
+	public void buildWhenSecondTuesdayOf2020ThenPatchReleasesOnEvenMonths() {
+		SpringReleaseCalendar calendar = SpringReleaseCalendar.builder()
+				.years(2020, 2020)
+				.project("spring-security", 2, 2)
+				.build();
+		List<LocalDate> patchDates = calendar.getEntries().stream()
+				.filter((entry) -> entry.getTrain() == null)
+				.map(Entry::getDate)
+				.collect(Collectors.toList());
+		assertThat(patchDates).containsExactly(LocalDate.of(2020, 2, 11), LocalDate.of(2020, 4, 14),
+				LocalDate.of(2020, 6, 9), LocalDate.of(2020, 8, 11), LocalDate.of(2020, 10, 13),
+				LocalDate.of(2020, 12, 8));
+	}
+
+	@Test
+	public void buildWhenSeveralProjectsAndYearsThenOrderedByDateAndProject() {
+		SpringReleaseCalendar calendar = SpringReleaseCalendar.builder()
+				.years(2022, 2024)
+				.project("spring-session", 3, 2)
+				.project("spring-security", 3, 1)
+				.project("spring-authorization-server", 3, 2)
+				.build();
+		// 5 train releases twice a year and 6 patch releases per year and project
+		assertThat(calendar.getEntries()).hasSize(3 * 3 * (10 + 6));
+		assertThat(calendar.getEntries().subList(0, 3)).extracting(Entry::getProject, Entry::getDate, Entry::getRelease)
+				.containsExactly(
+						tuple("spring-security", LocalDate.of(2022, 1, 17), "M1"),
+						tuple("spring-authorization-server", LocalDate.of(2022, 1, 18), "M1"),
+						tuple("spring-session", LocalDate.of(2022, 1, 18), "M1"));
+	}
+
+	@Test
+	public void writeCsvWhenCalendarThenRowPerRelease() {
+		StringWriter csv = new StringWriter();
+		SpringReleaseCalendar.builder()
+				.years(2020, 2020)
+				.project("spring-security", 2, 2)
+				.build()
+				.writeCsv(csv);
+		assertThat(csv.toString()).startsWith("project,date,release,train\r\n"
+				+ "spring-security,2020-01-14,M1,1\r\n"
+				+ "spring-security,2020-02-11,M2,1\r\n"
+				+ "spring-security,2020-02-11,PATCH,\r\n");
+	}
+
+	@Test
+	public void writeIcsWhenCalendarThenAllDayEventPerRelease() {
+		StringWriter ics = new StringWriter();
+		SpringReleaseCalendar.builder()
+				.years(2020, 2020)
+				.project("spring-security", 2, 2)
+				.build()
+				.writeIcs(ics, Instant.parse("2019-12-02T09:30:15Z"));
+		assertThat(ics.toString())
+				.startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n")
+				.contains("BEGIN:VEVENT\r\n"
+						+ "UID:spring-security-20200114-M1@release-calendar.spring.io\r\n"
+						+ "DTSTAMP:20191202T093015Z\r\n"
+						+ "DTSTART;VALUE=DATE:20200114\r\n"
+						+ "DTEND;VALUE=DATE:20200115\r\n"
+						+ "SUMMARY:spring-security M1 (train 1)\r\n"
+						+ "END:VEVENT\r\n")
+				.contains("SUMMARY:spring-security patch release\r\n")
+				.endsWith("END:VCALENDAR\r\n");
+	}
+
+	@Test
+	public void writeIcsWhenLineLongerThan75OctetsThenFolded() {
+		StringWriter ics = new StringWriter();
+		SpringReleaseCalendar.builder()
+				.years(2020, 2020)
+				.project("spring-security-oauth2-authorization-server-extensions-abcdefghijk\u00e9", 2, 2)
+				.build()
+				.writeIcs(ics, Instant.parse("2019-12-02T09:30:15Z"));
+		String[] lines = ics.toString().split("\r\n");
+		assertThat(lines).allSatisfy((line) -> assertThat(line.getBytes(StandardCharsets.UTF_8).length).isLessThanOrEqualTo(75));
+		// The two octets of the last character would exceed the limit
+		assertThat(ics.toString()).contains("SUMMARY:spring-security-oauth2-authorization-server-extensions-abcdefghijk\r\n"
+				+ " \u00e9 M1 (train 1)\r\n");
+		assertThat(ics.toString().replace("\r\n ", "")).contains("UID:spring-security-oauth2-authorization-server-"
+				+ "extensions-abcdefghijk\u00e9-20200114-M1@release-calendar.spring.io\r\n");
+	}
+
+	@Test
+	public void buildWhenInvalidDayOfWeekThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> SpringReleaseCalendar.builder().project("spring-security", 2, 6))
+				.withMessage("Invalid dayOfWeek: 6");
+	}
+}
@@ -208,6 +208,49 @@ public class SpringReleaseTrainTests {
 		}
 	}
 
+	@ParameterizedTest
+	@CsvSource({
+			"2022-01-17, 1.0.0-M1",
+			"2022-02-21, 1.0.0-M2",
+			"2022-03-21, 1.0.0-M3",
+			"2022-04-18, 1.0.0-RC1",
+			"2022-05-16, 1.0.0",
+			"2022-01-16, ",
+			"2022-01-18, ",
+			"2022-03-01, ",
+			"2022-05-17, ",
+			"2021-05-16, "
+	})
+	public void getVersionDueOnWhenTrainOneIsThirdMondayOf2022ThenSuccess(LocalDate date, String expectedVersion) {
+		SpringReleaseTrainSpec releaseTrainSpec =
+				SpringReleaseTrainSpec.builder()
+						.train(1)
+						.version("1.0.0")
+						.weekOfMonth(3)
+						.dayOfWeek(1)
+						.year(2022)
+						.build();
+
+		SpringReleaseTrain releaseTrain = new SpringReleaseTrain(releaseTrainSpec);
+		assertThat(releaseTrain.getVersionDueOn(date)).isEqualTo(expectedVersion);
+	}
+
+	@Test
+	public void isTrainDateWhenUnknownVersionThenFalse() {
+		SpringReleaseTrainSpec releaseTrainSpec =
+				SpringReleaseTrainSpec.builder()
+						.train(1)
+						.version("1.0.0")
+						.weekOfMonth(3)
+						.dayOfWeek(1)
+						.year(2022)
+						.build();
+
+		SpringReleaseTrain releaseTrain = new SpringReleaseTrain(releaseTrainSpec);
+		assertThat(releaseTrain.isTrainDate("1.0.0-M4", LocalDate.of(2022, 1, 17))).isFalse();
+		assertThat(releaseTrain.isTrainDate("1.0.0-M2", LocalDate.of(2022, 1, 17))).isFalse();
+	}
+
 	@ParameterizedTest
 	@CsvSource({
 			"2022-01-01, 2022-02-21",